@@ -0,0 +1,105 @@
+package com.mss.config;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PasswordEncoder that runs another encoder on a bounded executor, so bursts of logins cannot occupy
+ * every request thread with hashing. When the executor and its queue are full the request is answered
+ * with 503 Service Unavailable and a Retry-After header instead of waiting.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    /**
+     * The encoder doing the actual hashing.
+     */
+    private final PasswordEncoder delegate;
+
+    /**
+     * The executor running every hash.
+     */
+    private final ThreadPoolTaskExecutor executor;
+
+    /**
+     * Seconds a client is asked to wait before retrying when the executor is saturated.
+     */
+    private final long retryAfter;
+
+    /**
+     * Number of hashes rejected since the application started.
+     */
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * Creates the encoder.
+     *
+     * @param delegate   the encoder doing the actual hashing
+     * @param executor   the executor running every hash
+     * @param retryAfter seconds a client is asked to wait when the executor is saturated
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, ThreadPoolTaskExecutor executor, long retryAfter) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * @return the executor running every hash
+     */
+    public ThreadPoolTaskExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return the number of hashes rejected since the application started
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private <T> T run(Callable<T> hash) {
+        try {
+            return executor.submit(hash).get();
+        } catch (TaskRejectedException e) {
+            rejectedCount.incrementAndGet();
+            throw saturated();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw saturated();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private RetryAfterResponseStatusException saturated() {
+        return new RetryAfterResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many requests, try again later", retryAfter);
+    }
+}
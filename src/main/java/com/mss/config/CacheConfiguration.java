@@ -0,0 +1,50 @@
+package com.mss.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * CacheConfiguration is a configuration class that defines the beans required
+ * for the Hibernate second-level and query cache.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class CacheConfiguration {
+    /**
+     * Caffeine configuration of the cache regions, read from the classpath.
+     */
+    private static final String CACHE_CONFIG = "classpath:hibernate-cache.conf";
+
+    /**
+     * Configures and provides the in-process cache manager holding every cache region.
+     * The manager is created here because Hibernate cannot resolve classpath URIs inside a packaged jar.
+     *
+     * @return a configured {@link CacheManager} instance
+     */
+    @Bean
+    public CacheManager hibernateCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create(CACHE_CONFIG), getClass().getClassLoader());
+    }
+
+    /**
+     * Hands the cache manager to Hibernate, so regions are created from {@link #CACHE_CONFIG}.
+     *
+     * @param hibernateCacheManager the cache manager holding every cache region
+     * @return a {@link HibernatePropertiesCustomizer} registering the cache manager
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
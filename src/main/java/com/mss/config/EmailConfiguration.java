@@ -3,7 +3,6 @@ package com.mss.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
 import java.util.Properties;
@@ -18,6 +17,18 @@ import java.util.Properties;
  */
 @Configuration
 public class EmailConfiguration {
+    /**
+     * The host of the mail server.
+     */
+    @Value("${spring.mail.host}")
+    private String host;
+
+    /**
+     * The port of the mail server.
+     */
+    @Value("${spring.mail.port}")
+    private int port;
+
     /**
      * The email username for authentication with the mail server.
      */
@@ -31,22 +42,45 @@ public class EmailConfiguration {
     private String password;
 
     /**
-     * Configures and provides a {@link JavaMailSender} bean for sending emails.
+     * Whether the mail server requires authentication.
+     */
+    @Value("${spring.mail.properties.mail.smtp.auth}")
+    private boolean auth;
+
+    /**
+     * Whether the connection is upgraded to TLS.
+     */
+    @Value("${spring.mail.properties.mail.smtp.starttls.enable}")
+    private boolean starttls;
+
+    /**
+     * How long to wait for the mail server to connect, answer or accept data, in milliseconds.
+     */
+    @Value("${application.email.timeout}")
+    private int timeout;
+
+    /**
+     * Configures and provides a {@link JavaMailSenderImpl} bean for sending emails.
+     * Emails are delivered from background jobs, so a mail server that stops answering only holds
+     * a job thread until the timeout, after which the email is retried.
      *
-     * @return a configured {@link JavaMailSender} instance
+     * @return a configured {@link JavaMailSenderImpl} instance
      */
     @Bean
-    public JavaMailSender javaMailSender() {
+    public JavaMailSenderImpl javaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        mailSender.setHost("smtp.gmail.com");
-        mailSender.setPort(587);
+        mailSender.setHost(host);
+        mailSender.setPort(port);
         mailSender.setUsername(emailUsername);
         mailSender.setPassword(password);
 
         Properties props = mailSender.getJavaMailProperties();
         props.put("mail.transport.protocol", "smtp");
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
+        props.put("mail.smtp.auth", String.valueOf(auth));
+        props.put("mail.smtp.starttls.enable", String.valueOf(starttls));
+        props.put("mail.smtp.connectiontimeout", String.valueOf(timeout));
+        props.put("mail.smtp.timeout", String.valueOf(timeout));
+        props.put("mail.smtp.writetimeout", String.valueOf(timeout));
 
         return mailSender;
     }
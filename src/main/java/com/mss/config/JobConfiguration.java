@@ -0,0 +1,63 @@
+package com.mss.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * JobConfiguration is a configuration class that defines the beans required
+ * for running background jobs taken from the persistent job queue.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class JobConfiguration {
+    /**
+     * The first Java release with virtual threads.
+     */
+    private static final int VIRTUAL_THREADS_RELEASE = 21;
+
+    /**
+     * Number of jobs running at the same time. Each running job holds at most one database connection.
+     */
+    @Value("${application.jobs.threads}")
+    private int threads;
+
+    /**
+     * Whether jobs run on virtual threads when the Java runtime supports them.
+     */
+    @Value("${application.jobs.virtual-threads}")
+    private boolean virtualThreads;
+
+    /**
+     * Configures and provides the executor running claimed jobs. Jobs mostly wait on the database and the mail server,
+     * so they run on virtual threads where available, and on a fixed pool of platform threads otherwise.
+     * The job worker never claims more jobs than there are threads, so the queue only absorbs threads that are
+     * still finishing their previous job.
+     *
+     * @return a configured {@link AsyncTaskExecutor} instance
+     */
+    @Bean
+    public AsyncTaskExecutor jobExecutor() {
+        if (virtualThreads && Runtime.version().feature() >= VIRTUAL_THREADS_RELEASE) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("job-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(threads);
+
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("job-");
+
+        return executor;
+    }
+}
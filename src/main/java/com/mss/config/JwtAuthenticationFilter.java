@@ -1,14 +1,19 @@
 package com.mss.config;
 
 
+import com.mss.enumeration.RevocationMode;
+import com.mss.model.User;
 import com.mss.repository.TokenRepository;
 import com.mss.service.impl.JwtService;
+import com.mss.service.impl.TokenCache;
+import com.mss.service.impl.TokenEpochService;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -48,9 +53,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     private final TokenRepository tokenRepository;
 
+    /**
+     * Cache of recently validated tokens, consulted before the database.
+     */
+    private final TokenCache tokenCache;
+
+    /**
+     * Service used to check token epochs when tokens are revoked by epoch.
+     */
+    private final TokenEpochService tokenEpochService;
+
+    /**
+     * How tokens are revoked, by the token table or by the token epoch of the user.
+     */
+    @Value("${application.security.revocation-mode}")
+    private RevocationMode revocationMode;
+
     /**
      * Performs the JWT authentication process by validating the JWT token and setting the authentication
-     * information in the SecurityContextHolder.
+     * information in the SecurityContextHolder. Tokens validated recently are served from {@link TokenCache}
+     * without parsing them or reading the token and the user from the database. Other tokens are parsed
+     * and verified once, then checked against the token table or, in {@link RevocationMode#EPOCH} mode,
+     * against the cached token epoch of the user.
      *
      * @param request     The HttpServletRequest object representing the incoming request.
      * @param response    The HttpServletResponse object representing the outgoing response.
@@ -71,8 +95,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
-        String userEmail1;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -80,49 +102,69 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail1 = null;
+        UserDetails userDetails = tokenCache.get(jwt);
 
-        try {
-            userEmail1 = jwtService.extractUsername(jwt);
-        } catch (ExpiredJwtException e) {
-            response.setStatus(HttpStatus.UNAUTHORIZED.value());
-            response.getWriter().write("Token expired: " + e.getMessage());
-            return;
-        } catch (Exception e) {
-            response.setStatus(HttpStatus.UNAUTHORIZED.value());
-            response.getWriter().write("Invalid token: " + e.getMessage());
-            return;
-        }
+        if (userDetails == null) {
+            final JwtService.TokenClaims claims;
 
-        userEmail = userEmail1;
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-            var tokenOpt = tokenRepository.findByToken(jwt);
-
-            if (tokenOpt.isPresent()) {
-                var isTokenValid = !tokenOpt.get().isExpired() && !tokenOpt.get().isRevoked();
-
-                if (jwtService.isTokenValid(jwt, userDetails) && isTokenValid) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                } else {
+            try {
+                claims = jwtService.parseAndValidate(jwt);
+            } catch (ExpiredJwtException e) {
+                response.setStatus(HttpStatus.UNAUTHORIZED.value());
+                response.getWriter().write("Token expired: " + e.getMessage());
+                return;
+            } catch (Exception e) {
+                response.setStatus(HttpStatus.UNAUTHORIZED.value());
+                response.getWriter().write("Invalid token: " + e.getMessage());
+                return;
+            }
+
+            if (claims.username() == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            var isTokenValid = true;
+
+            if (revocationMode == RevocationMode.EPOCH) {
+                isTokenValid = tokenEpochService.isCurrent(claims.userId(), claims.epoch());
+            }
+
+            userDetails = this.userDetailsService.loadUserByUsername(claims.username());
+
+            if (revocationMode == RevocationMode.TABLE) {
+                var tokenOpt = tokenRepository.findByTokenHash(jwtService.hash(jwt));
+
+                if (tokenOpt.isEmpty()) {
                     response.setStatus(HttpStatus.UNAUTHORIZED.value());
-                    response.getWriter().write("Token is either revoked or invalid.");
+                    response.getWriter().write("Invalid token.");
                     return;
                 }
-            } else {
+
+                isTokenValid = !tokenOpt.get().isExpired() && !tokenOpt.get().isRevoked();
+            }
+
+            if (!claims.isValidFor(userDetails) || !isTokenValid) {
                 response.setStatus(HttpStatus.UNAUTHORIZED.value());
-                response.getWriter().write("Invalid token.");
+                response.getWriter().write("Token is either revoked or invalid.");
                 return;
             }
+
+            if (userDetails instanceof User user) {
+                tokenCache.put(jwt, userDetails, user.getId(), claims.expiration());
+            }
+        }
+
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities()
+            );
+            authToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+            );
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,66 @@
+package com.mss.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * PasswordHashingConfiguration is a configuration class that defines the beans required
+ * for running every BCrypt hash and verification on a dedicated bounded executor.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class PasswordHashingConfiguration {
+    /**
+     * Number of threads hashing passwords. Each thread keeps at most one CPU busy.
+     */
+    @Value("${application.security.password-hashing.threads}")
+    private int threads;
+
+    /**
+     * Number of hashes that may wait for a thread before new ones are rejected.
+     */
+    @Value("${application.security.password-hashing.queue-capacity}")
+    private int queueCapacity;
+
+    /**
+     * Seconds a client is asked to wait before retrying when the executor is saturated.
+     */
+    @Value("${application.security.password-hashing.retry-after}")
+    private long retryAfter;
+
+    /**
+     * Configures and provides the executor running password hashes.
+     * When the queue is full the hash is rejected instead of running on the request thread.
+     *
+     * @return a configured {@link ThreadPoolTaskExecutor} instance
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+
+        return executor;
+    }
+
+    /**
+     * Creates a bean for the PasswordEncoder interface, which is used to encode and verify passwords.
+     *
+     * @return An instance of {@link BoundedPasswordEncoder} running BCryptPasswordEncoder on {@link #passwordHashingExecutor()}.
+     */
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor(), retryAfter);
+    }
+}
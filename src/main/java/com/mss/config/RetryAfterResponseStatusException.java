@@ -0,0 +1,37 @@
+package com.mss.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * ResponseStatusException telling the client how many seconds to wait before retrying,
+ * through the Retry-After header added by {@link GlobalExceptionHandler}.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+public class RetryAfterResponseStatusException extends ResponseStatusException {
+    /**
+     * The headers of the response, holding Retry-After.
+     */
+    private final HttpHeaders headers = new HttpHeaders();
+
+    /**
+     * Creates the exception.
+     *
+     * @param status     the HTTP status of the response
+     * @param reason     the reason sent as the response body
+     * @param retryAfter seconds the client should wait before retrying
+     */
+    public RetryAfterResponseStatusException(HttpStatus status, String reason, long retryAfter) {
+        super(status, reason);
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+}
@@ -0,0 +1,43 @@
+package com.mss.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * SearchConfiguration is a configuration class that defines the beans required
+ * for running the global search of every entity type in parallel.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class SearchConfiguration {
+    /**
+     * Number of threads running entity searches. Each thread holds at most one database connection.
+     */
+    @Value("${application.search.threads}")
+    private int threads;
+
+    /**
+     * Configures and provides the executor used to fan out global searches.
+     * When the queue is full the calling thread runs the search itself, so load is never dropped.
+     *
+     * @return a configured {@link ThreadPoolTaskExecutor} instance
+     */
+    @Bean
+    public ThreadPoolTaskExecutor searchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 16);
+        executor.setThreadNamePrefix("search-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+
+        return executor;
+    }
+}
@@ -122,6 +122,9 @@ public class SecurityConfiguration {
                         .requestMatchers("/api/v1/dashboard").hasAnyRole(ADMIN.name(), USER.name())
                         .requestMatchers(GET, "/api/v1/dashboard").hasAnyAuthority(ADMIN_READ.name(), USER_READ.name())
 
+                        .requestMatchers("/api/v1/search").hasAnyRole(ADMIN.name(), USER.name())
+                        .requestMatchers(GET, "/api/v1/search").hasAnyAuthority(ADMIN_READ.name(), USER_READ.name())
+
                         .requestMatchers("/api/v1/revenue").hasAnyRole(ADMIN.name(), USER.name())
                         .requestMatchers(POST, "/api/v1/revenue").hasAnyAuthority(ADMIN_CREATE.name(), USER_CREATE.name())
 
@@ -162,7 +165,7 @@ public class SecurityConfiguration {
         configuration.setAllowedOrigins(List.of(frontendUrl));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type","Refresh"));
-        configuration.setExposedHeaders(List.of("X-Total-Items", "X-Total-Pages", "X-Current-Page", "Authorization", "Refresh"));
+        configuration.setExposedHeaders(List.of("X-Total-Items", "X-Total-Pages", "X-Current-Page", "X-Next-Cursor", "Authorization", "Refresh"));
         configuration.setAllowCredentials(true);
 
 
@@ -1,6 +1,16 @@
 package com.mss.controller;
 
+import com.mss.dto.CacheStatisticsDto;
+import com.mss.dto.JobTypeStatisticsDto;
+import com.mss.dto.LoginThrottleStatisticsDto;
+import com.mss.dto.PasswordHashingStatisticsDto;
+import com.mss.dto.PurgeStatisticsDto;
+import com.mss.service.CacheStatisticsService;
 import com.mss.service.CustomerService;
+import com.mss.service.JobStatisticsService;
+import com.mss.service.LoginThrottleStatisticsService;
+import com.mss.service.PasswordHashingStatisticsService;
+import com.mss.service.PermanentDeletionService;
 import com.mss.service.ServiceService;
 import com.mss.service.VehicleService;
 import io.swagger.annotations.ApiOperation;
@@ -14,6 +24,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -35,6 +46,31 @@ public class DashboardController {
      */
     private final ServiceService serviceService;
 
+    /**
+     * The service used to for cache statistics.
+     */
+    private final CacheStatisticsService cacheStatisticsService;
+
+    /**
+     * The service used to report the password hashing executor.
+     */
+    private final PasswordHashingStatisticsService passwordHashingStatisticsService;
+
+    /**
+     * The service used to report the throttling of login attempts.
+     */
+    private final LoginThrottleStatisticsService loginThrottleStatisticsService;
+
+    /**
+     * The service used to report the purge of softly deleted resources.
+     */
+    private final PermanentDeletionService permanentDeletionService;
+
+    /**
+     * The service used to report the background job queue.
+     */
+    private final JobStatisticsService jobStatisticsService;
+
     @GetMapping("/counts")
     @PreAuthorize("hasAnyAuthority('admin:read', 'user:read')")
     @ApiOperation(value = "Get counts.")
@@ -49,4 +85,55 @@ public class DashboardController {
 
         return ResponseEntity.ok(counts);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/cache-statistics")
+    @PreAuthorize("hasAuthority('admin:read')")
+    @ApiOperation(value = "Get second-level and query cache statistics.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Cache statistics successfully fetched."),
+            @ApiResponse(code = 404, message = "Cache statistics are disabled.")
+    })
+    public ResponseEntity<CacheStatisticsDto> getCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getCacheStatistics());
+    }
+
+    @GetMapping("/password-hashing-statistics")
+    @PreAuthorize("hasAuthority('admin:read')")
+    @ApiOperation(value = "Get queue depth and counters of the password hashing executor.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Password hashing statistics successfully fetched.")
+    })
+    public ResponseEntity<PasswordHashingStatisticsDto> getPasswordHashingStatistics() {
+        return ResponseEntity.ok(passwordHashingStatisticsService.getPasswordHashingStatistics());
+    }
+
+    @GetMapping("/login-throttle-statistics")
+    @PreAuthorize("hasAuthority('admin:read')")
+    @ApiOperation(value = "Get rejected attempt and lockout counters of login throttling.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Login throttle statistics successfully fetched.")
+    })
+    public ResponseEntity<LoginThrottleStatisticsDto> getLoginThrottleStatistics() {
+        return ResponseEntity.ok(loginThrottleStatisticsService.getLoginThrottleStatistics());
+    }
+
+    @GetMapping("/purge-statistics")
+    @PreAuthorize("hasAuthority('admin:read')")
+    @ApiOperation(value = "Get progress and timing of the purge of softly deleted resources.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Purge statistics successfully fetched.")
+    })
+    public ResponseEntity<PurgeStatisticsDto> getPurgeStatistics() {
+        return ResponseEntity.ok(permanentDeletionService.getPurgeStatistics());
+    }
+
+    @GetMapping("/job-statistics")
+    @PreAuthorize("hasAuthority('admin:read')")
+    @ApiOperation(value = "Get queue counts, retries, failures and timing of background jobs by type.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Job statistics successfully fetched.")
+    })
+    public ResponseEntity<List<JobTypeStatisticsDto>> getJobStatistics() {
+        return ResponseEntity.ok(jobStatisticsService.getJobStatistics());
+    }
+}
@@ -52,4 +52,19 @@ public class NotificationController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to send email");
         }
     }
+
+    /**
+     * Delivers emails that could not be delivered on their last allowed attempt again.
+     *
+     * @return a {@link ResponseEntity} containing the number of emails that will be delivered again
+     */
+    @PostMapping("/undelivered/retry")
+    @PreAuthorize("hasAnyAuthority('admin:update')")
+    @ApiOperation(value = "Retry undelivered emails.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Undelivered emails successfully returned to the outbox.")
+    })
+    public ResponseEntity<Integer> retryUndeliveredEmails() {
+        return ResponseEntity.ok(notificationService.retryUndeliveredEmails());
+    }
 }
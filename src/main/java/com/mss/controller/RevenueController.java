@@ -3,6 +3,7 @@ package com.mss.controller;
 import com.mss.dto.CountsDto;
 import com.mss.dto.TwoDateDto;
 import com.mss.service.CustomerService;
+import com.mss.service.RevenueRollupService;
 import com.mss.service.ServiceService;
 import com.mss.service.VehicleService;
 import io.swagger.annotations.ApiOperation;
@@ -37,6 +38,11 @@ public class RevenueController {
      */
     private final ServiceService serviceService;
 
+    /**
+     * The service used to for pre-aggregated revenue.
+     */
+    private final RevenueRollupService revenueRollupService;
+
     @PostMapping("/counts")
     @PreAuthorize("hasAnyAuthority('admin:read', 'user:read')")
     @ApiOperation(value = "Get counts.")
@@ -44,12 +50,20 @@ public class RevenueController {
             @ApiResponse(code = 200, message = "Counts' successfully fetched.")
     })
     public ResponseEntity<CountsDto> getCounts(@Valid @RequestBody TwoDateDto twoDateDto) {
-        CountsDto counts = new CountsDto();
-        counts.setRevenue(serviceService.getRevenue(false,twoDateDto));
-        counts.setParts(serviceService.getParts(false, twoDateDto));
-        counts.setServices(serviceService.getServicesForCount(false, twoDateDto));
-
         return ResponseEntity.status(HttpStatus.OK)
-                .body(counts);
+                .body(serviceService.getCounts(false, twoDateDto));
+    }
+
+    @PostMapping("/rollup/rebuild")
+    @PreAuthorize("hasAnyAuthority('admin:update')")
+    @ApiOperation(value = "Rebuild daily revenue rollup.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Daily revenue rollup successfully rebuilt.")
+    })
+    public ResponseEntity<Void> rebuildRollup() {
+        revenueRollupService.rebuild();
+
+        return ResponseEntity.status(HttpStatus.NO_CONTENT)
+                .build();
     }
-}
\ No newline at end of file
+}
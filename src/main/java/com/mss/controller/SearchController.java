@@ -0,0 +1,83 @@
+package com.mss.controller;
+
+import com.mss.dto.SearchResultDto;
+import com.mss.dto.SearchSuggestionDto;
+import com.mss.service.GlobalSearchService;
+import com.mss.service.SearchSuggestService;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller for searching across entity types.
+ * This controller provides endpoints for a global search and for type-ahead suggestions.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+public class SearchController {
+    /**
+     * The service used to for type-ahead suggestions.
+     */
+    private final SearchSuggestService searchSuggestService;
+
+    /**
+     * The service used to for searching all entity types at once.
+     */
+    private final GlobalSearchService globalSearchService;
+
+    /**
+     * Searches customers, vehicles and services, and users for admins, with a single request.
+     *
+     * @param query          the text to search for, at least three characters
+     * @param limitPerType   the maximum number of hits of each entity type
+     * @param authentication the authenticated caller, users are only searched for callers allowed to read them
+     * @return ResponseEntity<List> - The HTTP response containing a list of {@link SearchResultDto} objects, best match first
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('admin:read', 'user:read')")
+    @ApiOperation(value = "Search customers, vehicles, services and users.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Search results successfully fetched.")
+    })
+    public ResponseEntity<List<SearchResultDto>> search(@RequestParam(value = "query") String query,
+                                                        @RequestParam(value = "limitPerType", required = false) Integer limitPerType,
+                                                        Authentication authentication) {
+        boolean includeUsers = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "admin:read".equals(authority.getAuthority()));
+
+        return ResponseEntity.ok(globalSearchService.search(query, limitPerType, includeUsers));
+    }
+
+    /**
+     * Suggests customers and vehicles matching the text typed so far, such as a name, phone number or plate.
+     *
+     * @param query the text typed so far, at least three characters
+     * @param limit the maximum number of suggestions, defaults to 10 and is capped at 50
+     * @return ResponseEntity<List> - The HTTP response containing a list of {@link SearchSuggestionDto} objects, best match first
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyAuthority('admin:read', 'user:read')")
+    @ApiOperation(value = "Get type-ahead suggestions for customers and vehicles.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Suggestions successfully fetched.")
+    })
+    public ResponseEntity<List<SearchSuggestionDto>> suggest(@RequestParam(value = "query") String query,
+                                                             @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(searchSuggestService.suggest(query, limit));
+    }
+}
@@ -121,6 +121,8 @@ public class ServiceController {
      * @param serviceFiltersQueryDto contains parameters based on data will be filtered
      * @param page                   number of wanted page
      * @param pageSize               number of wanted results per page
+     * @param cursor                 cursor of the next page in keyset mode, blank for the first page; offset paging is used when absent
+     * @param withCount              whether X-Total-Items should be counted in keyset mode
      * @return ResponseEntity<List> - The HTTP response containing a list of {@link ServiceDto} objects as the response body
      */
     @PostMapping("/search")
@@ -129,7 +131,23 @@ public class ServiceController {
     @ApiResponse(code = 200, message = "Requests data successfully fetched.")
     public ResponseEntity<List<ServiceDto>> getServices(@RequestBody(required = false) ServiceFiltersQueryDto serviceFiltersQueryDto,
                                                         @RequestParam(value = "page", defaultValue = "0") int page,
-                                                        @RequestParam(value = "pageSize", defaultValue = "5") int pageSize) {
+                                                        @RequestParam(value = "pageSize", defaultValue = "5") int pageSize,
+                                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                                        @RequestParam(value = "withCount", defaultValue = "true") boolean withCount) {
+        if (cursor != null) {
+            CursorPageDto<ServiceDto> cursorPage = serviceService.findFilteredServicesAfter(serviceFiltersQueryDto.isDeleted(), serviceFiltersQueryDto, cursor, pageSize, withCount);
+
+            HttpHeaders headers = new HttpHeaders();
+            if (cursorPage.getNextCursor() != null) {
+                headers.add("X-Next-Cursor", cursorPage.getNextCursor());
+            }
+            if (cursorPage.getTotalElements() != null) {
+                headers.add("X-Total-Items", String.valueOf(cursorPage.getTotalElements()));
+            }
+
+            return new ResponseEntity<>(cursorPage.getContent(), headers, HttpStatus.OK);
+        }
+
         Page<ServiceDto> resultPage = serviceService.findFilteredServices(serviceFiltersQueryDto.isDeleted(), serviceFiltersQueryDto, page, pageSize);
 
         HttpHeaders headers = new HttpHeaders();
@@ -140,6 +140,8 @@ public class VehicleControllers {
      * @param vehicleFiltersQueryDto contains parameters based on data will be filtered
      * @param page                    number of wanted page
      * @param pageSize                number of wanted results per page
+     * @param cursor                  cursor of the next page in keyset mode, blank for the first page; offset paging is used when absent
+     * @param withCount               whether X-Total-Items should be counted in keyset mode
      * @return ResponseEntity<List> - The HTTP response containing a list of {@link VehicleDto} objects as the response body
      */
     @PostMapping("/search")
@@ -148,7 +150,23 @@ public class VehicleControllers {
     @ApiResponse(code = 200, message = "Requests data successfully fetched.")
     public ResponseEntity<List<VehicleDto>> getVehicles(@RequestBody(required = false) VehicleFiltersQueryDto vehicleFiltersQueryDto,
                                                           @RequestParam(value = "page", defaultValue = "0") int page,
-                                                          @RequestParam(value = "pageSize", defaultValue = "5") int pageSize) {
+                                                          @RequestParam(value = "pageSize", defaultValue = "5") int pageSize,
+                                                          @RequestParam(value = "cursor", required = false) String cursor,
+                                                          @RequestParam(value = "withCount", defaultValue = "true") boolean withCount) {
+        if (cursor != null) {
+            CursorPageDto<VehicleDto> cursorPage = vehicleService.findFilteredVehiclesAfter(vehicleFiltersQueryDto.isDeleted(), vehicleFiltersQueryDto, cursor, pageSize, withCount);
+
+            HttpHeaders headers = new HttpHeaders();
+            if (cursorPage.getNextCursor() != null) {
+                headers.add("X-Next-Cursor", cursorPage.getNextCursor());
+            }
+            if (cursorPage.getTotalElements() != null) {
+                headers.add("X-Total-Items", String.valueOf(cursorPage.getTotalElements()));
+            }
+
+            return new ResponseEntity<>(cursorPage.getContent(), headers, HttpStatus.OK);
+        }
+
         Page<VehicleDto> resultPage = vehicleService.findFilteredVehicles(vehicleFiltersQueryDto.isDeleted(), vehicleFiltersQueryDto, page, pageSize);
 
         HttpHeaders headers = new HttpHeaders();
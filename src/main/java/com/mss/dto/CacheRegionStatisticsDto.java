@@ -0,0 +1,37 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) holding hit and miss counters of a single second-level cache region.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatisticsDto {
+    /**
+     * The name of the cache region.
+     */
+    private String region;
+
+    /**
+     * The number of lookups answered by the region.
+     */
+    private long hitCount;
+
+    /**
+     * The number of lookups that had to go to the database.
+     */
+    private long missCount;
+
+    /**
+     * The number of entries put into the region.
+     */
+    private long putCount;
+}
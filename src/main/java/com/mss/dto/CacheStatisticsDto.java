@@ -0,0 +1,44 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) holding second-level and query cache counters collected since the application started.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatisticsDto {
+    /**
+     * The number of entity lookups answered by the second-level cache.
+     */
+    private long secondLevelCacheHitCount;
+
+    /**
+     * The number of entity lookups that missed the second-level cache.
+     */
+    private long secondLevelCacheMissCount;
+
+    /**
+     * The number of cached query results that were reused.
+     */
+    private long queryCacheHitCount;
+
+    /**
+     * The number of cacheable queries that had to be executed.
+     */
+    private long queryCacheMissCount;
+
+    /**
+     * Counters of every entity region.
+     */
+    private List<CacheRegionStatisticsDto> regions;
+}
@@ -0,0 +1,35 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) holding one page of a keyset (cursor) search.
+ *
+ * @param <T> the type of the page content
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    /**
+     * The rows of the page.
+     */
+    private List<T> content;
+
+    /**
+     * The opaque cursor of the next page, or null if this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * The total number of matching rows, or null if it was not requested.
+     */
+    private Long totalElements;
+}
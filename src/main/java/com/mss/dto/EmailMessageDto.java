@@ -0,0 +1,32 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) holding an email waiting in the outbox, stored as the payload of its delivery job.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailMessageDto {
+    /**
+     * The address of the recipient.
+     */
+    private String to;
+
+    /**
+     * The subject of the email.
+     */
+    private String subject;
+
+    /**
+     * The HTML body of the email.
+     */
+    private String text;
+}
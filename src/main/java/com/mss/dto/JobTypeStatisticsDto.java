@@ -0,0 +1,63 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) holding the queue counts of a single job type, together with the attempts
+ * that ran on this instance since it started.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobTypeStatisticsDto {
+    /**
+     * The type of the jobs.
+     */
+    private String type;
+
+    /**
+     * The number of jobs waiting to run, including jobs waiting for a retry.
+     */
+    private long pendingJobs;
+
+    /**
+     * The number of jobs running on any instance.
+     */
+    private long runningJobs;
+
+    /**
+     * The number of jobs that succeeded and have not been purged yet.
+     */
+    private long succeededJobs;
+
+    /**
+     * The number of jobs that failed on their last allowed attempt and have not been purged yet.
+     */
+    private long failedJobs;
+
+    /**
+     * The number of attempts run on this instance.
+     */
+    private long attempts;
+
+    /**
+     * The number of failed attempts on this instance that were scheduled for a retry.
+     */
+    private long retries;
+
+    /**
+     * The number of jobs that failed on their last allowed attempt on this instance.
+     */
+    private long failures;
+
+    /**
+     * The average duration of the attempts run on this instance, in milliseconds.
+     */
+    private long averageDurationMillis;
+}
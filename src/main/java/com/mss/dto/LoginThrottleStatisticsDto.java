@@ -0,0 +1,42 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) holding login throttling counters collected since the application started.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginThrottleStatisticsDto {
+    /**
+     * The number of attempts rejected because of their email.
+     */
+    private long rejectedByEmailCount;
+
+    /**
+     * The number of attempts rejected because of their client address.
+     */
+    private long rejectedByAddressCount;
+
+    /**
+     * The number of times an email was locked out after failed logins.
+     */
+    private long lockoutCount;
+
+    /**
+     * The number of emails currently tracked.
+     */
+    private int trackedEmails;
+
+    /**
+     * The number of client addresses currently tracked.
+     */
+    private int trackedAddresses;
+}
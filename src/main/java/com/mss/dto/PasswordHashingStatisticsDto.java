@@ -0,0 +1,47 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) holding the state of the password hashing executor.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatisticsDto {
+    /**
+     * The number of threads hashing passwords.
+     */
+    private int poolSize;
+
+    /**
+     * The number of hashes running right now.
+     */
+    private int activeCount;
+
+    /**
+     * The number of hashes waiting for a thread.
+     */
+    private int queueDepth;
+
+    /**
+     * The number of hashes that may wait before new ones are rejected.
+     */
+    private int queueCapacity;
+
+    /**
+     * The number of hashes completed since the application started.
+     */
+    private long completedCount;
+
+    /**
+     * The number of hashes rejected since the application started.
+     */
+    private long rejectedCount;
+}
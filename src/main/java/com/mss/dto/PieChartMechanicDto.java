@@ -1,6 +1,8 @@
 package com.mss.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * A Data Transfer Object (DTO) for transferring benefit data between layers of the application.
@@ -11,6 +13,8 @@ import lombok.Data;
  * @since 1.0
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class PieChartMechanicDto {
     /**
      * The service's invoiceCode.
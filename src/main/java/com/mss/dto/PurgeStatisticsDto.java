@@ -0,0 +1,45 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) holding the progress of the running purge, or the outcome of the last one.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurgeStatisticsDto {
+    /**
+     * Whether a purge is running right now.
+     */
+    private boolean running;
+
+    /**
+     * When the purge started, or null if no purge ran since the application started.
+     */
+    private Instant startedAt;
+
+    /**
+     * When the purge finished, or null while it is running.
+     */
+    private Instant finishedAt;
+
+    /**
+     * The message of the error that stopped the purge, or null if it did not fail.
+     */
+    private String failure;
+
+    /**
+     * Progress of every purged table, in purge order.
+     */
+    private List<PurgeTableStatisticsDto> tables;
+}
@@ -0,0 +1,37 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) holding the progress of purging a single table.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurgeTableStatisticsDto {
+    /**
+     * The name of the purged table.
+     */
+    private String table;
+
+    /**
+     * The number of rows deleted so far.
+     */
+    private long deletedRows;
+
+    /**
+     * The number of committed chunks so far.
+     */
+    private long chunks;
+
+    /**
+     * The time spent purging the table so far, in milliseconds.
+     */
+    private long durationMillis;
+}
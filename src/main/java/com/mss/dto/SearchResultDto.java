@@ -0,0 +1,37 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) holding one hit of the global search.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDto {
+    /**
+     * The type of the found entity, CUSTOMER, VEHICLE, SERVICE or USER.
+     */
+    private String type;
+
+    /**
+     * The id of the found entity.
+     */
+    private Long id;
+
+    /**
+     * The text shown for the hit.
+     */
+    private String label;
+
+    /**
+     * Additional text shown under the label.
+     */
+    private String detail;
+}
@@ -0,0 +1,37 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) holding one type-ahead suggestion.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchSuggestionDto {
+    /**
+     * The type of the suggested entity, CUSTOMER or VEHICLE.
+     */
+    private String type;
+
+    /**
+     * The id of the suggested entity.
+     */
+    private Long id;
+
+    /**
+     * The text shown for the suggestion.
+     */
+    private String label;
+
+    /**
+     * Additional text shown under the label, phone number for customers and VIN for vehicles.
+     */
+    private String detail;
+}
@@ -0,0 +1,43 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) holding the LIKE patterns of a global search query.
+ * The query is normalized once and the same patterns are used by the search of every entity type.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchTermsDto {
+    /**
+     * The trimmed, lowercased query.
+     */
+    private String term;
+
+    /**
+     * Pattern matching the query anywhere in a value.
+     */
+    private String pattern;
+
+    /**
+     * Pattern matching values that start with the query.
+     */
+    private String prefixPattern;
+
+    /**
+     * Pattern matching the digits of the query anywhere in a phone number, or null if the query has less than three digits.
+     */
+    private String digitsPattern;
+
+    /**
+     * Pattern matching the letters and digits of the query anywhere in a license plate, or null if there are less than three.
+     */
+    private String compactPattern;
+}
@@ -0,0 +1,35 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) holding the result of the grouped KPI query over services.
+ * Instances are created directly by the JPQL constructor expression in
+ * {@link com.mss.repository.ServiceRepository#aggregateKpisByDateRange}, so the field types
+ * mirror what the database aggregates return.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceKpiDto {
+    /**
+     * The sum of price multiplied by quantity over all matching service types.
+     */
+    private Double revenue;
+
+    /**
+     * The number of matching service types that have a part code.
+     */
+    private Long parts;
+
+    /**
+     * The number of distinct matching services.
+     */
+    private Long services;
+}
@@ -0,0 +1,29 @@
+package com.mss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) holding the totals of service types that belong to one service.
+ * Instances are created directly by the JPQL constructor expression in
+ * {@link com.mss.repository.ServiceTypeRepository#sumTotalsByServiceId}.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceTotalsDto {
+    /**
+     * The sum of price multiplied by quantity over all service types that are not deleted.
+     */
+    private Double totalAmount;
+
+    /**
+     * The number of service types that are not deleted and have a part code.
+     */
+    private Long partCount;
+}
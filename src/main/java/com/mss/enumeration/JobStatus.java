@@ -0,0 +1,26 @@
+package com.mss.enumeration;
+
+/**
+ * Enum representing the states of a background job.
+ */
+public enum JobStatus {
+    /**
+     * The job is waiting until it is due and claimed by a worker.
+     */
+    PENDING,
+
+    /**
+     * A worker has claimed the job and holds its lease.
+     */
+    RUNNING,
+
+    /**
+     * The job has finished successfully.
+     */
+    SUCCEEDED,
+
+    /**
+     * The job has failed on its last allowed attempt.
+     */
+    FAILED
+}
@@ -0,0 +1,16 @@
+package com.mss.enumeration;
+
+/**
+ * Enum representing the ways access tokens can be revoked.
+ */
+public enum RevocationMode {
+    /**
+     * Every issued token is stored and looked up on each request.
+     */
+    TABLE,
+
+    /**
+     * Tokens carry the token epoch of their user and are revoked by advancing it.
+     */
+    EPOCH
+}
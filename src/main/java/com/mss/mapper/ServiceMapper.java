@@ -28,6 +28,7 @@ public interface ServiceMapper {
     @Mapping(target = "vehicleDto", source = "service.vehicle")
     @Mapping(target = "userDto", source = "service.user")
     @Mapping(target = "serviceTypeDtos", source = "service.serviceTypes")
+    @Mapping(target = "revenuePerService", source = "service.totalAmount")
     ServiceDto serviceToServiceDto(Service service);
 
     /**
@@ -18,10 +18,11 @@ import java.time.Instant;
 @Data
 public abstract class BaseEntity<T> {
     /**
-     * The unique identifier for entities.
+     * The unique identifier for entities. Every entity draws identifiers from its own sequence named after its table,
+     * such as {@code customers_seq}, reserving a block of 50 per call so that inserts can be batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private T id;
 
     /**
@@ -3,6 +3,8 @@ package com.mss.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.FilterDef;
 import org.hibernate.annotations.ParamDef;
@@ -17,6 +19,8 @@ import java.util.List;
 @SQLDelete(sql = "UPDATE customers SET deleted = true WHERE id=?")
 @FilterDef(name = "deletedCustomerFilter", parameters = @ParamDef(name = "isDeleted", type = Boolean.class))
 @Filter(name = "deletedCustomerFilter", condition = "deleted = :isDeleted")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
 public class Customer extends BaseEntity<Long> {
     /**
      * The customer's firstname.
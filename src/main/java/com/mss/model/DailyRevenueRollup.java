@@ -0,0 +1,46 @@
+package com.mss.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * This class represents pre-aggregated revenue for one day, mechanic and customer.
+ * Only services and service types that are not deleted are aggregated.
+ * Rows are kept current by {@link com.mss.service.RevenueRollupService} whenever services, service types,
+ * vehicles or customers change, so analytics can read a handful of rows per day instead of raw services.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@Entity
+@Table(name = "daily_revenue_rollup")
+public class DailyRevenueRollup {
+    /**
+     * The day, mechanic and customer this row aggregates.
+     */
+    @EmbeddedId
+    private DailyRevenueRollupId id;
+
+    /**
+     * The sum of price multiplied by quantity of all service types.
+     */
+    @Column(nullable = false)
+    private double revenue;
+
+    /**
+     * The number of service types that have a part code.
+     */
+    @Column(nullable = false)
+    private long partCount;
+
+    /**
+     * The number of services.
+     */
+    @Column(nullable = false)
+    private long serviceCount;
+}
@@ -0,0 +1,42 @@
+package com.mss.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Composite key of {@link DailyRevenueRollup}. A rollup row is identified by the day the services started,
+ * the mechanic who performed them and the customer who owns the vehicle.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyRevenueRollupId implements Serializable {
+    /**
+     * The start date of the aggregated services.
+     */
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    /**
+     * The id of the user who performed the aggregated services.
+     */
+    @Column(name = "mechanic_id", nullable = false)
+    private Long mechanicId;
+
+    /**
+     * The id of the customer who owns the serviced vehicles.
+     */
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+}
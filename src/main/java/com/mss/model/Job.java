@@ -0,0 +1,111 @@
+package com.mss.model;
+
+import com.mss.enumeration.JobStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * This class represents a background job waiting in, or taken from, the persistent job queue.
+ * Workers claim due jobs with {@code FOR UPDATE SKIP LOCKED}, so every job runs on one worker of one instance,
+ * and hold a lease on it that is extended while the job is running. All times are taken from the database clock.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@Entity
+@Table(name = "jobs")
+public class Job {
+    /**
+     * The unique identifier of the job, allocated from {@code jobs_seq}.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    /**
+     * The type of the job, selecting the handler that runs it.
+     */
+    @Column(nullable = false, length = 64)
+    private String type;
+
+    /**
+     * The input of the job, interpreted by its handler.
+     */
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    /**
+     * Optional key that keeps a job from being enqueued twice, for example by several instances.
+     */
+    @Column(unique = true)
+    private String uniqueKey;
+
+    /**
+     * Jobs with a higher priority are claimed first.
+     */
+    @Column(nullable = false)
+    private int priority;
+
+    /**
+     * The state of the job.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JobStatus status;
+
+    /**
+     * How many times the job has been claimed.
+     */
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * How many times the job may be claimed before it is marked as failed.
+     */
+    @Column(nullable = false)
+    private int maxAttempts;
+
+    /**
+     * When the job becomes due, pushed back after every failed attempt.
+     */
+    @Column(nullable = false)
+    private Instant runAt;
+
+    /**
+     * The worker instance holding the job while it is running.
+     */
+    private String lockedBy;
+
+    /**
+     * When the lease of the running job expires unless it is extended.
+     */
+    private Instant lockedUntil;
+
+    /**
+     * The error of the last failed attempt.
+     */
+    @Column(columnDefinition = "text")
+    private String lastError;
+
+    /**
+     * When the job was enqueued.
+     */
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * When the job succeeded or finally failed.
+     */
+    private Instant finishedAt;
+}
@@ -0,0 +1,53 @@
+package com.mss.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * This class represents the lease of a scheduled job that may run on only one instance at a time.
+ * An instance owns the lease until it expires, and extends it with heartbeats while the job is running.
+ * All times are taken from the database clock, so instances do not need synchronised clocks.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@Entity
+@Table(name = "scheduler_locks")
+public class SchedulerLock {
+    /**
+     * The name of the scheduled job.
+     */
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /**
+     * The instance that holds the lease, cleared once it is released.
+     */
+    private String owner;
+
+    /**
+     * When the lease was acquired.
+     */
+    @Column(nullable = false)
+    private Instant lockedAt;
+
+    /**
+     * When the lease expires unless it is extended.
+     */
+    @Column(nullable = false)
+    private Instant lockedUntil;
+
+    /**
+     * When the owner last extended the lease.
+     */
+    @Column(nullable = false)
+    private Instant heartbeatAt;
+}
@@ -2,6 +2,7 @@ package com.mss.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.FilterDef;
 import org.hibernate.annotations.ParamDef;
@@ -17,7 +18,22 @@ import java.util.List;
 @SQLDelete(sql = "UPDATE services SET deleted = true WHERE id=?")
 @FilterDef(name = "deletedServiceFilter", parameters = @ParamDef(name = "isDeleted", type = Boolean.class))
 @Filter(name = "deletedServiceFilter", condition = "deleted = :isDeleted")
+@NamedEntityGraph(name = Service.DETAIL_GRAPH,
+        attributeNodes = {@NamedAttributeNode("vehicle"), @NamedAttributeNode("user"), @NamedAttributeNode("serviceTypes")})
+@NamedEntityGraph(name = Service.INVOICE_GRAPH,
+        attributeNodes = {@NamedAttributeNode(value = "vehicle", subgraph = "vehicle"), @NamedAttributeNode("serviceTypes")},
+        subgraphs = @NamedSubgraph(name = "vehicle", attributeNodes = @NamedAttributeNode("customer")))
 public class Service extends BaseEntity<Long> {
+    /**
+     * Entity graph loading the vehicle, the user and the service types needed for a single service response.
+     */
+    public static final String DETAIL_GRAPH = "service-detail";
+
+    /**
+     * Entity graph loading the vehicle with its customer and the service types printed on an invoice.
+     */
+    public static final String INVOICE_GRAPH = "invoice";
+
     /**
      * The invoice code for the service.
      */
@@ -48,21 +64,36 @@ public class Service extends BaseEntity<Long> {
     @Column
     private int nextServiceMileage;
 
+    /**
+     * The sum of price multiplied by quantity of all service types that are not deleted.
+     * Recalculated whenever a service type of this service changes.
+     */
+    @Column
+    private Double totalAmount = 0.0;
+
+    /**
+     * The number of service types that are not deleted and have a part code.
+     * Recalculated whenever a service type of this service changes.
+     */
+    @Column
+    private Integer partCount = 0;
+
     /**
      * The vehicle service is provided on.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Vehicle vehicle;
 
     /**
      * The user who performed the service.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User user;
 
     /**
      * Service types connected to service.
      */
     @OneToMany(mappedBy = "service", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     private List<ServiceType> serviceTypes = new ArrayList<>();
 }
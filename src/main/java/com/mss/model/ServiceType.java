@@ -1,9 +1,6 @@
 package com.mss.model;
 
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.ManyToOne;
-import jakarta.persistence.Table;
+import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import lombok.Data;
 import org.hibernate.annotations.Filter;
@@ -17,7 +14,13 @@ import org.hibernate.annotations.SQLDelete;
 @SQLDelete(sql = "UPDATE service_types SET deleted = true WHERE id=?")
 @FilterDef(name = "deletedServiceTypeFilter", parameters = @ParamDef(name = "isDeleted", type = Boolean.class))
 @Filter(name = "deletedServiceTypeFilter", condition = "deleted = :isDeleted")
+@NamedEntityGraph(name = ServiceType.DETAIL_GRAPH, attributeNodes = @NamedAttributeNode("service"))
 public class ServiceType extends BaseEntity<Long> {
+    /**
+     * Entity graph loading the service needed for a service type response.
+     */
+    public static final String DETAIL_GRAPH = "service-type-detail";
+
     /**
      * The type of service provided.
      */
@@ -52,6 +55,6 @@ public class ServiceType extends BaseEntity<Long> {
     /**
      * The user who performed the service.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Service service;
 }
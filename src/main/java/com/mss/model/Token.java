@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 
 /**
  * Entity representing an authentication token.
+ * Only the SHA-256 digest of the token is stored, so the unique index stays fixed-width.
  *
  * @author Dragan Jovanovic
  * @version 1.0
@@ -19,12 +20,13 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_token_token_hash", columnNames = "token_hash"))
 public class Token extends BaseEntity<Long> {
     /**
-     * The token value.
+     * The SHA-256 digest of the token value.
      */
-    @Column(unique = true)
-    public String token;
+    @Column(name = "token_hash", nullable = false, length = 32)
+    public byte[] tokenHash;
 
     /**
      * The type of the token.
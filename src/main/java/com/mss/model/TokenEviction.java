@@ -0,0 +1,48 @@
+package com.mss.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * This class records that the cached tokens of a user have to be evicted, because the tokens were revoked
+ * or the user changed. Every instance of the application polls these records and evicts the user from its
+ * in-memory caches, so a revocation made on one instance is honoured by all of them.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "token_evictions")
+public class TokenEviction {
+    /**
+     * The unique identifier of the eviction, allocated from {@code token_evictions_seq}.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    /**
+     * The id of the user whose cached tokens are evicted.
+     */
+    @Column(nullable = false)
+    private Long userId;
+
+    /**
+     * When the eviction was requested.
+     */
+    @Column(nullable = false)
+    private Instant evictedAt;
+}
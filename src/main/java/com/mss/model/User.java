@@ -9,6 +9,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.FilterDef;
 import org.hibernate.annotations.ParamDef;
@@ -40,6 +42,8 @@ import java.util.List;
 @SQLDelete(sql = "UPDATE users SET deleted = true WHERE id=?")
 @FilterDef(name = "deletedUserFilter", parameters = @ParamDef(name = "isDeleted", type = Boolean.class))
 @Filter(name = "deletedUserFilter", condition = "deleted = :isDeleted")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User extends BaseEntity<Long> implements UserDetails {
 
     /**
@@ -120,6 +124,12 @@ public class User extends BaseEntity<Long> implements UserDetails {
     @Column
     private String imageUrl;
 
+    /**
+     * The user's token epoch. Tokens issued with an older epoch are revoked.
+     */
+    @Column(name = "token_epoch", nullable = false)
+    private long tokenEpoch;
+
     /**
      * The role of the user.
      */
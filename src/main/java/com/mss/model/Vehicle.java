@@ -2,6 +2,8 @@ package com.mss.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.FilterDef;
 import org.hibernate.annotations.ParamDef;
@@ -16,7 +18,17 @@ import java.util.List;
 @SQLDelete(sql = "UPDATE vehicles SET deleted = true WHERE id=?")
 @FilterDef(name = "deletedVehicleFilter", parameters = @ParamDef(name = "isDeleted", type = Boolean.class))
 @Filter(name = "deletedVehicleFilter", condition = "deleted = :isDeleted")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vehicles")
+@NamedEntityGraph(name = Vehicle.DETAIL_GRAPH,
+        attributeNodes = {@NamedAttributeNode("customer"), @NamedAttributeNode(value = "services", subgraph = "services")},
+        subgraphs = @NamedSubgraph(name = "services", attributeNodes = @NamedAttributeNode("user")))
 public class Vehicle extends BaseEntity<Long> {
+    /**
+     * Entity graph loading the customer and the services with their users needed for a single vehicle response.
+     */
+    public static final String DETAIL_GRAPH = "vehicle-detail";
+
     /**
      * Manufacturer name.
      */
@@ -50,7 +62,7 @@ public class Vehicle extends BaseEntity<Long> {
     /**
      * Owner of vehicles.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Customer customer;
 
     /**
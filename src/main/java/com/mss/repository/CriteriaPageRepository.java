@@ -0,0 +1,327 @@
+package com.mss.repository;
+
+import com.mss.dto.CursorPageDto;
+import com.mss.model.BaseEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.Data;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Shared pagination for the custom criteria repositories.
+ * A page is read with a limited query, and the total number of rows with a separate
+ * {@code SELECT COUNT(DISTINCT ...)} that uses the same predicates. The count is skipped when the
+ * page itself already tells the total, e.g. the first page is not full.
+ * Keyset pages are read with a seek predicate on a sort attribute and the id instead of an offset.
+ * Id pages read only ids, so the rows can be read afterwards by a projection instead of as entities.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@Repository
+public class CriteriaPageRepository {
+    /**
+     * An EntityManager instance is associated with a persistence context.
+     * A persistence context is a set of entity instances in which for any
+     * persistent entity identity there is a unique entity instance.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Builds the filter predicates of a query. Called once for the page query and once for the count query,
+     * because criteria predicates are bound to the root they were created from.
+     *
+     * @param <T> the type of the queried entity
+     */
+    @FunctionalInterface
+    public interface PredicateFactory<T> {
+        List<Predicate> create(CriteriaBuilder cb, Root<T> root);
+    }
+
+    /**
+     * Builds the ordering of the page query.
+     *
+     * @param <T> the type of the queried entity
+     */
+    @FunctionalInterface
+    public interface OrderFactory<T> {
+        List<Order> create(CriteriaBuilder cb, Root<T> root);
+    }
+
+    /**
+     * Retrieves one page of distinct entities matching the predicates.
+     *
+     * @param entityClass      the class of the queried entity
+     * @param predicateFactory builds the filter predicates
+     * @param orderFactory     builds the ordering
+     * @param pageable         the {@link Pageable} object containing pagination information such as
+     *                         page number and page size.
+     * @param <T>              the type of the queried entity
+     * @return a {@link Page} of entities with the total number of matching rows
+     */
+    public <T> Page<T> findPage(Class<T> entityClass, PredicateFactory<T> predicateFactory,
+                                OrderFactory<T> orderFactory, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> cq = cb.createQuery(entityClass);
+        Root<T> root = cq.from(entityClass);
+
+        cq.select(root).distinct(true);
+        cq.where(cb.and(predicateFactory.create(cb, root).toArray(new Predicate[0])));
+        cq.orderBy(orderFactory.create(cb, root));
+
+        List<T> content = entityManager.createQuery(cq)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(entityClass, predicateFactory));
+    }
+
+    /**
+     * Retrieves the ids of one page of distinct entities matching the predicates, in page order.
+     * Only the id and the order expressions are read, so no entity is loaded or managed.
+     *
+     * @param entityClass      the class of the queried entity
+     * @param predicateFactory builds the filter predicates
+     * @param orderFactory     builds the ordering
+     * @param pageable         the {@link Pageable} object containing pagination information such as
+     *                         page number and page size.
+     * @param <T>              the type of the queried entity
+     * @return a {@link Page} of ids with the total number of matching rows
+     */
+    public <T> Page<Long> findIdPage(Class<T> entityClass, PredicateFactory<T> predicateFactory,
+                                     OrderFactory<T> orderFactory, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<T> root = cq.from(entityClass);
+        List<Order> orders = orderFactory.create(cb, root);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get("id"));
+        orders.forEach(order -> selections.add(order.getExpression()));
+
+        cq.multiselect(selections).distinct(true);
+        cq.where(cb.and(predicateFactory.create(cb, root).toArray(new Predicate[0])));
+        cq.orderBy(orders);
+
+        List<Long> content = entityManager.createQuery(cq)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList()
+                .stream()
+                .map(row -> row.get(0, Long.class))
+                .toList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(entityClass, predicateFactory));
+    }
+
+    /**
+     * Counts distinct entities matching the predicates.
+     *
+     * @param entityClass      the class of the queried entity
+     * @param predicateFactory builds the filter predicates
+     * @param <T>              the type of the queried entity
+     * @return the number of matching rows
+     */
+    public <T> long count(Class<T> entityClass, PredicateFactory<T> predicateFactory) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<T> root = cq.from(entityClass);
+
+        cq.select(cb.countDistinct(root));
+        cq.where(cb.and(predicateFactory.create(cb, root).toArray(new Predicate[0])));
+
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    /**
+     * Retrieves one keyset page of distinct entities matching the predicates, ordered by the sort attribute
+     * and id ascending, with null sort values last. The cursor holds the sort value and id of the last row
+     * of the previous page, so the next page starts right after it regardless of rows inserted before it.
+     *
+     * @param entityClass      the class of the queried entity
+     * @param predicateFactory builds the filter predicates
+     * @param sortAttribute    the attribute the page is ordered by before the id
+     * @param cursor           the cursor returned with the previous page, or null or blank for the first page
+     * @param pageSize         number of results per page
+     * @param withCount        whether the total number of matching rows should be counted
+     * @param <T>              the type of the queried entity
+     * @return a {@link CursorPageDto} with the page content, the next cursor and optionally the total
+     * @throws ResponseStatusException with {@code HttpStatus.BAD_REQUEST} if the cursor can not be decoded
+     */
+    public <T extends BaseEntity<Long>> CursorPageDto<T> findCursorPage(Class<T> entityClass, PredicateFactory<T> predicateFactory,
+                                                                        String sortAttribute, String cursor,
+                                                                        int pageSize, boolean withCount) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> cq = cb.createQuery(entityClass);
+        Root<T> root = cq.from(entityClass);
+        Path<Comparable<Object>> sortKey = root.get(sortAttribute);
+        Path<Long> id = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>(predicateFactory.create(cb, root));
+
+        if (cursor != null && !cursor.isBlank()) {
+            predicates.add(seekPredicate(cb, sortKey, id, cursor));
+        }
+
+        cq.select(root).distinct(true);
+        cq.where(cb.and(predicates.toArray(new Predicate[0])));
+        cq.orderBy(cb.asc(sortKey), cb.asc(id));
+
+        List<T> rows = entityManager.createQuery(cq)
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+
+        String nextCursor = null;
+        List<T> content = rows;
+
+        if (rows.size() > pageSize) {
+            content = rows.subList(0, pageSize);
+            T last = content.get(pageSize - 1);
+            nextCursor = encodeCursor(new BeanWrapperImpl(last).getPropertyValue(sortAttribute), last.getId());
+        }
+
+        Long totalElements = withCount ? count(entityClass, predicateFactory) : null;
+
+        return new CursorPageDto<>(new ArrayList<>(content), nextCursor, totalElements);
+    }
+
+    /**
+     * Retrieves the ids of one keyset page like {@link #findCursorPage}, reading only the id and the sort attribute.
+     *
+     * @param entityClass      the class of the queried entity
+     * @param predicateFactory builds the filter predicates
+     * @param sortAttribute    the attribute the page is ordered by before the id
+     * @param cursor           the cursor returned with the previous page, or null or blank for the first page
+     * @param pageSize         number of results per page
+     * @param withCount        whether the total number of matching rows should be counted
+     * @param <T>              the type of the queried entity
+     * @return a {@link CursorPageDto} with the ids of the page, the next cursor and optionally the total
+     * @throws ResponseStatusException with {@code HttpStatus.BAD_REQUEST} if the cursor can not be decoded
+     */
+    public <T> CursorPageDto<Long> findCursorIdPage(Class<T> entityClass, PredicateFactory<T> predicateFactory,
+                                                    String sortAttribute, String cursor,
+                                                    int pageSize, boolean withCount) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<T> root = cq.from(entityClass);
+        Path<Comparable<Object>> sortKey = root.get(sortAttribute);
+        Path<Long> id = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>(predicateFactory.create(cb, root));
+
+        if (cursor != null && !cursor.isBlank()) {
+            predicates.add(seekPredicate(cb, sortKey, id, cursor));
+        }
+
+        cq.multiselect(id, sortKey).distinct(true);
+        cq.where(cb.and(predicates.toArray(new Predicate[0])));
+        cq.orderBy(cb.asc(sortKey), cb.asc(id));
+
+        List<Tuple> rows = entityManager.createQuery(cq)
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+
+        String nextCursor = null;
+        List<Tuple> content = rows;
+
+        if (rows.size() > pageSize) {
+            content = rows.subList(0, pageSize);
+            Tuple last = content.get(pageSize - 1);
+            nextCursor = encodeCursor(last.get(1), last.get(0, Long.class));
+        }
+
+        Long totalElements = withCount ? count(entityClass, predicateFactory) : null;
+
+        return new CursorPageDto<>(content.stream().map(row -> row.get(0, Long.class)).toList(), nextCursor, totalElements);
+    }
+
+    /**
+     * Builds the predicate that skips every row up to and including the cursor row.
+     * Null sort values are ordered last, so a row with a null sort value is only followed by
+     * rows with a null sort value and a greater id.
+     */
+    @SuppressWarnings("unchecked")
+    private Predicate seekPredicate(CriteriaBuilder cb, Path<Comparable<Object>> sortKey, Path<Long> id, String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor is not valid.");
+        }
+
+        int separator = decoded.indexOf(':');
+        if (separator < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor is not valid.");
+        }
+
+        Long lastId;
+        Comparable<Object> lastValue;
+        try {
+            lastId = Long.valueOf(decoded.substring(0, separator));
+            String value = decoded.substring(separator + 1);
+            lastValue = value.isEmpty() ? null : (Comparable<Object>) parseValue(sortKey.getJavaType(), value.substring(1));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor is not valid.");
+        }
+
+        if (lastValue == null) {
+            return cb.and(cb.isNull(sortKey), cb.greaterThan(id, lastId));
+        }
+
+        return cb.or(
+                cb.greaterThan(sortKey, lastValue),
+                cb.and(cb.equal(sortKey, lastValue), cb.greaterThan(id, lastId)),
+                cb.isNull(sortKey));
+    }
+
+    /**
+     * Encodes the sort value and id of a row into an opaque cursor.
+     */
+    private String encodeCursor(Object value, Long id) {
+        String raw = id + ":" + (value == null ? "" : "=" + value);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a sort value written by {@link #encodeCursor} back into the type of the sort attribute.
+     */
+    private Object parseValue(Class<?> type, String value) {
+        if (String.class.equals(type)) {
+            return value;
+        }
+        if (LocalDate.class.equals(type)) {
+            return LocalDate.parse(value);
+        }
+        if (Integer.class.equals(type) || int.class.equals(type)) {
+            return Integer.valueOf(value);
+        }
+        if (Long.class.equals(type) || long.class.equals(type)) {
+            return Long.valueOf(value);
+        }
+
+        throw new IllegalArgumentException("Unsupported cursor sort type " + type.getName());
+    }
+}
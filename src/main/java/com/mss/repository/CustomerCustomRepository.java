@@ -1,13 +1,11 @@
 package com.mss.repository;
 
+import com.mss.dto.CursorPageDto;
 import com.mss.dto.CustomerFiltersQueryDto;
 import com.mss.model.Customer;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import lombok.Data;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
@@ -19,11 +17,9 @@ import java.util.Objects;
 @Repository
 public class CustomerCustomRepository {
     /**
-     * An EntityManager instance is associated with a persistence context.
-     * A persistence context is a set of entity instances in which for any
-     * persistent entity identity there is a unique entity instance.
+     * The shared repository used to read pages and count rows.
      */
-    private final EntityManager entityManager;
+    private final CriteriaPageRepository criteriaPageRepository;
 
     /**
      * Retrieves a paginated list of customers based on the provided filters.
@@ -35,17 +31,46 @@ public class CustomerCustomRepository {
      *                 for customers. If any field is null, it will be ignored in the query.
      * @param pageable the {@link Pageable} object containing pagination information such as
      *                 page number and page size.
-     * @return a {@link Page} of {@link Customer} objects that match the filter criteria.
-     * The page contains the list of customers, pagination details, and total number of rows.
+     * @return a {@link Page} of ids of the customers that match the filter criteria, in page order.
+     * The page contains the ids, pagination details, and total number of rows.
      */
-    public Page<Customer> findFilteredCustomers(CustomerFiltersQueryDto filters, Pageable pageable) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery cq = cb.createQuery();
-        Root<Customer> customer = cq.from(Customer.class);
+    public Page<Long> findFilteredCustomerIds(CustomerFiltersQueryDto filters, Pageable pageable) {
+        return criteriaPageRepository.findIdPage(Customer.class,
+                (cb, customer) -> buildFilteredCustomersPredicates(cb, customer, filters),
+                (cb, customer) -> List.of(cb.asc(customer.get("firstname"))),
+                pageable);
+    }
+
+    /**
+     * Retrieves a keyset page of customers based on the provided filters, ordered by first name and id.
+     * The filters are the same as in {@link #findFilteredCustomerIds}.
+     *
+     * @param filters   the {@link CustomerFiltersQueryDto} containing the filter criteria
+     *                  for customers. If any field is null, it will be ignored in the query.
+     * @param cursor    the cursor returned with the previous page, or blank for the first page
+     * @param pageSize  number of results per page
+     * @param withCount whether the total number of matching rows should be counted
+     * @return a {@link CursorPageDto} of ids of the customers that match the filter criteria
+     */
+    public CursorPageDto<Long> findFilteredCustomerIdsAfter(CustomerFiltersQueryDto filters, String cursor, int pageSize, boolean withCount) {
+        return criteriaPageRepository.findCursorIdPage(Customer.class,
+                (cb, customer) -> buildFilteredCustomersPredicates(cb, customer, filters),
+                "firstname", cursor, pageSize, withCount);
+    }
+
+    /**
+     * Builds the filter predicates of {@link #findFilteredCustomerIds}. If any field of the filters is null, it is ignored.
+     *
+     * @param cb      the criteria builder
+     * @param customer the root of the query
+     * @param filters the {@link CustomerFiltersQueryDto} containing the filter criteria
+     * @return a list of predicates that are combined with and
+     */
+    private List<Predicate> buildFilteredCustomersPredicates(CriteriaBuilder cb, Root<Customer> customer, CustomerFiltersQueryDto filters) {
         List<Predicate> predicates = new ArrayList<>();
 
         if (Objects.nonNull(filters) && Objects.nonNull(filters.getFullName())) {
-            Expression<String> fullName = cb.concat(customer.get("firstname"), " ");
+            Expression<String> fullName = cb.concat(customer.get("firstname"), cb.literal(" "));
             fullName = cb.concat(fullName, customer.get("lastname"));
             predicates.add(cb.like(cb.lower(fullName), "%" + filters.getFullName().toLowerCase() + "%"));
         }
@@ -66,15 +91,7 @@ public class CustomerCustomRepository {
         if (Objects.nonNull(filters) && Objects.nonNull(filters.getVehicleIds()) && !filters.getVehicleIds().isEmpty()) {
             predicates.add(customer.get("vehicle").get("id").in(filters.getVehicleIds()));
         }
-        cq.where(cb.and(predicates.toArray(new Predicate[0])));
-        cq.orderBy(cb.asc(customer.get("firstname")));
-        cq.select(customer).distinct(true);
-
-        TypedQuery<Customer> query = entityManager.createQuery(cq);
-        int totalRows = query.getResultList().size();
-        query.setFirstResult((int) pageable.getOffset());
-        query.setMaxResults(pageable.getPageSize());
 
-        return new PageImpl<>(query.getResultList(), pageable, totalRows);
+        return predicates;
     }
 }
@@ -1,9 +1,12 @@
 package com.mss.repository;
 
 import com.mss.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -49,6 +52,7 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      * @param isDeleted   the boolean representing deletion of the customer
      * @return an Optional containing the customer if found, or empty if not
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Customer> findByPhoneNumberAndDeleted(String phoneNumber, boolean isDeleted);
 
     /**
@@ -57,6 +61,7 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      * @param phoneNumber the phone number of the customer
      * @return an Optional containing the customer if found, or empty if not
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Customer> findByPhoneNumber(String phoneNumber);
 
     /**
@@ -65,24 +70,33 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      * @param customerId the id of the customer
      * @return an Optional containing the customer if found, or empty if not
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Customer> findOneById(Long customerId);
 
     /**
-     * Finds all customers that are marked as deleted.
+     * Finds all customers based on their deletion status.
      *
-     * @return A list of customers that are marked as deleted.
+     * @param isDeleted A boolean indicating the deletion status of customers to be retrieved.
+     * @return A list of customers matching the specified deletion status.
      */
-    @Query("SELECT c FROM Customer c WHERE c.deleted = true")
-    List<Customer> findAllDeletedCustomers();
+    List<Customer> findAllByDeleted(boolean isDeleted);
+
+    /**
+     * Finds all customers, deleted or not, that were created or last changed at or after the given time.
+     *
+     * @param since the earliest time of change
+     * @return A list of customers changed since the given time.
+     */
+    @Query("SELECT c FROM Customer c WHERE COALESCE(c.updatedAt, c.createdAt) >= :since")
+    List<Customer> findAllChangedSince(@Param("since") Instant since);
 
     /**
-     * Finds all customers that are marked as deleted and have been deleted for longer than one week.
+     * Finds all customers that are marked as deleted.
      *
-     * @param oneWeekAgo The date and time representing one week ago.
-     * @return A list of customers who have been deleted for longer than one week.
+     * @return A list of customers that are marked as deleted.
      */
-    @Query("SELECT c FROM Customer c WHERE c.deleted = true AND c.deletedAt <= :oneWeekAgo")
-    List<Customer> findCustomersDeletedOlderThanOneWeek(@Param("oneWeekAgo") Instant oneWeekAgo);
+    @Query("SELECT c FROM Customer c WHERE c.deleted = true")
+    List<Customer> findAllDeletedCustomers();
 
     /**
      * Permanently deletes a Customer entity from the database by its ID.
@@ -98,11 +112,23 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     void permanentlyDeleteCustomerById(Long customerId);
 
     /**
-     * Permanently deletes specific Customer entities provided as a list.
+     * Permanently deletes at most chunkSize customers that have been deleted at or before the cutoff and no longer
+     * have vehicles, in a single statement.
      *
-     * @param deletedCustomerIds The list of Customer IDs to be permanently deleted.
+     * @param cutoff    the latest deletion time of the customers to be deleted
+     * @param chunkSize the maximum number of customers to be deleted
+     * @return the number of deleted customers
      */
     @Modifying
-    @Query("DELETE FROM Customer c WHERE c.id IN :deletedCustomerIds")
-    void permanentlyDeleteAllDeletedCustomers(List<Long> deletedCustomerIds);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "customers"))
+    @Query(value = """
+            DELETE FROM customers WHERE id IN (
+                SELECT c.id FROM customers c
+                WHERE c.deleted = true
+                AND c.deleted_at <= :cutoff
+                AND NOT EXISTS (SELECT 1 FROM vehicles v WHERE v.customer_id = c.id)
+                ORDER BY c.id
+                LIMIT :chunkSize)
+            """, nativeQuery = true)
+    int permanentlyDeleteDeletedCustomers(@Param("cutoff") Instant cutoff, @Param("chunkSize") int chunkSize);
 }
@@ -0,0 +1,205 @@
+package com.mss.repository;
+
+import com.mss.dto.PieChartCustomerDto;
+import com.mss.dto.PieChartMechanicDto;
+import com.mss.dto.ServiceKpiDto;
+import com.mss.model.DailyRevenueRollup;
+import com.mss.model.DailyRevenueRollupId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The DailyRevenueRollupRepository interface extends JpaRepository to inherit JPA-based CRUD methods and custom
+ * methods for reading and maintaining DailyRevenueRollup rows.
+ * Maintenance queries recompute rows from the stored totals of services that are not deleted.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+public interface DailyRevenueRollupRepository extends JpaRepository<DailyRevenueRollup, DailyRevenueRollupId> {
+    /**
+     * The only table written by the maintenance queries. Declared as their query space so Hibernate
+     * invalidates just this table instead of the whole second-level cache after native statements.
+     */
+    String ROLLUP_TABLE = "daily_revenue_rollup";
+
+    /**
+     * Inserts aggregated rows into the rollup table. The select groups services that are not deleted
+     * by start date, mechanic and customer, summing their stored total amount and number of parts.
+     * Queries append their own key predicate and the grouping clause.
+     */
+    String INSERT_AGGREGATE = """
+            INSERT INTO daily_revenue_rollup (day, mechanic_id, customer_id, revenue, part_count, service_count)
+            SELECT s.start_date, s.user_id, v.customer_id,
+                   COALESCE(SUM(s.total_amount), 0), COALESCE(SUM(s.part_count), 0), COUNT(s.id)
+            FROM services s
+            JOIN vehicles v ON v.id = s.vehicle_id
+            WHERE s.deleted = false
+            AND s.start_date IS NOT NULL
+            AND s.user_id IS NOT NULL
+            AND v.customer_id IS NOT NULL
+            """;
+
+    /**
+     * Groups the aggregate and overwrites rows that already exist for the same key.
+     */
+    String GROUP_AND_UPSERT = """
+            GROUP BY s.start_date, s.user_id, v.customer_id
+            ON CONFLICT (day, mechanic_id, customer_id) DO UPDATE
+            SET revenue = EXCLUDED.revenue,
+                part_count = EXCLUDED.part_count,
+                service_count = EXCLUDED.service_count
+            """;
+
+    /**
+     * Sums revenue, parts and services over all rollup rows within a date range.
+     *
+     * @param startDate The start of the date range (inclusive).
+     * @param endDate   The end of the date range (inclusive).
+     * @return A {@link ServiceKpiDto} containing the aggregated values.
+     */
+    @Query("""
+            SELECT new com.mss.dto.ServiceKpiDto(
+                COALESCE(SUM(r.revenue), 0.0),
+                COALESCE(SUM(r.partCount), 0L),
+                COALESCE(SUM(r.serviceCount), 0L))
+            FROM DailyRevenueRollup r
+            WHERE r.id.day BETWEEN :startDate AND :endDate
+            """)
+    ServiceKpiDto sumKpisByDateRange(@Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
+
+    /**
+     * Sums revenue per mechanic over all rollup rows within a date range.
+     *
+     * @param startDate The start of the date range (inclusive).
+     * @param endDate   The end of the date range (inclusive).
+     * @return A list of {@link PieChartMechanicDto} rows, one per mechanic.
+     */
+    @Query("""
+            SELECT new com.mss.dto.PieChartMechanicDto(
+                CONCAT(u.firstname, ' ', u.lastname),
+                SUM(r.revenue))
+            FROM DailyRevenueRollup r
+            JOIN User u ON u.id = r.id.mechanicId
+            WHERE r.id.day BETWEEN :startDate AND :endDate
+            GROUP BY u.id, u.firstname, u.lastname
+            """)
+    List<PieChartMechanicDto> sumRevenueByMechanicAndDateRange(@Param("startDate") LocalDate startDate,
+                                                                @Param("endDate") LocalDate endDate);
+
+    /**
+     * Sums revenue per customer over all rollup rows within a date range.
+     *
+     * @param startDate The start of the date range (inclusive).
+     * @param endDate   The end of the date range (inclusive).
+     * @return A list of {@link PieChartCustomerDto} rows, one per customer.
+     */
+    @Query("""
+            SELECT new com.mss.dto.PieChartCustomerDto(
+                CONCAT(c.firstname, ' ', c.lastname),
+                SUM(r.revenue))
+            FROM DailyRevenueRollup r
+            JOIN Customer c ON c.id = r.id.customerId
+            WHERE r.id.day BETWEEN :startDate AND :endDate
+            GROUP BY c.id, c.firstname, c.lastname
+            """)
+    List<PieChartCustomerDto> sumRevenueByCustomerAndDateRange(@Param("startDate") LocalDate startDate,
+                                                                @Param("endDate") LocalDate endDate);
+
+    /**
+     * Serialises the refreshes of a customer's rollup rows until the end of the current transaction.
+     * A refresh only sees the services committed before it starts, so without the lock two transactions writing
+     * to the same row would each recompute it without the other's services, and the last one would win.
+     * Waiting refreshes recompute the rows once the holder has committed, so they include its services.
+     *
+     * @param customerId the id of the customer
+     * @return always 1
+     */
+    @Query(value = """
+            SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtextextended('daily_revenue_rollup:' || :customerId, 0))) l
+            """, nativeQuery = true)
+    Integer lockCustomer(@Param("customerId") Long customerId);
+
+    /**
+     * Removes the rollup row for a single day, mechanic and customer.
+     *
+     * @param day        the start date of the services
+     * @param mechanicId the id of the mechanic
+     * @param customerId the id of the customer
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_TABLE))
+    @Query(value = "DELETE FROM daily_revenue_rollup WHERE day = :day AND mechanic_id = :mechanicId AND customer_id = :customerId",
+            nativeQuery = true)
+    void deleteBucket(@Param("day") LocalDate day,
+                      @Param("mechanicId") Long mechanicId,
+                      @Param("customerId") Long customerId);
+
+    /**
+     * Recomputes the rollup row for a single day, mechanic and customer from services.
+     *
+     * @param day        the start date of the services
+     * @param mechanicId the id of the mechanic
+     * @param customerId the id of the customer
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_TABLE))
+    @Query(value = INSERT_AGGREGATE + """
+            AND s.start_date = :day
+            AND s.user_id = :mechanicId
+            AND v.customer_id = :customerId
+            """ + GROUP_AND_UPSERT, nativeQuery = true)
+    void upsertBucket(@Param("day") LocalDate day,
+                      @Param("mechanicId") Long mechanicId,
+                      @Param("customerId") Long customerId);
+
+    /**
+     * Removes all rollup rows of a customer.
+     *
+     * @param customerId the id of the customer
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_TABLE))
+    @Query(value = "DELETE FROM daily_revenue_rollup WHERE customer_id = :customerId", nativeQuery = true)
+    void deleteByCustomer(@Param("customerId") Long customerId);
+
+    /**
+     * Recomputes all rollup rows of a customer from services.
+     *
+     * @param customerId the id of the customer
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_TABLE))
+    @Query(value = INSERT_AGGREGATE + """
+            AND v.customer_id = :customerId
+            """ + GROUP_AND_UPSERT, nativeQuery = true)
+    void upsertByCustomer(@Param("customerId") Long customerId);
+
+    /**
+     * Removes every rollup row.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_TABLE))
+    @Query(value = "DELETE FROM daily_revenue_rollup", nativeQuery = true)
+    void deleteAllRows();
+
+    /**
+     * Recomputes every rollup row from services.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_TABLE))
+    @Query(value = INSERT_AGGREGATE + GROUP_AND_UPSERT, nativeQuery = true)
+    void upsertAll();
+}
@@ -0,0 +1,178 @@
+package com.mss.repository;
+
+import com.mss.dto.SearchResultDto;
+import com.mss.dto.SearchTermsDto;
+import com.mss.model.Customer;
+import com.mss.model.Service;
+import com.mss.model.User;
+import com.mss.model.Vehicle;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.Data;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads global search hits of every entity type as id, label and detail only, without loading entities.
+ * Every predicate uses the same expression as a pg_trgm index, so the alternatives of a query are
+ * combined with a bitmap OR of index scans instead of a sequential scan. Hits that start with the
+ * query are read first, then shorter labels.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@Repository
+public class GlobalSearchRepository {
+    /**
+     * An EntityManager instance is associated with a persistence context.
+     * A persistence context is a set of entity instances in which for any
+     * persistent entity identity there is a unique entity instance.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Finds customers that are not deleted by full name, email, address or phone number.
+     *
+     * @param terms the normalized query
+     * @param limit the maximum number of hits
+     * @return a list of {@link SearchResultDto} objects, best match first
+     */
+    public List<SearchResultDto> searchCustomers(SearchTermsDto terms, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Customer> customer = query.from(Customer.class);
+
+        Expression<String> fullName = cb.concat(cb.concat(customer.get("firstname"), cb.literal(" ")), customer.get("lastname"));
+
+        List<Predicate> matches = new ArrayList<>();
+        matches.add(cb.like(cb.lower(fullName), terms.getPattern()));
+        matches.add(cb.like(cb.lower(customer.get("email")), terms.getPattern()));
+        matches.add(cb.like(cb.lower(customer.get("address")), terms.getPattern()));
+        if (terms.getDigitsPattern() != null) {
+            matches.add(cb.like(cb.lower(customer.get("phoneNumber")), terms.getDigitsPattern()));
+        }
+
+        query.multiselect(customer.get("id"), fullName, customer.get("phoneNumber"))
+                .where(cb.isFalse(customer.get("deleted")), cb.or(matches.toArray(new Predicate[0])))
+                .orderBy(bestMatchFirst(cb, fullName, customer.get("id"), terms));
+
+        return read("CUSTOMER", query, limit);
+    }
+
+    /**
+     * Finds vehicles that are not deleted by manufacturer, model, license plate or VIN.
+     *
+     * @param terms the normalized query
+     * @param limit the maximum number of hits
+     * @return a list of {@link SearchResultDto} objects, best match first
+     */
+    public List<SearchResultDto> searchVehicles(SearchTermsDto terms, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Vehicle> vehicle = query.from(Vehicle.class);
+
+        Expression<String> label = cb.concat(cb.concat(vehicle.get("manufacturer"), cb.literal(" ")), vehicle.get("model"));
+        label = cb.concat(cb.concat(cb.concat(label, cb.literal(" (")), vehicle.get("vehiclePlate")), cb.literal(")"));
+
+        List<Predicate> matches = new ArrayList<>();
+        matches.add(cb.like(cb.lower(vehicle.get("manufacturer")), terms.getPattern()));
+        matches.add(cb.like(cb.lower(vehicle.get("model")), terms.getPattern()));
+        matches.add(cb.like(cb.lower(vehicle.get("vin")), terms.getPattern()));
+        if (terms.getCompactPattern() != null) {
+            Expression<String> vehiclePlate = cb.lower(cb.function("regexp_replace", String.class,
+                    vehicle.get("vehiclePlate"), cb.literal("[^a-zA-Z0-9]"), cb.literal(""), cb.literal("g")));
+            matches.add(cb.like(vehiclePlate, terms.getCompactPattern()));
+        }
+
+        query.multiselect(vehicle.get("id"), label, vehicle.get("vin"))
+                .where(cb.isFalse(vehicle.get("deleted")), cb.or(matches.toArray(new Predicate[0])))
+                .orderBy(bestMatchFirst(cb, label, vehicle.get("id"), terms));
+
+        return read("VEHICLE", query, limit);
+    }
+
+    /**
+     * Finds services that are not deleted by invoice code.
+     *
+     * @param terms the normalized query
+     * @param limit the maximum number of hits
+     * @return a list of {@link SearchResultDto} objects, best match first
+     */
+    public List<SearchResultDto> searchServices(SearchTermsDto terms, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Service> service = query.from(Service.class);
+        Join<Service, Vehicle> vehicle = service.join("vehicle", JoinType.LEFT);
+
+        Expression<String> invoiceCode = service.get("invoiceCode");
+
+        query.multiselect(service.get("id"), invoiceCode, vehicle.get("vehiclePlate"))
+                .where(cb.isFalse(service.get("deleted")), cb.like(cb.lower(invoiceCode), terms.getPattern()))
+                .orderBy(bestMatchFirst(cb, invoiceCode, service.get("id"), terms));
+
+        return read("SERVICE", query, limit);
+    }
+
+    /**
+     * Finds users that are not deleted by full name, email or mobile number.
+     *
+     * @param terms the normalized query
+     * @param limit the maximum number of hits
+     * @return a list of {@link SearchResultDto} objects, best match first
+     */
+    public List<SearchResultDto> searchUsers(SearchTermsDto terms, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+
+        Expression<String> fullName = cb.concat(cb.concat(user.get("firstname"), cb.literal(" ")), user.get("lastname"));
+
+        List<Predicate> matches = new ArrayList<>();
+        matches.add(cb.like(cb.lower(fullName), terms.getPattern()));
+        matches.add(cb.like(cb.lower(user.get("email")), terms.getPattern()));
+        if (terms.getDigitsPattern() != null) {
+            matches.add(cb.like(cb.lower(user.get("mobileNumber")), terms.getDigitsPattern()));
+        }
+
+        query.multiselect(user.get("id"), fullName, user.get("email"))
+                .where(cb.isFalse(user.get("deleted")), cb.or(matches.toArray(new Predicate[0])))
+                .orderBy(bestMatchFirst(cb, fullName, user.get("id"), terms));
+
+        return read("USER", query, limit);
+    }
+
+    /**
+     * Orders labels that start with the query first, then shorter labels, then by id.
+     */
+    private List<Order> bestMatchFirst(CriteriaBuilder cb, Expression<String> label, Expression<Long> id, SearchTermsDto terms) {
+        Expression<Integer> prefix = cb.<Integer>selectCase()
+                .when(cb.like(cb.lower(label), terms.getPrefixPattern()), 0)
+                .otherwise(1);
+
+        return List.of(cb.asc(prefix), cb.asc(cb.length(label)), cb.asc(id));
+    }
+
+    /**
+     * Reads at most {@code limit} rows of id, label and detail.
+     */
+    private List<SearchResultDto> read(String type, CriteriaQuery<Tuple> query, int limit) {
+        List<SearchResultDto> results = new ArrayList<>();
+        for (Tuple row : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+            results.add(new SearchResultDto(type, row.get(0, Long.class), row.get(1, String.class), row.get(2, String.class)));
+        }
+
+        return results;
+    }
+}
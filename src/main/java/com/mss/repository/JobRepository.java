@@ -0,0 +1,218 @@
+package com.mss.repository;
+
+import com.mss.dto.JobTypeStatisticsDto;
+import com.mss.model.Job;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The JobRepository interface extends JpaRepository to inherit JPA-based CRUD methods and custom
+ * methods for enqueuing, claiming and finishing Job objects.
+ * Statements run by workers commit on their own, so other instances see claims and results at once,
+ * and compare against the database clock.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+    /**
+     * The only table written by the queue queries.
+     */
+    String JOB_TABLE = "jobs";
+
+    /**
+     * Enqueues a job that is due at once. Joins the transaction of the caller, so a job enqueued together with
+     * other changes only becomes visible to workers once they commit.
+     *
+     * @param type        the type of the job
+     * @param payload     the input of the job
+     * @param priority    jobs with a higher priority are claimed first
+     * @param maxAttempts how many times the job may be claimed before it is marked as failed
+     * @param uniqueKey   optional key, the job is not enqueued if a job with the same key exists
+     * @return 1 if the job was enqueued, 0 if a job with the same key exists
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = JOB_TABLE))
+    @Query(value = """
+            INSERT INTO jobs (id, type, payload, unique_key, priority, status, attempts, max_attempts, run_at, created_at)
+            VALUES (nextval('jobs_seq'), :type, :payload, :uniqueKey, :priority, 'PENDING', 0, :maxAttempts, now(), now())
+            ON CONFLICT (unique_key) DO NOTHING
+            """, nativeQuery = true)
+    int enqueue(@Param("type") String type, @Param("payload") String payload, @Param("priority") int priority,
+                @Param("maxAttempts") int maxAttempts, @Param("uniqueKey") String uniqueKey);
+
+    /**
+     * Claims due jobs, highest priority first. Jobs locked by a concurrent claim are skipped rather than waited
+     * for, so workers of several instances never claim the same job and never block each other.
+     * Only jobs of the given types are claimed, so an instance never takes a job it has no handler for.
+     *
+     * @param owner       the worker instance claiming the jobs
+     * @param types       the job types the instance has handlers for
+     * @param limit       the maximum number of jobs to claim
+     * @param leaseMillis how long the claim lasts without a heartbeat, in milliseconds
+     * @return the claimed jobs, with their attempts already counted
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = JOB_TABLE))
+    @Query(value = """
+            UPDATE jobs
+            SET status = 'RUNNING',
+                locked_by = :owner,
+                locked_until = now() + :leaseMillis * INTERVAL '1 millisecond',
+                attempts = attempts + 1
+            WHERE id IN (
+                SELECT j.id FROM jobs j
+                WHERE j.status = 'PENDING'
+                AND j.run_at <= now()
+                AND j.type IN (:types)
+                ORDER BY j.priority DESC, j.run_at, j.id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """, nativeQuery = true)
+    List<Job> claim(@Param("owner") String owner, @Param("types") Collection<String> types, @Param("limit") int limit,
+                    @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * Extends the leases of all jobs the owner is running.
+     *
+     * @param owner       the worker instance running the jobs
+     * @param leaseMillis how long the leases last from now without a further heartbeat, in milliseconds
+     * @return the number of extended leases
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = JOB_TABLE))
+    @Query(value = """
+            UPDATE jobs
+            SET locked_until = now() + :leaseMillis * INTERVAL '1 millisecond'
+            WHERE status = 'RUNNING'
+            AND locked_by = :owner
+            """, nativeQuery = true)
+    int extendLeases(@Param("owner") String owner, @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * Returns running jobs whose lease has expired, because their instance stopped, to the queue,
+     * or marks them as failed if that was their last allowed attempt.
+     *
+     * @return the number of requeued or failed jobs
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = JOB_TABLE))
+    @Query(value = """
+            UPDATE jobs
+            SET status = CASE WHEN attempts >= max_attempts THEN 'FAILED' ELSE 'PENDING' END,
+                finished_at = CASE WHEN attempts >= max_attempts THEN now() END,
+                last_error = 'Lease of ' || locked_by || ' expired',
+                locked_by = NULL,
+                locked_until = NULL,
+                run_at = now()
+            WHERE status = 'RUNNING'
+            AND locked_until < now()
+            """, nativeQuery = true)
+    int requeueExpired();
+
+    /**
+     * Finishes an attempt of a job held by the owner.
+     *
+     * @param id         the id of the job
+     * @param owner      the worker instance running the job
+     * @param status     SUCCEEDED or FAILED to finish the job, PENDING to retry it
+     * @param delayMillis how long to wait before the retry, in milliseconds
+     * @param lastError  the error of the attempt, if it failed
+     * @param retainedPayload the payload kept once the job succeeded, ignored otherwise
+     * @return 1 if the job was finished, 0 if its lease had expired and it was taken away from the owner
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = JOB_TABLE))
+    @Query(value = """
+            UPDATE jobs
+            SET status = :status,
+                finished_at = CASE WHEN :status = 'PENDING' THEN NULL ELSE now() END,
+                run_at = now() + :delayMillis * INTERVAL '1 millisecond',
+                last_error = :lastError,
+                payload = CASE WHEN :status = 'SUCCEEDED' THEN CAST(:retainedPayload AS text) ELSE payload END,
+                locked_by = NULL,
+                locked_until = NULL
+            WHERE id = :id
+            AND status = 'RUNNING'
+            AND locked_by = :owner
+            """, nativeQuery = true)
+    int finish(@Param("id") Long id, @Param("owner") String owner, @Param("status") String status,
+               @Param("delayMillis") long delayMillis, @Param("lastError") String lastError,
+               @Param("retainedPayload") String retainedPayload);
+
+    /**
+     * Returns jobs of a type that failed on their last allowed attempt to the queue, with all of their attempts.
+     *
+     * @param type the type of the jobs
+     * @return the number of jobs returned to the queue
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = JOB_TABLE))
+    @Query(value = """
+            UPDATE jobs
+            SET status = 'PENDING',
+                attempts = 0,
+                run_at = now(),
+                finished_at = NULL
+            WHERE type = :type
+            AND status = 'FAILED'
+            """, nativeQuery = true)
+    int retryFailed(@Param("type") String type);
+
+    /**
+     * Permanently deletes finished jobs in a single chunk.
+     *
+     * @param cutoff    jobs finished before this time are deleted
+     * @param chunkSize the maximum number of jobs to be deleted
+     * @return the number of deleted jobs
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = JOB_TABLE))
+    @Query(value = """
+            DELETE FROM jobs WHERE id IN (
+                SELECT j.id FROM jobs j
+                WHERE j.finished_at < :cutoff
+                ORDER BY j.id
+                LIMIT :chunkSize)
+            """, nativeQuery = true)
+    int permanentlyDeleteJobsFinishedBefore(@Param("cutoff") Instant cutoff, @Param("chunkSize") int chunkSize);
+
+    /**
+     * Counts the jobs of every type by state.
+     *
+     * @return {@link JobTypeStatisticsDto} of every type in the queue, with the counters of this instance left at zero
+     */
+    @Query("""
+            SELECT new com.mss.dto.JobTypeStatisticsDto(
+                j.type,
+                SUM(CASE WHEN j.status = com.mss.enumeration.JobStatus.PENDING THEN 1L ELSE 0L END),
+                SUM(CASE WHEN j.status = com.mss.enumeration.JobStatus.RUNNING THEN 1L ELSE 0L END),
+                SUM(CASE WHEN j.status = com.mss.enumeration.JobStatus.SUCCEEDED THEN 1L ELSE 0L END),
+                SUM(CASE WHEN j.status = com.mss.enumeration.JobStatus.FAILED THEN 1L ELSE 0L END),
+                0L, 0L, 0L, 0L)
+            FROM Job j
+            GROUP BY j.type
+            ORDER BY j.type
+            """)
+    List<JobTypeStatisticsDto> countJobsByType();
+}
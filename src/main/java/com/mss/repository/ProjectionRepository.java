@@ -0,0 +1,383 @@
+package com.mss.repository;
+
+import com.mss.dto.BaseEntityDto;
+import com.mss.dto.CustomerDto;
+import com.mss.dto.ServiceDto;
+import com.mss.dto.ServiceTypeDto;
+import com.mss.dto.ServiceWithUserDto;
+import com.mss.dto.UserDto;
+import com.mss.dto.VehicleDto;
+import jakarta.persistence.EntityManager;
+import lombok.Data;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Read-only projection layer for the list endpoints of customers, vehicles and services.
+ * Rows are read with JPQL tuple queries selecting only the columns the returned DTOs contain and are
+ * turned into DTOs directly, so no entity is loaded, nothing is lazily loaded and nothing is kept in the
+ * persistence context. Nested lists are read with one query per level and attached in memory.
+ * Writes keep using the entity repositories.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@Repository
+public class ProjectionRepository {
+    /**
+     * An EntityManager instance is associated with a persistence context.
+     * A persistence context is a set of entity instances in which for any
+     * persistent entity identity there is a unique entity instance.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Largest number of ids bound to a single IN list.
+     */
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private static final String CUSTOMER_COLUMNS =
+            "c.id, c.createdAt, c.updatedAt, c.deleted, c.firstname, c.lastname, c.address, c.email, c.phoneNumber";
+
+    private static final String VEHICLE_COLUMNS =
+            "v.id, v.createdAt, v.updatedAt, v.deleted, v.manufacturer, v.model, v.vehiclePlate, v.vin, v.yearOfManufacture";
+
+    private static final String USER_COLUMNS =
+            "u.id, u.createdAt, u.updatedAt, u.deleted, u.email, u.firstname, u.lastname, u.mobileNumber, u.dateOfBirth, u.address, u.imageUrl";
+
+    private static final String SERVICE_COLUMNS =
+            "s.id, s.createdAt, s.updatedAt, s.deleted, s.invoiceCode, s.startDate, s.endDate, s.currentMileage, s.nextServiceMileage, s.totalAmount";
+
+    private static final String SERVICE_TYPE_COLUMNS =
+            "st.id, st.createdAt, st.updatedAt, st.deleted, st.typeOfService, st.description, st.price, st.partCode, st.quantity";
+
+    private static final String CUSTOMERS = "SELECT " + CUSTOMER_COLUMNS + " FROM Customer c ";
+
+    private static final String VEHICLES = "SELECT " + VEHICLE_COLUMNS + ", " + CUSTOMER_COLUMNS
+            + " FROM Vehicle v LEFT JOIN v.customer c ";
+
+    private static final String SERVICES = "SELECT " + SERVICE_COLUMNS + ", " + VEHICLE_COLUMNS + ", " + USER_COLUMNS
+            + " FROM Service s LEFT JOIN s.vehicle v LEFT JOIN s.user u ";
+
+    private static final String SERVICES_WITH_CUSTOMER = "SELECT s.id, s.createdAt, s.updatedAt, s.deleted, s.invoiceCode, s.startDate, "
+            + VEHICLE_COLUMNS + ", " + CUSTOMER_COLUMNS + ", " + USER_COLUMNS
+            + " FROM Service s LEFT JOIN s.vehicle v LEFT JOIN v.customer c LEFT JOIN s.user u ";
+
+    private static final String CUSTOMER_VEHICLES = "SELECT v.customer.id, " + VEHICLE_COLUMNS
+            + " FROM Vehicle v WHERE v.customer.id IN :ids ORDER BY v.id";
+
+    private static final String SERVICE_TYPES = "SELECT st.service.id, " + SERVICE_TYPE_COLUMNS
+            + " FROM ServiceType st WHERE st.service.id IN :ids ORDER BY st.id";
+
+    /**
+     * Reads all customers with the given deletion status, each with all of its vehicles.
+     *
+     * @param isDeleted the deletion status of the customers
+     * @return a list of {@link CustomerDto} objects ordered by id
+     */
+    public List<CustomerDto> findCustomers(boolean isDeleted) {
+        List<CustomerDto> customers = read(CUSTOMERS + "WHERE c.deleted = :isDeleted ORDER BY c.id", isDeleted,
+                row -> customer(row, 0));
+
+        return withVehicles(customers);
+    }
+
+    /**
+     * Reads customers by id, each with all of its vehicles.
+     *
+     * @param ids the ids of the customers
+     * @return a list of {@link CustomerDto} objects in the order of the ids
+     */
+    public List<CustomerDto> findCustomersByIds(List<Long> ids) {
+        List<CustomerDto> customers = readByIds(CUSTOMERS + "WHERE c.id IN :ids", ids, row -> customer(row, 0));
+
+        return withVehicles(inOrderOf(ids, customers));
+    }
+
+    /**
+     * Reads all vehicles with the given deletion status, each with its customer and all of its services.
+     *
+     * @param isDeleted the deletion status of the vehicles
+     * @return a list of {@link VehicleDto} objects ordered by id
+     */
+    public List<VehicleDto> findVehicles(boolean isDeleted) {
+        List<VehicleDto> vehicles = read(VEHICLES + "WHERE v.deleted = :isDeleted ORDER BY v.id", isDeleted,
+                ProjectionRepository::vehicleWithCustomer);
+
+        return withServices(vehicles);
+    }
+
+    /**
+     * Reads vehicles by id, each with its customer and all of its services.
+     *
+     * @param ids the ids of the vehicles
+     * @return a list of {@link VehicleDto} objects in the order of the ids
+     */
+    public List<VehicleDto> findVehiclesByIds(List<Long> ids) {
+        List<VehicleDto> vehicles = readByIds(VEHICLES + "WHERE v.id IN :ids", ids, ProjectionRepository::vehicleWithCustomer);
+
+        return withServices(inOrderOf(ids, vehicles));
+    }
+
+    /**
+     * Reads all services with the given deletion status, each with its vehicle, user and all of its service types.
+     *
+     * @param isDeleted the deletion status of the services
+     * @return a list of {@link ServiceDto} objects ordered by id
+     */
+    public List<ServiceDto> findServices(boolean isDeleted) {
+        List<ServiceDto> services = read(SERVICES + "WHERE s.deleted = :isDeleted ORDER BY s.id", isDeleted,
+                ProjectionRepository::service);
+
+        return withServiceTypes(services);
+    }
+
+    /**
+     * Reads services by id, each with its vehicle, user and all of its service types.
+     *
+     * @param ids the ids of the services
+     * @return a list of {@link ServiceDto} objects in the order of the ids
+     */
+    public List<ServiceDto> findServicesByIds(List<Long> ids) {
+        List<ServiceDto> services = readByIds(SERVICES + "WHERE s.id IN :ids", ids, ProjectionRepository::service);
+
+        return withServiceTypes(inOrderOf(ids, services));
+    }
+
+    /**
+     * Reads services by id, each with its vehicle, the customer of the vehicle and its user.
+     *
+     * @param ids the ids of the services
+     * @return a list of {@link ServiceWithUserDto} objects in the order of the ids
+     */
+    public List<ServiceWithUserDto> findServicesWithCustomerByIds(List<Long> ids) {
+        List<ServiceWithUserDto> services = readByIds(SERVICES_WITH_CUSTOMER + "WHERE s.id IN :ids", ids,
+                ProjectionRepository::serviceWithCustomer);
+
+        return inOrderOf(ids, services);
+    }
+
+    /**
+     * Attaches all vehicles of each customer.
+     */
+    private List<CustomerDto> withVehicles(List<CustomerDto> customers) {
+        Map<Long, List<VehicleDto>> vehicles = groupByParent(CUSTOMER_VEHICLES, ids(customers), row -> vehicle(row, 1));
+        customers.forEach(customer -> customer.setVehicleDtos(vehicles.getOrDefault(customer.getId(), new ArrayList<>())));
+
+        return customers;
+    }
+
+    /**
+     * Attaches all services, with their service types, of each vehicle.
+     */
+    private List<VehicleDto> withServices(List<VehicleDto> vehicles) {
+        List<ServiceDto> services = withServiceTypes(readByIds(SERVICES + "WHERE v.id IN :ids", ids(vehicles),
+                ProjectionRepository::service));
+        services.sort(Comparator.comparing(ServiceDto::getId));
+
+        Map<Long, List<ServiceDto>> servicesByVehicle = new HashMap<>();
+        services.forEach(service -> servicesByVehicle
+                .computeIfAbsent(service.getVehicleDto().getId(), id -> new ArrayList<>())
+                .add(service));
+        vehicles.forEach(vehicle -> vehicle.setServiceDtos(servicesByVehicle.getOrDefault(vehicle.getId(), new ArrayList<>())));
+
+        return vehicles;
+    }
+
+    /**
+     * Attaches all service types of each service.
+     */
+    private List<ServiceDto> withServiceTypes(List<ServiceDto> services) {
+        Map<Long, List<ServiceTypeDto>> serviceTypes = groupByParent(SERVICE_TYPES, ids(services), row -> serviceType(row, 1));
+        services.forEach(service -> service.setServiceTypeDtos(serviceTypes.getOrDefault(service.getId(), new ArrayList<>())));
+
+        return services;
+    }
+
+    private <T> List<T> read(String jpql, boolean isDeleted, Function<Object[], T> mapper) {
+        List<T> results = new ArrayList<>();
+        for (Object[] row : entityManager.createQuery(jpql, Object[].class)
+                .setParameter("isDeleted", isDeleted)
+                .getResultList()) {
+            results.add(mapper.apply(row));
+        }
+
+        return results;
+    }
+
+    /**
+     * Runs a query with an {@code :ids} parameter once per chunk of ids.
+     */
+    private <T> List<T> readByIds(String jpql, List<Long> ids, Function<Object[], T> mapper) {
+        List<T> results = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + ID_CHUNK_SIZE));
+            for (Object[] row : entityManager.createQuery(jpql, Object[].class)
+                    .setParameter("ids", chunk)
+                    .getResultList()) {
+                results.add(mapper.apply(row));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Reads child rows whose first column is the id of the parent and groups them by that id.
+     */
+    private <T> Map<Long, List<T>> groupByParent(String jpql, List<Long> parentIds, Function<Object[], T> mapper) {
+        Map<Long, List<T>> children = new HashMap<>();
+        for (int from = 0; from < parentIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = parentIds.subList(from, Math.min(parentIds.size(), from + ID_CHUNK_SIZE));
+            for (Object[] row : entityManager.createQuery(jpql, Object[].class)
+                    .setParameter("ids", chunk)
+                    .getResultList()) {
+                children.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(mapper.apply(row));
+            }
+        }
+
+        return children;
+    }
+
+    private static List<Long> ids(List<? extends BaseEntityDto> dtos) {
+        return dtos.stream().map(BaseEntityDto::getId).distinct().toList();
+    }
+
+    /**
+     * Orders DTOs like the ids they were read by, since IN does not keep any order.
+     */
+    private static <T extends BaseEntityDto> List<T> inOrderOf(List<Long> ids, List<T> dtos) {
+        Map<Long, T> byId = new LinkedHashMap<>();
+        dtos.forEach(dto -> byId.put(dto.getId(), dto));
+
+        List<T> ordered = new ArrayList<>(dtos.size());
+        for (Long id : ids) {
+            T dto = byId.get(id);
+            if (dto != null) {
+                ordered.add(dto);
+            }
+        }
+
+        return ordered;
+    }
+
+    private static void base(BaseEntityDto dto, Object[] row, int i) {
+        dto.setId((Long) row[i]);
+        dto.setCreatedAt((Instant) row[i + 1]);
+        dto.setUpdatedAt((Instant) row[i + 2]);
+        dto.setDeleted((Boolean) row[i + 3]);
+    }
+
+    private static CustomerDto customer(Object[] row, int i) {
+        if (row[i] == null) {
+            return null;
+        }
+
+        CustomerDto customer = new CustomerDto();
+        base(customer, row, i);
+        customer.setFirstname((String) row[i + 4]);
+        customer.setLastname((String) row[i + 5]);
+        customer.setAddress((String) row[i + 6]);
+        customer.setEmail((String) row[i + 7]);
+        customer.setPhoneNumber((String) row[i + 8]);
+
+        return customer;
+    }
+
+    private static VehicleDto vehicle(Object[] row, int i) {
+        if (row[i] == null) {
+            return null;
+        }
+
+        VehicleDto vehicle = new VehicleDto();
+        base(vehicle, row, i);
+        vehicle.setManufacturer((String) row[i + 4]);
+        vehicle.setModel((String) row[i + 5]);
+        vehicle.setVehiclePlate((String) row[i + 6]);
+        vehicle.setVin((String) row[i + 7]);
+        vehicle.setYearOfManufacture((Integer) row[i + 8]);
+
+        return vehicle;
+    }
+
+    private static VehicleDto vehicleWithCustomer(Object[] row) {
+        VehicleDto vehicle = vehicle(row, 0);
+        vehicle.setCustomerDto(customer(row, 9));
+
+        return vehicle;
+    }
+
+    private static UserDto user(Object[] row, int i) {
+        if (row[i] == null) {
+            return null;
+        }
+
+        UserDto user = new UserDto();
+        base(user, row, i);
+        user.setEmail((String) row[i + 4]);
+        user.setFirstname((String) row[i + 5]);
+        user.setLastname((String) row[i + 6]);
+        user.setMobileNumber((String) row[i + 7]);
+        user.setDateOfBirth((LocalDate) row[i + 8]);
+        user.setAddress((String) row[i + 9]);
+        user.setImageUrl((String) row[i + 10]);
+
+        return user;
+    }
+
+    private static ServiceDto service(Object[] row) {
+        ServiceDto service = new ServiceDto();
+        base(service, row, 0);
+        service.setInvoiceCode((String) row[4]);
+        service.setStartDate((LocalDate) row[5]);
+        service.setEndDate((LocalDate) row[6]);
+        service.setCurrentMileage((Integer) row[7]);
+        service.setNextServiceMileage((Integer) row[8]);
+        if (row[9] != null) {
+            service.setRevenuePerService((Double) row[9]);
+        }
+        service.setVehicleDto(vehicle(row, 10));
+        service.setUserDto(user(row, 19));
+
+        return service;
+    }
+
+    private static ServiceWithUserDto serviceWithCustomer(Object[] row) {
+        ServiceWithUserDto service = new ServiceWithUserDto();
+        base(service, row, 0);
+        service.setInvoiceCode((String) row[4]);
+        service.setStartDate((LocalDate) row[5]);
+
+        VehicleDto vehicle = vehicle(row, 6);
+        if (vehicle != null) {
+            vehicle.setCustomerDto(customer(row, 15));
+        }
+        service.setVehicleDto(vehicle);
+        service.setUserDto(user(row, 24));
+
+        return service;
+    }
+
+    private static ServiceTypeDto serviceType(Object[] row, int i) {
+        ServiceTypeDto serviceType = new ServiceTypeDto();
+        base(serviceType, row, i);
+        serviceType.setTypeOfService((String) row[i + 4]);
+        serviceType.setDescription((String) row[i + 5]);
+        serviceType.setPrice((Double) row[i + 6]);
+        serviceType.setPartCode((String) row[i + 7]);
+        serviceType.setQuantity((Integer) row[i + 8]);
+
+        return serviceType;
+    }
+}
@@ -0,0 +1,96 @@
+package com.mss.repository;
+
+import com.mss.model.SchedulerLock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The SchedulerLockRepository interface extends JpaRepository to inherit JPA-based CRUD methods and custom
+ * methods for acquiring, extending and releasing SchedulerLock leases.
+ * Every statement commits on its own, so a lease is visible to other instances as soon as it changes,
+ * and compares against the database clock.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+    /**
+     * The only table written by the lease queries.
+     */
+    String LOCK_TABLE = "scheduler_locks";
+
+    /**
+     * Acquires the lease of a job if nobody holds it or the previous lease has expired.
+     *
+     * @param name        the name of the job
+     * @param owner       the instance acquiring the lease
+     * @param leaseMillis how long the lease lasts without a heartbeat, in milliseconds
+     * @return 1 if the lease was acquired, 0 if another instance holds it
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = LOCK_TABLE))
+    @Query(value = """
+            INSERT INTO scheduler_locks (name, owner, locked_at, locked_until, heartbeat_at)
+            VALUES (:name, :owner, now(), now() + :leaseMillis * INTERVAL '1 millisecond', now())
+            ON CONFLICT (name) DO UPDATE
+            SET owner = EXCLUDED.owner,
+                locked_at = EXCLUDED.locked_at,
+                locked_until = EXCLUDED.locked_until,
+                heartbeat_at = EXCLUDED.heartbeat_at
+            WHERE scheduler_locks.locked_until <= now()
+            """, nativeQuery = true)
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner, @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * Extends the lease of a job held by the owner. A lease that has expired or been released is not extended,
+     * so a heartbeat that was already running when the job finished cannot take the lease again.
+     *
+     * @param name        the name of the job
+     * @param owner       the instance holding the lease
+     * @param leaseMillis how long the lease lasts from now without a further heartbeat, in milliseconds
+     * @return 1 if the lease was extended, 0 if it has been taken over by another instance
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = LOCK_TABLE))
+    @Query(value = """
+            UPDATE scheduler_locks
+            SET locked_until = now() + :leaseMillis * INTERVAL '1 millisecond',
+                heartbeat_at = now()
+            WHERE name = :name
+            AND owner = :owner
+            AND locked_until > now()
+            """, nativeQuery = true)
+    int extend(@Param("name") String name, @Param("owner") String owner, @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * Expires the lease of a job held by the owner and clears its owner, so the next run can start on any instance
+     * and the previous owner can no longer extend it.
+     *
+     * @param name  the name of the job
+     * @param owner the instance holding the lease
+     * @return 1 if the lease was released, 0 if it had been taken over by another instance
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = LOCK_TABLE))
+    @Query(value = """
+            UPDATE scheduler_locks
+            SET locked_until = now(),
+                owner = NULL
+            WHERE name = :name
+            AND owner = :owner
+            """, nativeQuery = true)
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
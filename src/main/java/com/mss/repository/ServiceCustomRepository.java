@@ -1,16 +1,13 @@
 package com.mss.repository;
 
+import com.mss.dto.CursorPageDto;
 import com.mss.dto.ServiceFiltersQueryDto;
 import com.mss.model.Service;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.Data;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
@@ -22,11 +19,9 @@ import java.util.Objects;
 @Data
 public class ServiceCustomRepository {
     /**
-     * An EntityManager instance is associated with a persistence context.
-     * A persistence context is a set of entity instances in which for any
-     * persistent entity identity there is a unique entity instance.
+     * The shared repository used to read pages and count rows.
      */
-    private final EntityManager entityManager;
+    private final CriteriaPageRepository criteriaPageRepository;
 
     /**
      * Retrieves a paginated list of services based on the provided filters.
@@ -37,13 +32,42 @@ public class ServiceCustomRepository {
      *                 for services. If any field is null, it will be ignored in the query.
      * @param pageable the {@link Pageable} object containing pagination information such as
      *                 page number and page size.
-     * @return a {@link Page} of {@link Service} objects that match the filter criteria.
-     * The page contains the list of services, pagination details, and total number of rows.
+     * @return a {@link Page} of ids of the services that match the filter criteria, in page order.
+     * The page contains the ids, pagination details, and total number of rows.
      */
-    public Page<Service> findFilteredServices(ServiceFiltersQueryDto filters, Pageable pageable) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery cq = cb.createQuery();
-        Root<Service> service = cq.from(Service.class);
+    public Page<Long> findFilteredServiceIds(ServiceFiltersQueryDto filters, Pageable pageable) {
+        return criteriaPageRepository.findIdPage(Service.class,
+                (cb, service) -> buildFilteredServicesPredicates(cb, service, filters),
+                (cb, service) -> List.of(cb.asc(service.get("endDate")), cb.desc(service.get("endDate"))),
+                pageable);
+    }
+
+    /**
+     * Retrieves a keyset page of services based on the provided filters, ordered by end date and id.
+     * The filters are the same as in {@link #findFilteredServiceIds}.
+     *
+     * @param filters   the {@link ServiceFiltersQueryDto} containing the filter criteria
+     *                  for services. If any field is null, it will be ignored in the query.
+     * @param cursor    the cursor returned with the previous page, or blank for the first page
+     * @param pageSize  number of results per page
+     * @param withCount whether the total number of matching rows should be counted
+     * @return a {@link CursorPageDto} of ids of the services that match the filter criteria
+     */
+    public CursorPageDto<Long> findFilteredServiceIdsAfter(ServiceFiltersQueryDto filters, String cursor, int pageSize, boolean withCount) {
+        return criteriaPageRepository.findCursorIdPage(Service.class,
+                (cb, service) -> buildFilteredServicesPredicates(cb, service, filters),
+                "endDate", cursor, pageSize, withCount);
+    }
+
+    /**
+     * Builds the filter predicates of {@link #findFilteredServiceIds}. If any field of the filters is null, it is ignored.
+     *
+     * @param cb      the criteria builder
+     * @param service the root of the query
+     * @param filters the {@link ServiceFiltersQueryDto} containing the filter criteria
+     * @return a list of predicates that are combined with and
+     */
+    private List<Predicate> buildFilteredServicesPredicates(CriteriaBuilder cb, Root<Service> service, ServiceFiltersQueryDto filters) {
         List<Predicate> predicates = new ArrayList<>();
 
         if (Objects.nonNull(filters) && Objects.nonNull(filters.getInvoiceCode())) {
@@ -70,16 +94,7 @@ public class ServiceCustomRepository {
             predicates.add(service.get("user").get("id").in(filters.getUserId()));
         }
 
-        cq.where(cb.and(predicates.toArray(new Predicate[0])));
-        cq.orderBy(cb.asc(service.get("endDate")), cb.desc(service.get("endDate")));
-        cq.select(service).distinct(true);
-
-        TypedQuery<Service> query = entityManager.createQuery(cq);
-        int totalRows = query.getResultList().size();
-        query.setFirstResult((int) pageable.getOffset());
-        query.setMaxResults(pageable.getPageSize());
-
-        return new PageImpl<>(query.getResultList(), pageable, totalRows);
+        return predicates;
     }
 
     /**
@@ -91,13 +106,25 @@ public class ServiceCustomRepository {
      *                 for services. If any field is null, it will be ignored in the query.
      * @param pageable the {@link Pageable} object containing pagination information such as
      *                 page number and page size.
-     * @return a {@link Page} of {@link Service} objects that match the filter criteria.
-     * The page contains the list of services, pagination details, and total number of rows.
+     * @return a {@link Page} of ids of the services that match the filter criteria, in page order.
+     * The page contains the ids, pagination details, and total number of rows.
      */
-    public Page<Service> findFilteredServicesWithCustomer(ServiceFiltersQueryDto filters, Pageable pageable) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery cq = cb.createQuery();
-        Root<Service> service = cq.from(Service.class);
+    public Page<Long> findFilteredServiceIdsWithCustomer(ServiceFiltersQueryDto filters, Pageable pageable) {
+        return criteriaPageRepository.findIdPage(Service.class,
+                (cb, service) -> buildFilteredServicesWithCustomerPredicates(cb, service, filters),
+                (cb, service) -> List.of(cb.asc(service.get("startDate")), cb.desc(service.get("startDate"))),
+                pageable);
+    }
+
+    /**
+     * Builds the filter predicates of {@link #findFilteredServiceIdsWithCustomer}. If any field of the filters is null, it is ignored.
+     *
+     * @param cb      the criteria builder
+     * @param service the root of the query
+     * @param filters the {@link ServiceFiltersQueryDto} containing the filter criteria
+     * @return a list of predicates that are combined with and
+     */
+    private List<Predicate> buildFilteredServicesWithCustomerPredicates(CriteriaBuilder cb, Root<Service> service, ServiceFiltersQueryDto filters) {
         List<Predicate> predicates = new ArrayList<>();
 
         if (Objects.nonNull(filters) && Objects.nonNull(filters.getInvoiceCode())) {
@@ -122,15 +149,6 @@ public class ServiceCustomRepository {
 
         predicates.add(cb.isNull(service.get("endDate")));
 
-        cq.where(cb.and(predicates.toArray(new Predicate[0])));
-        cq.orderBy(cb.asc(service.get("startDate")), cb.desc(service.get("startDate")));
-        cq.select(service).distinct(true);
-
-        TypedQuery<Service> query = entityManager.createQuery(cq);
-        int totalRows = query.getResultList().size();
-        query.setFirstResult((int) pageable.getOffset());
-        query.setMaxResults(pageable.getPageSize());
-
-        return new PageImpl<>(query.getResultList(), pageable, totalRows);
+        return predicates;
     }
 }
@@ -1,9 +1,17 @@
 package com.mss.repository;
 
+import com.mss.dto.PieChartCustomerDto;
+import com.mss.dto.PieChartMechanicDto;
+import com.mss.dto.PieChartServiceDto;
+import com.mss.dto.ServiceKpiDto;
 import com.mss.model.Service;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -45,6 +53,114 @@ public interface ServiceRepository extends JpaRepository<Service, Long> {
     List<Service> findServicesByDateRange(@Param("startDate") LocalDate startDate,
                                           @Param("endDate") LocalDate endDate);
 
+    /**
+     * Computes revenue, number of parts and number of services for a date range in a single grouped query.
+     * Both services and their service types are matched against the given deletion status.
+     *
+     * @param isDeleted A boolean indicating the deletion status of services and service types to aggregate.
+     * @param startDate The start of the date range (inclusive).
+     * @param endDate   The end of the date range (inclusive).
+     * @return A {@link ServiceKpiDto} containing the aggregated values.
+     */
+    @Query("""
+            SELECT new com.mss.dto.ServiceKpiDto(
+                COALESCE(SUM(st.price * st.quantity), 0.0),
+                COUNT(st.partCode),
+                COUNT(DISTINCT s.id))
+            FROM Service s
+            LEFT JOIN s.serviceTypes st ON st.deleted = :isDeleted
+            WHERE s.deleted = :isDeleted
+            AND s.startDate BETWEEN :startDate AND :endDate
+            """)
+    ServiceKpiDto aggregateKpisByDateRange(@Param("isDeleted") boolean isDeleted,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate);
+
+    /**
+     * Computes revenue per service for services started within a date range.
+     *
+     * @param isDeleted A boolean indicating the deletion status of services and service types to aggregate.
+     * @param startDate The start of the date range (inclusive).
+     * @param endDate   The end of the date range (inclusive).
+     * @return A list of {@link PieChartServiceDto} rows, one per service.
+     */
+    @Query("""
+            SELECT new com.mss.dto.PieChartServiceDto(
+                s.invoiceCode,
+                COALESCE(SUM(st.price * st.quantity), 0.0))
+            FROM Service s
+            LEFT JOIN s.serviceTypes st ON st.deleted = :isDeleted
+            WHERE s.deleted = :isDeleted
+            AND s.startDate BETWEEN :startDate AND :endDate
+            GROUP BY s.id, s.invoiceCode
+            """)
+    List<PieChartServiceDto> sumRevenueByServiceAndDateRange(@Param("isDeleted") boolean isDeleted,
+                                                              @Param("startDate") LocalDate startDate,
+                                                              @Param("endDate") LocalDate endDate);
+
+    /**
+     * Reads the stored total amount of every active service started within a date range.
+     *
+     * @param startDate The start of the date range (inclusive).
+     * @param endDate   The end of the date range (inclusive).
+     * @return A list of {@link PieChartServiceDto} rows, one per service.
+     */
+    @Query("""
+            SELECT new com.mss.dto.PieChartServiceDto(s.invoiceCode, COALESCE(s.totalAmount, 0.0))
+            FROM Service s
+            WHERE s.deleted = false
+            AND s.startDate BETWEEN :startDate AND :endDate
+            """)
+    List<PieChartServiceDto> findTotalAmountByDateRange(@Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate);
+
+    /**
+     * Computes revenue per mechanic for services started within a date range.
+     *
+     * @param isDeleted A boolean indicating the deletion status of services and service types to aggregate.
+     * @param startDate The start of the date range (inclusive).
+     * @param endDate   The end of the date range (inclusive).
+     * @return A list of {@link PieChartMechanicDto} rows, one per mechanic.
+     */
+    @Query("""
+            SELECT new com.mss.dto.PieChartMechanicDto(
+                CONCAT(u.firstname, ' ', u.lastname),
+                COALESCE(SUM(st.price * st.quantity), 0.0))
+            FROM Service s
+            JOIN s.user u
+            LEFT JOIN s.serviceTypes st ON st.deleted = :isDeleted
+            WHERE s.deleted = :isDeleted
+            AND s.startDate BETWEEN :startDate AND :endDate
+            GROUP BY u.id, u.firstname, u.lastname
+            """)
+    List<PieChartMechanicDto> sumRevenueByMechanicAndDateRange(@Param("isDeleted") boolean isDeleted,
+                                                                @Param("startDate") LocalDate startDate,
+                                                                @Param("endDate") LocalDate endDate);
+
+    /**
+     * Computes revenue per customer for services started within a date range.
+     *
+     * @param isDeleted A boolean indicating the deletion status of services and service types to aggregate.
+     * @param startDate The start of the date range (inclusive).
+     * @param endDate   The end of the date range (inclusive).
+     * @return A list of {@link PieChartCustomerDto} rows, one per customer.
+     */
+    @Query("""
+            SELECT new com.mss.dto.PieChartCustomerDto(
+                CONCAT(c.firstname, ' ', c.lastname),
+                COALESCE(SUM(st.price * st.quantity), 0.0))
+            FROM Service s
+            JOIN s.vehicle v
+            JOIN v.customer c
+            LEFT JOIN s.serviceTypes st ON st.deleted = :isDeleted
+            WHERE s.deleted = :isDeleted
+            AND s.startDate BETWEEN :startDate AND :endDate
+            GROUP BY c.id, c.firstname, c.lastname
+            """)
+    List<PieChartCustomerDto> sumRevenueByCustomerAndDateRange(@Param("isDeleted") boolean isDeleted,
+                                                                @Param("startDate") LocalDate startDate,
+                                                                @Param("endDate") LocalDate endDate);
+
 
     /**
      * Find a service by their id if they are not softly deleted.
@@ -55,21 +171,30 @@ public interface ServiceRepository extends JpaRepository<Service, Long> {
     Optional<Service> findOneById(Long serviceId);
 
     /**
-     * Finds all services that are marked as deleted.
+     * Find a service by its id together with its vehicle, user and service types.
      *
-     * @return A list of services that are marked as deleted.
+     * @param serviceId the id of the service
+     * @return an Optional containing the service if found, or empty if not
      */
-    @Query("SELECT s FROM Service s WHERE s.deleted = true")
-    List<Service> findAllDeletedServices();
+    @EntityGraph(Service.DETAIL_GRAPH)
+    Optional<Service> findDetailById(Long serviceId);
+
+    /**
+     * Find a service by its id together with the customer of its vehicle and its service types.
+     *
+     * @param serviceId the id of the service
+     * @return an Optional containing the service if found, or empty if not
+     */
+    @EntityGraph(Service.INVOICE_GRAPH)
+    Optional<Service> findInvoiceById(Long serviceId);
 
     /**
-     * Finds all services that are marked as deleted and have been deleted for longer than one week.
+     * Finds all services that are marked as deleted.
      *
-     * @param oneWeekAgo The date and time representing one week ago.
-     * @return A list of services that have been deleted for longer than one week.
+     * @return A list of services that are marked as deleted.
      */
-    @Query("SELECT s FROM Service s WHERE s.deleted = true AND s.deletedAt <= :oneWeekAgo")
-    List<Service> findServicesDeletedOlderThanOneWeek(@Param("oneWeekAgo") Instant oneWeekAgo);
+    @Query("SELECT s FROM Service s WHERE s.deleted = true")
+    List<Service> findAllDeletedServices();
 
 
     /**
@@ -86,11 +211,115 @@ public interface ServiceRepository extends JpaRepository<Service, Long> {
     void permanentlyDeleteServiceById(Long serviceId);
 
     /**
-     * Permanently deletes specific Service entities provided as a list.
+     * Permanently deletes at most chunkSize services that have been deleted at or before the cutoff and no longer
+     * have service types, in a single statement.
      *
-     * @param deletedServices The list of Service entities to be permanently deleted.
+     * @param cutoff    the latest deletion time of the services to be deleted
+     * @param chunkSize the maximum number of services to be deleted
+     * @return the number of deleted services
      */
     @Modifying
-    @Query("DELETE FROM Service s WHERE s.id IN :deletedServices")
-    void permanentlyDeleteAllDeletedServices(List<Long> deletedServices);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "services"))
+    @Query(value = """
+            DELETE FROM services WHERE id IN (
+                SELECT s.id FROM services s
+                WHERE s.deleted = true
+                AND s.deleted_at <= :cutoff
+                AND NOT EXISTS (SELECT 1 FROM service_types st WHERE st.service_id = s.id)
+                ORDER BY s.id
+                LIMIT :chunkSize)
+            """, nativeQuery = true)
+    int permanentlyDeleteDeletedServices(@Param("cutoff") Instant cutoff, @Param("chunkSize") int chunkSize);
+
+    /**
+     * Recomputes the total amount and the number of parts of a service from its service types that are not deleted.
+     * Appended to the SET clause of the restore statements.
+     */
+    String RECALCULATE_TOTALS = """
+            , s.totalAmount = (
+                SELECT COALESCE(SUM(st.price * st.quantity), 0.0) FROM ServiceType st
+                WHERE st.service.id = s.id AND st.deleted = false)
+            , s.partCount = (
+                SELECT CAST(COUNT(st.partCode) AS Integer) FROM ServiceType st
+                WHERE st.service.id = s.id AND st.deleted = false)
+            """;
+
+    /**
+     * Softly deletes, as deleted by cascade, the services that are not deleted of all vehicles of a customer
+     * that are not deleted, and clears their totals, in a single statement.
+     *
+     * @param customerId the id of the customer being deleted
+     * @param deletedAt  the deletion time
+     * @return the number of deleted services
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Service s
+            SET s.deleted = true, s.deletedByCascade = true, s.deletedAt = :deletedAt,
+                s.totalAmount = 0.0, s.partCount = 0
+            WHERE s.deleted = false
+            AND s.vehicle.id IN (
+                SELECT v.id FROM Vehicle v
+                WHERE v.deleted = false
+                AND v.customer.id = :customerId)
+            """)
+    int cascadeDeleteByCustomerId(@Param("customerId") Long customerId, @Param("deletedAt") Instant deletedAt);
+
+    /**
+     * Restores the services deleted by cascade of all vehicles of a customer deleted by cascade and recomputes
+     * their totals, in a single statement. Must run after the service types and before the vehicles are restored.
+     *
+     * @param customerId the id of the customer being restored
+     * @return the number of restored services
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Service s
+            SET s.deleted = false, s.deletedByCascade = false, s.deletedAt = null
+            """ + RECALCULATE_TOTALS + """
+            WHERE s.deleted = true
+            AND s.deletedByCascade = true
+            AND s.vehicle.id IN (
+                SELECT v.id FROM Vehicle v
+                WHERE v.deleted = true
+                AND v.deletedByCascade = true
+                AND v.customer.id = :customerId)
+            """)
+    int cascadeRestoreByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Softly deletes, as deleted by cascade, the services of a vehicle that are not deleted and clears their totals,
+     * in a single statement.
+     *
+     * @param vehicleId the id of the vehicle being deleted
+     * @param deletedAt the deletion time
+     * @return the number of deleted services
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Service s
+            SET s.deleted = true, s.deletedByCascade = true, s.deletedAt = :deletedAt,
+                s.totalAmount = 0.0, s.partCount = 0
+            WHERE s.deleted = false
+            AND s.vehicle.id = :vehicleId
+            """)
+    int cascadeDeleteByVehicleId(@Param("vehicleId") Long vehicleId, @Param("deletedAt") Instant deletedAt);
+
+    /**
+     * Restores the services of a vehicle deleted by cascade and recomputes their totals, in a single statement.
+     * Must run after the service types are restored.
+     *
+     * @param vehicleId the id of the vehicle being restored
+     * @return the number of restored services
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Service s
+            SET s.deleted = false, s.deletedByCascade = false, s.deletedAt = null
+            """ + RECALCULATE_TOTALS + """
+            WHERE s.deleted = true
+            AND s.deletedByCascade = true
+            AND s.vehicle.id = :vehicleId
+            """)
+    int cascadeRestoreByVehicleId(@Param("vehicleId") Long vehicleId);
 }
@@ -2,15 +2,11 @@ package com.mss.repository;
 
 import com.mss.dto.ServiceTypeFiltersQueryDto;
 import com.mss.model.ServiceType;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.Data;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
@@ -22,16 +18,26 @@ import java.util.Objects;
 @Repository
 public class ServiceTypeCustomRepository {
     /**
-     * An EntityManager instance is associated with a persistence context.
-     * A persistence context is a set of entity instances in which for any
-     * persistent entity identity there is a unique entity instance.
+     * The shared repository used to read pages and count rows.
      */
-    private final EntityManager entityManager;
+    private final CriteriaPageRepository criteriaPageRepository;
 
     public Page<ServiceType> findFilteredServiceTypes(ServiceTypeFiltersQueryDto filters, Pageable pageable) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery cq = cb.createQuery();
-        Root<ServiceType> serviceTypes = cq.from(ServiceType.class);
+        return criteriaPageRepository.findPage(ServiceType.class,
+                (cb, serviceTypes) -> buildFilteredServiceTypesPredicates(cb, serviceTypes, filters),
+                (cb, serviceTypes) -> List.of(cb.desc(serviceTypes.get("createdAt"))),
+                pageable);
+    }
+
+    /**
+     * Builds the filter predicates of {@link #findFilteredServiceTypes}. If any field of the filters is null, it is ignored.
+     *
+     * @param cb      the criteria builder
+     * @param serviceTypes the root of the query
+     * @param filters the {@link ServiceTypeFiltersQueryDto} containing the filter criteria
+     * @return a list of predicates that are combined with and
+     */
+    private List<Predicate> buildFilteredServiceTypesPredicates(CriteriaBuilder cb, Root<ServiceType> serviceTypes, ServiceTypeFiltersQueryDto filters) {
         List<Predicate> predicates = new ArrayList<>();
 
         if (Objects.nonNull(filters) && Objects.nonNull(filters.getTypeOfService())) {
@@ -57,15 +63,7 @@ public class ServiceTypeCustomRepository {
         if (Objects.nonNull(filters) && Objects.nonNull(filters.getServiceId())) {
             predicates.add(serviceTypes.get("service").get("id").in(filters.getServiceId()));
         }
-        cq.where(cb.and(predicates.toArray(new Predicate[0])));
-        cq.orderBy(cb.desc(serviceTypes.get("createdAt")));
-        cq.select(serviceTypes).distinct(true);
-
-        TypedQuery<ServiceType> query = entityManager.createQuery(cq);
-        int totalRows = query.getResultList().size();
-        query.setFirstResult((int) pageable.getOffset());
-        query.setMaxResults(pageable.getPageSize());
 
-        return new PageImpl<>(query.getResultList(), pageable, totalRows);
+        return predicates;
     }
 }
@@ -1,9 +1,14 @@
 package com.mss.repository;
 
+import com.mss.dto.ServiceTotalsDto;
 import com.mss.model.ServiceType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
@@ -28,6 +33,23 @@ public interface ServiceTypeRepository extends JpaRepository<ServiceType, Long>
      */
     Optional<ServiceType> findOneById(Long serviceTypeId);
 
+    /**
+     * Find a service type by its id together with its service.
+     *
+     * @param serviceTypeId the id of the service type
+     * @return an Optional containing the service type if found, or empty if not
+     */
+    @EntityGraph(ServiceType.DETAIL_GRAPH)
+    Optional<ServiceType> findDetailById(Long serviceTypeId);
+
+    /**
+     * Find all service types together with their services.
+     *
+     * @return a List containing service types
+     */
+    @EntityGraph(ServiceType.DETAIL_GRAPH)
+    List<ServiceType> findAllDetailBy();
+
     /**
      * Find all service types by their service id if they are not softly deleted.
      *
@@ -37,21 +59,28 @@ public interface ServiceTypeRepository extends JpaRepository<ServiceType, Long>
     List<ServiceType> findAllByServiceId(Long serviceId);
 
     /**
-     * Finds all service types that are marked as deleted.
+     * Sums price multiplied by quantity and counts parts over service types of a service that are not deleted.
      *
-     * @return A list of service types that are marked as deleted.
+     * @param serviceId the id of the service
+     * @return a {@link ServiceTotalsDto} containing the total amount and number of parts
      */
-    @Query("SELECT s FROM ServiceType s WHERE s.deleted = true")
-    List<ServiceType> findAllDeletedServiceTypes();
+    @Query("""
+            SELECT new com.mss.dto.ServiceTotalsDto(
+                COALESCE(SUM(st.price * st.quantity), 0.0),
+                COUNT(st.partCode))
+            FROM ServiceType st
+            WHERE st.service.id = :serviceId
+            AND st.deleted = false
+            """)
+    ServiceTotalsDto sumTotalsByServiceId(@Param("serviceId") Long serviceId);
 
     /**
-     * Finds all service types that are marked as deleted and have been deleted for longer than one week.
+     * Finds all service types that are marked as deleted.
      *
-     * @param oneWeekAgo The date and time representing one week ago.
-     * @return A list of service types that have been deleted for longer than one week.
+     * @return A list of service types that are marked as deleted.
      */
-    @Query("SELECT st FROM ServiceType st WHERE st.deleted = true AND st.deletedAt <= :oneWeekAgo")
-    List<ServiceType> findServiceTypesDeletedOlderThanOneWeek(@Param("oneWeekAgo") Instant oneWeekAgo);
+    @Query("SELECT s FROM ServiceType s WHERE s.deleted = true")
+    List<ServiceType> findAllDeletedServiceTypes();
 
     /**
      * Permanently deletes a ServiceType entity from the database by its ID.
@@ -67,12 +96,111 @@ public interface ServiceTypeRepository extends JpaRepository<ServiceType, Long>
     void permanentlyDeleteServiceTypeById(Long serviceTypeId);
 
     /**
-     * Permanently deletes specific ServiceType entities provided as a list.
+     * Permanently deletes at most chunkSize service types that have been deleted at or before the cutoff,
+     * in a single statement.
      *
-     * @param deletedServiceTypeIds The list of ServiceType IDs to be permanently deleted.
+     * @param cutoff    the latest deletion time of the service types to be deleted
+     * @param chunkSize the maximum number of service types to be deleted
+     * @return the number of deleted service types
      */
     @Modifying
-    @Query("DELETE FROM ServiceType s WHERE s.id IN :deletedServiceTypeIds")
-    void permanentlyDeleteAllDeletedServiceTypes(List<Long> deletedServiceTypeIds);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "service_types"))
+    @Query(value = """
+            DELETE FROM service_types WHERE id IN (
+                SELECT st.id FROM service_types st
+                WHERE st.deleted = true
+                AND st.deleted_at <= :cutoff
+                ORDER BY st.id
+                LIMIT :chunkSize)
+            """, nativeQuery = true)
+    int permanentlyDeleteDeletedServiceTypes(@Param("cutoff") Instant cutoff, @Param("chunkSize") int chunkSize);
 
+    /**
+     * Softly deletes, as deleted by cascade, the service types that are not deleted of all services
+     * that are not deleted of all vehicles of a customer that are not deleted, in a single statement.
+     *
+     * @param customerId the id of the customer being deleted
+     * @param deletedAt  the deletion time
+     * @return the number of deleted service types
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE ServiceType st
+            SET st.deleted = true, st.deletedByCascade = true, st.deletedAt = :deletedAt
+            WHERE st.deleted = false
+            AND st.service.id IN (
+                SELECT s.id FROM Service s
+                WHERE s.deleted = false
+                AND s.vehicle.id IN (
+                    SELECT v.id FROM Vehicle v
+                    WHERE v.deleted = false
+                    AND v.customer.id = :customerId))
+            """)
+    int cascadeDeleteByCustomerId(@Param("customerId") Long customerId, @Param("deletedAt") Instant deletedAt);
+
+    /**
+     * Restores the service types deleted by cascade of all services deleted by cascade of all vehicles of a customer
+     * deleted by cascade, in a single statement. Must run before the services and vehicles are restored.
+     *
+     * @param customerId the id of the customer being restored
+     * @return the number of restored service types
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE ServiceType st
+            SET st.deleted = false, st.deletedByCascade = false, st.deletedAt = null
+            WHERE st.deleted = true
+            AND st.deletedByCascade = true
+            AND st.service.id IN (
+                SELECT s.id FROM Service s
+                WHERE s.deleted = true
+                AND s.deletedByCascade = true
+                AND s.vehicle.id IN (
+                    SELECT v.id FROM Vehicle v
+                    WHERE v.deleted = true
+                    AND v.deletedByCascade = true
+                    AND v.customer.id = :customerId))
+            """)
+    int cascadeRestoreByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Softly deletes, as deleted by cascade, the service types that are not deleted of all services of a vehicle
+     * that are not deleted, in a single statement.
+     *
+     * @param vehicleId the id of the vehicle being deleted
+     * @param deletedAt the deletion time
+     * @return the number of deleted service types
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE ServiceType st
+            SET st.deleted = true, st.deletedByCascade = true, st.deletedAt = :deletedAt
+            WHERE st.deleted = false
+            AND st.service.id IN (
+                SELECT s.id FROM Service s
+                WHERE s.deleted = false
+                AND s.vehicle.id = :vehicleId)
+            """)
+    int cascadeDeleteByVehicleId(@Param("vehicleId") Long vehicleId, @Param("deletedAt") Instant deletedAt);
+
+    /**
+     * Restores the service types deleted by cascade of all services of a vehicle deleted by cascade,
+     * in a single statement. Must run before the services are restored.
+     *
+     * @param vehicleId the id of the vehicle being restored
+     * @return the number of restored service types
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE ServiceType st
+            SET st.deleted = false, st.deletedByCascade = false, st.deletedAt = null
+            WHERE st.deleted = true
+            AND st.deletedByCascade = true
+            AND st.service.id IN (
+                SELECT s.id FROM Service s
+                WHERE s.deleted = true
+                AND s.deletedByCascade = true
+                AND s.vehicle.id = :vehicleId)
+            """)
+    int cascadeRestoreByVehicleId(@Param("vehicleId") Long vehicleId);
 }
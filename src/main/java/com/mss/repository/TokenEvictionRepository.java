@@ -0,0 +1,52 @@
+package com.mss.repository;
+
+import com.mss.model.TokenEviction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The TokenEvictionRepository interface extends JpaRepository to inherit JPA-based CRUD methods and custom
+ * methods for reading and purging TokenEviction records.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+public interface TokenEvictionRepository extends JpaRepository<TokenEviction, Long> {
+    /**
+     * Finds the users whose cached tokens were evicted at or after the given time.
+     *
+     * @param since the earliest eviction time
+     * @return the ids of the users, each listed once
+     */
+    @Query("SELECT DISTINCT e.userId FROM TokenEviction e WHERE e.evictedAt >= :since")
+    List<Long> findUserIdsEvictedSince(@Param("since") Instant since);
+
+    /**
+     * Permanently deletes at most chunkSize evictions requested before the cutoff, in a single statement.
+     *
+     * @param cutoff    the eviction time before which evictions are deleted
+     * @param chunkSize the maximum number of evictions to be deleted
+     * @return the number of deleted evictions
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "token_evictions"))
+    @Query(value = """
+            DELETE FROM token_evictions WHERE id IN (
+                SELECT e.id FROM token_evictions e
+                WHERE e.evicted_at < :cutoff
+                ORDER BY e.id
+                LIMIT :chunkSize)
+            """, nativeQuery = true)
+    int permanentlyDeleteEvictionsBefore(@Param("cutoff") Instant cutoff, @Param("chunkSize") int chunkSize);
+}
@@ -2,11 +2,15 @@ package com.mss.repository;
 
 
 import com.mss.model.Token;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -23,25 +27,23 @@ import java.util.Optional;
 public interface TokenRepository extends JpaRepository<Token, Long> {
 
     /**
-     * Retrieves a list of valid tokens associated with a user.
+     * Revokes and expires every token of a user that is not revoked yet, in a single statement.
      *
-     * @param id the ID of the user
-     * @return a list of valid tokens
+     * @param userId the ID of the user
+     * @return the number of revoked tokens
      */
-    @Query(value = """
-            select t from Token t inner join User u\s
-            on t.user.id = u.id\s
-            where u.id = :id and (t.expired = false or t.revoked = false)\s
-            """)
-    List<Token> findAllValidTokenByUser(Long id);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Token t SET t.expired = true, t.revoked = true WHERE t.user.id = :userId AND t.revoked = false")
+    int revokeAllValidTokensByUser(@Param("userId") Long userId);
 
     /**
-     * Retrieves a token by its value.
+     * Retrieves a token by the SHA-256 digest of its value.
      *
-     * @param token the token value
+     * @param tokenHash the SHA-256 digest of the token value
      * @return an Optional containing the token, or an empty Optional if not found
      */
-    Optional<Token> findByToken(String token);
+    Optional<Token> findByTokenHash(byte[] tokenHash);
 
     /**
      * Permanently deletes a Token entity from the database by its ID.
@@ -57,20 +59,20 @@ public interface TokenRepository extends JpaRepository<Token, Long> {
     void permanentlyDeleteTokenById(Long tokenId);
 
     /**
-     * Finds all tokens where the createdAt field is older than one week.
+     * Permanently deletes at most chunkSize tokens created before the cutoff, in a single statement.
      *
-     * @param oneWeekAgo the timestamp representing one week ago
-     * @return a list of tokens created more than a week ago
-     */
-    @Query("SELECT t FROM Token t WHERE t.createdAt < :oneWeekAgo")
-    List<Token> findTokensOlderThanOneWeek(@Param("oneWeekAgo") Instant oneWeekAgo);
-
-    /**
-     * Permanently deletes a list of tokens by their IDs.
-     *
-     * @param tokenIds the list of Token IDs to be deleted.
+     * @param cutoff    the creation time before which tokens are deleted
+     * @param chunkSize the maximum number of tokens to be deleted
+     * @return the number of deleted tokens
      */
     @Modifying
-    @Query("DELETE FROM Token t WHERE t.id IN :tokenIds")
-    void deleteByIds(List<Long> tokenIds);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "token"))
+    @Query(value = """
+            DELETE FROM token WHERE id IN (
+                SELECT t.id FROM token t
+                WHERE t.created_at < :cutoff
+                ORDER BY t.id
+                LIMIT :chunkSize)
+            """, nativeQuery = true)
+    int permanentlyDeleteTokensCreatedBefore(@Param("cutoff") Instant cutoff, @Param("chunkSize") int chunkSize);
 }
@@ -1,13 +1,11 @@
 package com.mss.repository;
 
+import com.mss.dto.CursorPageDto;
 import com.mss.dto.UserFiltersQueryDto;
 import com.mss.model.User;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import lombok.Data;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
@@ -19,11 +17,9 @@ import java.util.Objects;
 @Repository
 public class UserCustomRepository {
     /**
-     * An EntityManager instance is associated with a persistence context.
-     * A persistence context is a set of entity instances in which for any
-     * persistent entity identity there is a unique entity instance.
+     * The shared repository used to read pages and count rows.
      */
-    private final EntityManager entityManager;
+    private final CriteriaPageRepository criteriaPageRepository;
 
     /**
      * Retrieves a paginated list of users based on the provided filters.
@@ -39,13 +35,42 @@ public class UserCustomRepository {
      * The page contains the list of users, pagination details, and total number of rows.
      */
     public Page<User> findFilteredUsers(UserFiltersQueryDto filters, Pageable pageable) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery cq = cb.createQuery();
-        Root<User> user = cq.from(User.class);
+        return criteriaPageRepository.findPage(User.class,
+                (cb, user) -> buildFilteredUsersPredicates(cb, user, filters),
+                (cb, user) -> List.of(cb.asc(user.get("firstname"))),
+                pageable);
+    }
+
+    /**
+     * Retrieves a keyset page of users based on the provided filters, ordered by first name and id.
+     * The filters are the same as in {@link #findFilteredUsers}.
+     *
+     * @param filters   the {@link UserFiltersQueryDto} containing the filter criteria
+     *                  for users. If any field is null, it will be ignored in the query.
+     * @param cursor    the cursor returned with the previous page, or blank for the first page
+     * @param pageSize  number of results per page
+     * @param withCount whether the total number of matching rows should be counted
+     * @return a {@link CursorPageDto} of {@link User} objects that match the filter criteria
+     */
+    public CursorPageDto<User> findFilteredUsersAfter(UserFiltersQueryDto filters, String cursor, int pageSize, boolean withCount) {
+        return criteriaPageRepository.findCursorPage(User.class,
+                (cb, user) -> buildFilteredUsersPredicates(cb, user, filters),
+                "firstname", cursor, pageSize, withCount);
+    }
+
+    /**
+     * Builds the filter predicates of {@link #findFilteredUsers}. If any field of the filters is null, it is ignored.
+     *
+     * @param cb      the criteria builder
+     * @param user    the root of the query
+     * @param filters the {@link UserFiltersQueryDto} containing the filter criteria
+     * @return a list of predicates that are combined with and
+     */
+    private List<Predicate> buildFilteredUsersPredicates(CriteriaBuilder cb, Root<User> user, UserFiltersQueryDto filters) {
         List<Predicate> predicates = new ArrayList<>();
 
         if (Objects.nonNull(filters) && Objects.nonNull(filters.getFullName())) {
-            Expression<String> fullName = cb.concat(user.get("firstname"), " ");
+            Expression<String> fullName = cb.concat(user.get("firstname"), cb.literal(" "));
             fullName = cb.concat(fullName, user.get("lastname"));
             predicates.add(cb.like(cb.lower(fullName), "%" + filters.getFullName().toLowerCase() + "%"));
         }
@@ -63,15 +88,6 @@ public class UserCustomRepository {
             predicates.add(cb.like(cb.lower(user.get("mobileNumber")), "%" + filters.getPhoneNumber() + "%"));
         }
 
-        cq.where(cb.and(predicates.toArray(new Predicate[0])));
-        cq.orderBy(cb.asc(user.get("firstname")));
-        cq.select(user).distinct(true);
-
-        TypedQuery<User> query = entityManager.createQuery(cq);
-        int totalRows = query.getResultList().size();
-        query.setFirstResult((int) pageable.getOffset());
-        query.setMaxResults(pageable.getPageSize());
-
-        return new PageImpl<>(query.getResultList(), pageable, totalRows);
+        return predicates;
     }
 }
@@ -2,7 +2,12 @@ package com.mss.repository;
 
 
 import com.mss.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -22,6 +27,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param email string containing user email
      * @return Optional of {@link User}
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
 
     /**
@@ -30,8 +36,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param userId the id of the user
      * @return an Optional containing the user if found, or empty if not
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findOneById(Long userId);
 
+    /**
+     * Find the token epoch of a user without loading the user.
+     *
+     * @param userId the id of the user
+     * @return an Optional containing the token epoch if the user exists, or empty if not
+     */
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.id = :userId")
+    Optional<Long> findTokenEpochById(@Param("userId") Long userId);
+
     /**
      * Find a user by their password code.
      *
@@ -1,13 +1,11 @@
 package com.mss.repository;
 
+import com.mss.dto.CursorPageDto;
 import com.mss.dto.VehicleFiltersQueryDto;
 import com.mss.model.Vehicle;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import lombok.Data;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
@@ -19,16 +17,43 @@ import java.util.Objects;
 @Repository
 public class VehicleCustomRepository {
     /**
-     * An EntityManager instance is associated with a persistence context.
-     * A persistence context is a set of entity instances in which for any
-     * persistent entity identity there is a unique entity instance.
+     * The shared repository used to read pages and count rows.
      */
-    private final EntityManager entityManager;
+    private final CriteriaPageRepository criteriaPageRepository;
 
-    public Page<Vehicle> findFilteredVehicles(VehicleFiltersQueryDto filters, Pageable pageable) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery cq = cb.createQuery();
-        Root<Vehicle> vehicle = cq.from(Vehicle.class);
+    public Page<Long> findFilteredVehicleIds(VehicleFiltersQueryDto filters, Pageable pageable) {
+        return criteriaPageRepository.findIdPage(Vehicle.class,
+                (cb, vehicle) -> buildFilteredVehiclesPredicates(cb, vehicle, filters),
+                (cb, vehicle) -> List.of(cb.asc(vehicle.get("manufacturer"))),
+                pageable);
+    }
+
+    /**
+     * Retrieves a keyset page of vehicles based on the provided filters, ordered by manufacturer and id.
+     * The filters are the same as in {@link #findFilteredVehicleIds}.
+     *
+     * @param filters   the {@link VehicleFiltersQueryDto} containing the filter criteria
+     *                  for vehicles. If any field is null, it will be ignored in the query.
+     * @param cursor    the cursor returned with the previous page, or blank for the first page
+     * @param pageSize  number of results per page
+     * @param withCount whether the total number of matching rows should be counted
+     * @return a {@link CursorPageDto} of ids of the vehicles that match the filter criteria
+     */
+    public CursorPageDto<Long> findFilteredVehicleIdsAfter(VehicleFiltersQueryDto filters, String cursor, int pageSize, boolean withCount) {
+        return criteriaPageRepository.findCursorIdPage(Vehicle.class,
+                (cb, vehicle) -> buildFilteredVehiclesPredicates(cb, vehicle, filters),
+                "manufacturer", cursor, pageSize, withCount);
+    }
+
+    /**
+     * Builds the filter predicates of {@link #findFilteredVehicleIds}. If any field of the filters is null, it is ignored.
+     *
+     * @param cb      the criteria builder
+     * @param vehicle the root of the query
+     * @param filters the {@link VehicleFiltersQueryDto} containing the filter criteria
+     * @return a list of predicates that are combined with and
+     */
+    private List<Predicate> buildFilteredVehiclesPredicates(CriteriaBuilder cb, Root<Vehicle> vehicle, VehicleFiltersQueryDto filters) {
         List<Predicate> predicates = new ArrayList<>();
 
         if (Objects.nonNull(filters) && Objects.nonNull(filters.getManufacturer())) {
@@ -41,11 +66,11 @@ public class VehicleCustomRepository {
 
         if (Objects.nonNull(filters) && Objects.nonNull(filters.getVehiclePlate())) {
             Expression<String> vehiclePlate = cb.lower(cb.function("regexp_replace", String.class,
-                    vehicle.get("vehiclePlate"), cb.literal("[^a-zA-Z0-9]"), cb.literal("")));
+                    vehicle.get("vehiclePlate"), cb.literal("[^a-zA-Z0-9]"), cb.literal(""), cb.literal("g")));
 
             String filterPlate = filters.getVehiclePlate().replaceAll("[^a-zA-Z0-9]", "").toLowerCase();
 
-            predicates.add(cb.like(cb.lower(vehiclePlate), "%" + filterPlate + "%"));
+            predicates.add(cb.like(vehiclePlate, "%" + filterPlate + "%"));
         }
 
         if (Objects.nonNull(filters) && Objects.nonNull(filters.getVin())) {
@@ -59,15 +84,7 @@ public class VehicleCustomRepository {
         if (Objects.nonNull(filters) && Objects.nonNull(filters.getCustomerId())) {
             predicates.add(vehicle.get("customer").get("id").in(filters.getCustomerId()));
         }
-        cq.where(cb.and(predicates.toArray(new Predicate[0])));
-        cq.orderBy(cb.asc(vehicle.get("manufacturer")));
-        cq.select(vehicle).distinct(true);
-
-        TypedQuery<Vehicle> query = entityManager.createQuery(cq);
-        int totalRows = query.getResultList().size();
-        query.setFirstResult((int) pageable.getOffset());
-        query.setMaxResults(pageable.getPageSize());
 
-        return new PageImpl<>(query.getResultList(), pageable, totalRows);
+        return predicates;
     }
 }
@@ -1,9 +1,13 @@
 package com.mss.repository;
 
 import com.mss.model.Vehicle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -39,6 +43,7 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
      * @param vin the vin number of the vehicle
      * @return an Optional containing the Vehicle if found, or empty if not
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Vehicle> findByVin(String vin);
 
     /**
@@ -47,24 +52,42 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
      * @param vehicleId the id of the vehicle
      * @return an Optional containing the vehicle if found, or empty if not
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Vehicle> findOneById(Long vehicleId);
 
     /**
-     * Finds all vehicles that are marked as deleted.
+     * Find a vehicle by its id together with its customer and its services with their users.
      *
-     * @return A list of vehicles that are marked as deleted.
+     * @param vehicleId the id of the vehicle
+     * @return an Optional containing the vehicle if found, or empty if not
      */
-    @Query("SELECT v FROM Vehicle v WHERE v.deleted = true")
-    List<Vehicle> findAllDeletedVehicles();
+    @EntityGraph(Vehicle.DETAIL_GRAPH)
+    Optional<Vehicle> findDetailById(Long vehicleId);
 
     /**
-     * Finds all vehicles that are marked as deleted and have been deleted for longer than one week.
+     * Finds all vehicles based on their deletion status.
      *
-     * @param oneWeekAgo The date and time representing one week ago.
-     * @return A list of vehicles that have been deleted for longer than one week.
+     * @param isDeleted A boolean indicating the deletion status of vehicles to be retrieved.
+     * @return A list of vehicles matching the specified deletion status.
      */
-    @Query("SELECT v FROM Vehicle v WHERE v.deleted = true AND v.deletedAt <= :oneWeekAgo")
-    List<Vehicle> findVehiclesDeletedOlderThanOneWeek(@Param("oneWeekAgo") Instant oneWeekAgo);
+    List<Vehicle> findAllByDeleted(boolean isDeleted);
+
+    /**
+     * Finds all vehicles, deleted or not, that were created or last changed at or after the given time.
+     *
+     * @param since the earliest time of change
+     * @return A list of vehicles changed since the given time.
+     */
+    @Query("SELECT v FROM Vehicle v WHERE COALESCE(v.updatedAt, v.createdAt) >= :since")
+    List<Vehicle> findAllChangedSince(@Param("since") Instant since);
+
+    /**
+     * Finds all vehicles that are marked as deleted.
+     *
+     * @return A list of vehicles that are marked as deleted.
+     */
+    @Query("SELECT v FROM Vehicle v WHERE v.deleted = true")
+    List<Vehicle> findAllDeletedVehicles();
 
     /**
      * Permanently deletes a Vehicle entity from the database by its ID.
@@ -80,12 +103,57 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     void permanentlyDeleteVehicleById(Long vehicleId);
 
     /**
-     * Permanently deletes specific Vehicle entities provided as a list.
+     * Permanently deletes at most chunkSize vehicles that have been deleted at or before the cutoff and no longer
+     * have services, in a single statement.
      *
-     * @param deletedVehicleIds The list of Vehicle IDs to be permanently deleted.
+     * @param cutoff    the latest deletion time of the vehicles to be deleted
+     * @param chunkSize the maximum number of vehicles to be deleted
+     * @return the number of deleted vehicles
      */
     @Modifying
-    @Query("DELETE FROM Vehicle v WHERE v.id IN :deletedVehicleIds")
-    void permanentlyDeleteAllDeletedVehicles(List<Long> deletedVehicleIds);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "vehicles"))
+    @Query(value = """
+            DELETE FROM vehicles WHERE id IN (
+                SELECT v.id FROM vehicles v
+                WHERE v.deleted = true
+                AND v.deleted_at <= :cutoff
+                AND NOT EXISTS (SELECT 1 FROM services s WHERE s.vehicle_id = v.id)
+                ORDER BY v.id
+                LIMIT :chunkSize)
+            """, nativeQuery = true)
+    int permanentlyDeleteDeletedVehicles(@Param("cutoff") Instant cutoff, @Param("chunkSize") int chunkSize);
+
+    /**
+     * Softly deletes, as deleted by cascade, the vehicles of a customer that are not deleted, in a single statement.
+     *
+     * @param customerId the id of the customer being deleted
+     * @param deletedAt  the deletion time
+     * @return the number of deleted vehicles
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Vehicle v
+            SET v.deleted = true, v.deletedByCascade = true, v.deletedAt = :deletedAt, v.updatedAt = :deletedAt
+            WHERE v.deleted = false
+            AND v.customer.id = :customerId
+            """)
+    int cascadeDeleteByCustomerId(@Param("customerId") Long customerId, @Param("deletedAt") Instant deletedAt);
 
+    /**
+     * Restores the vehicles of a customer deleted by cascade, in a single statement.
+     * Must run after their services and service types are restored.
+     *
+     * @param customerId the id of the customer being restored
+     * @param restoredAt the restoration time
+     * @return the number of restored vehicles
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Vehicle v
+            SET v.deleted = false, v.deletedByCascade = false, v.deletedAt = null, v.updatedAt = :restoredAt
+            WHERE v.deleted = true
+            AND v.deletedByCascade = true
+            AND v.customer.id = :customerId
+            """)
+    int cascadeRestoreByCustomerId(@Param("customerId") Long customerId, @Param("restoredAt") Instant restoredAt);
 }
@@ -0,0 +1,20 @@
+package com.mss.service;
+
+import com.mss.dto.CacheStatisticsDto;
+
+/**
+ * The CacheStatisticsService interface contains methods that will be implemented is CacheStatisticsServiceImpl and methods correlate
+ * to reporting the Hibernate second-level and query cache.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+public interface CacheStatisticsService {
+    /**
+     * A method for reading hit and miss counters of the second-level and query cache. It is implemented in CacheStatisticsServiceImpl class.
+     *
+     * @return {@link CacheStatisticsDto} with counters collected since the application started
+     */
+    CacheStatisticsDto getCacheStatistics();
+}
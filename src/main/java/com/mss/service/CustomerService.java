@@ -86,6 +86,19 @@ public interface CustomerService {
      */
     Page<CustomerDto> findFilteredCustomers(boolean isDeleted, CustomerFiltersQueryDto customerFiltersQueryDto, Integer page, Integer pageSize);
 
+    /**
+     * Retrieves a keyset page of customers that match the query, ordered by first name and id.
+     * It is implemented in CustomerServiceImpl class.
+     *
+     * @param isDeleted               boolean representing deleted objects
+     * @param customerFiltersQueryDto {@link CustomerFiltersQueryDto} object which contains query parameters
+     * @param cursor                  the cursor returned with the previous page, or blank for the first page
+     * @param pageSize                number of results per page
+     * @param withCount               whether the total number of matching rows should be counted
+     * @return a {@link CursorPageDto} of CustomerDto objects that match the specified query
+     */
+    CursorPageDto<CustomerDto> findFilteredCustomersAfter(boolean isDeleted, CustomerFiltersQueryDto customerFiltersQueryDto, String cursor, Integer pageSize, boolean withCount);
+
     /**
      * Updates an existing customer with the provided details.
      *
@@ -12,5 +12,30 @@ import jakarta.mail.MessagingException;
  */
 public interface EmailService {
 
+    /**
+     * Writes an email to the outbox. The email is part of the transaction of the caller, so it is only delivered
+     * if that transaction commits, and is delivered by a background job, so the caller never waits for the mail server.
+     *
+     * @param to      the address of the recipient
+     * @param subject the subject of the email
+     * @param text    the HTML body of the email
+     */
+    void enqueueEmail(String to, String subject, String text);
+
+    /**
+     * Delivers an email at once. Used by the background job delivering the outbox.
+     *
+     * @param to      the address of the recipient
+     * @param Subject the subject of the email
+     * @param text    the HTML body of the email
+     * @throws MessagingException if the email could not be delivered
+     */
     public void sendVerificationEmail(String to, String Subject, String text) throws MessagingException;
+
+    /**
+     * Returns emails that could not be delivered on their last allowed attempt to the outbox.
+     *
+     * @return the number of emails that will be delivered again
+     */
+    int retryUndeliveredEmails();
 }
@@ -0,0 +1,25 @@
+package com.mss.service;
+
+import com.mss.dto.SearchResultDto;
+
+import java.util.List;
+
+/**
+ * The GlobalSearchService interface contains methods that will be implemented is GlobalSearchServiceImpl and methods correlate
+ * to searching customers, vehicles, services and users at once.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+public interface GlobalSearchService {
+    /**
+     * A method for finding customers, vehicles, services and users matching a query. It is implemented in GlobalSearchServiceImpl class.
+     *
+     * @param query        the text to search for
+     * @param limitPerType the maximum number of hits of each entity type
+     * @param includeUsers whether users are searched as well
+     * @return a list of {@link SearchResultDto} objects, best match first
+     */
+    List<SearchResultDto> search(String query, Integer limitPerType, boolean includeUsers);
+}
@@ -0,0 +1,37 @@
+package com.mss.service;
+
+/**
+ * The JobHandler interface is implemented by every service that runs a type of background job.
+ * Handlers are found by {@link JobHandler#getType()} and may run again after a failure, or after their instance
+ * stopped in the middle of a job, so they should be safe to repeat.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+public interface JobHandler {
+    /**
+     * A method for naming the type of jobs run by the handler.
+     *
+     * @return the type of the jobs, unique among all handlers
+     */
+    String getType();
+
+    /**
+     * A method for running a single job. Throwing an exception fails the attempt.
+     *
+     * @param payload the input of the job, as it was enqueued
+     */
+    void handle(String payload);
+
+    /**
+     * A method for reducing the payload of a job that succeeded to what is worth keeping until the job is purged.
+     * Handlers whose payload holds secrets return a payload without them.
+     *
+     * @param payload the input of the job, as it was enqueued
+     * @return the payload kept with the succeeded job, or null to keep nothing
+     */
+    default String retainedPayload(String payload) {
+        return payload;
+    }
+}
@@ -0,0 +1,40 @@
+package com.mss.service;
+
+/**
+ * The JobService interface contains methods that will be implemented is JobServiceImpl and methods correlate
+ * to enqueuing background jobs.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+public interface JobService {
+    /**
+     * A method for enqueuing a job with the default priority. It is implemented in JobServiceImpl class.
+     *
+     * @param type    the type of the job, naming its {@link JobHandler}
+     * @param payload the input of the job
+     */
+    void enqueue(String type, String payload);
+
+    /**
+     * A method for enqueuing a job. It is implemented in JobServiceImpl class.
+     * The job becomes visible to workers once the transaction of the caller commits.
+     *
+     * @param type      the type of the job, naming its {@link JobHandler}
+     * @param payload   the input of the job
+     * @param priority  jobs with a higher priority are claimed first
+     * @param uniqueKey optional key, the job is not enqueued if a job with the same key exists
+     * @return true if the job was enqueued, false if a job with the same key exists
+     */
+    boolean enqueue(String type, String payload, int priority, String uniqueKey);
+
+    /**
+     * A method for returning jobs that failed on their last allowed attempt to the queue. It is implemented in JobServiceImpl class.
+     * The jobs start over with all of their attempts.
+     *
+     * @param type the type of the jobs
+     * @return the number of jobs returned to the queue
+     */
+    int retryFailedJobs(String type);
+}
@@ -0,0 +1,22 @@
+package com.mss.service;
+
+import com.mss.dto.JobTypeStatisticsDto;
+
+import java.util.List;
+
+/**
+ * The JobStatisticsService interface contains methods that will be implemented is JobStatisticsServiceImpl and methods correlate
+ * to reporting the background job queue.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+public interface JobStatisticsService {
+    /**
+     * A method for reading the queue counts and attempt counters of every job type. It is implemented in JobStatisticsServiceImpl class.
+     *
+     * @return list of {@link JobTypeStatisticsDto}, one for every job type that is queued or ran on this instance
+     */
+    List<JobTypeStatisticsDto> getJobStatistics();
+}
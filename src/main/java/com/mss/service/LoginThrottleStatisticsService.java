@@ -0,0 +1,20 @@
+package com.mss.service;
+
+import com.mss.dto.LoginThrottleStatisticsDto;
+
+/**
+ * The LoginThrottleStatisticsService interface contains methods that will be implemented is LoginThrottleStatisticsServiceImpl and methods correlate
+ * to reporting the throttling of login attempts.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+public interface LoginThrottleStatisticsService {
+    /**
+     * A method for reading rejected attempt and lockout counters. It is implemented in LoginThrottleStatisticsServiceImpl class.
+     *
+     * @return {@link LoginThrottleStatisticsDto} with counters collected since the application started
+     */
+    LoginThrottleStatisticsDto getLoginThrottleStatistics();
+}
@@ -0,0 +1,20 @@
+package com.mss.service;
+
+import com.mss.dto.PasswordHashingStatisticsDto;
+
+/**
+ * The PasswordHashingStatisticsService interface contains methods that will be implemented is PasswordHashingStatisticsServiceImpl and methods correlate
+ * to reporting the password hashing executor.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+public interface PasswordHashingStatisticsService {
+    /**
+     * A method for reading the queue depth and counters of the password hashing executor. It is implemented in PasswordHashingStatisticsServiceImpl class.
+     *
+     * @return {@link PasswordHashingStatisticsDto} with the current state of the executor
+     */
+    PasswordHashingStatisticsDto getPasswordHashingStatistics();
+}
@@ -1,5 +1,7 @@
 package com.mss.service;
 
+import com.mss.dto.PurgeStatisticsDto;
+
 /**
  * PermanentDeletionService interface for managing softly deleted resources.
  * The PermanentDeletionService interface contains methods that will be implemented is PermanentDeletionServiceImpl.
@@ -9,12 +11,28 @@ package com.mss.service;
  * @since 1.0
  */
 public interface PermanentDeletionService {
+    /**
+     * Enqueues the purge as a background job.
+     * <p>
+     * This method is scheduled to run as a cron job every hour (UTC/GMT+2). Every instance enqueues the job,
+     * but the job of an hour is only enqueued once, so it runs on a single instance.
+     * </p>
+     */
+    void schedulePermanentDeletion();
+
     /**
      * Permanently deletes all resources that have been softly deleted except users.
      * <p>
-     * This method is scheduled to run as a cron job every day at midnight (UTC/GMT+2).
-     * It performs the cleanup by permanently removing all resources marked as softly deleted.
+     * It performs the cleanup by permanently removing all resources marked as softly deleted,
+     * together with expired tokens and finished background jobs.
      * </p>
      */
     void permanentlyDeleteResources();
+
+    /**
+     * Reports the progress of the running purge, or the outcome of the last one.
+     *
+     * @return {@link PurgeStatisticsDto} with deleted rows, chunks and timing of every purged table
+     */
+    PurgeStatisticsDto getPurgeStatistics();
 }
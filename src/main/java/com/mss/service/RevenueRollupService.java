@@ -0,0 +1,55 @@
+package com.mss.service;
+
+import com.mss.model.DailyRevenueRollupId;
+import com.mss.model.Service;
+
+/**
+ * The RevenueRollupService interface contains methods that will be implemented is RevenueRollupServiceImpl and methods correlate
+ * to DailyRevenueRollup entity.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+public interface RevenueRollupService {
+    /**
+     * A method for resolving the rollup row a service belongs to. It is implemented in RevenueRollupServiceImpl class.
+     *
+     * @param service service with data
+     * @return the day, mechanic and customer of the service, or null if any of them is missing
+     */
+    DailyRevenueRollupId bucketOf(Service service);
+
+    /**
+     * A method for recomputing a single rollup row. It is implemented in RevenueRollupServiceImpl class.
+     *
+     * @param bucket the day, mechanic and customer to recompute, ignored if null
+     */
+    void refreshBucket(DailyRevenueRollupId bucket);
+
+    /**
+     * A method for recomputing several rollup rows in one transaction. It is implemented in RevenueRollupServiceImpl class.
+     *
+     * @param buckets the days, mechanics and customers to recompute, null entries are ignored
+     */
+    void refreshBuckets(DailyRevenueRollupId... buckets);
+
+    /**
+     * A method for recomputing the rollup row a service belongs to. It is implemented in RevenueRollupServiceImpl class.
+     *
+     * @param service service with data
+     */
+    void refreshForService(Service service);
+
+    /**
+     * A method for recomputing all rollup rows of a customer. It is implemented in RevenueRollupServiceImpl class.
+     *
+     * @param customerId the id of the customer
+     */
+    void refreshForCustomer(Long customerId);
+
+    /**
+     * A method for rebuilding the whole rollup table from scratch. It is implemented in RevenueRollupServiceImpl class.
+     */
+    void rebuild();
+}
@@ -0,0 +1,67 @@
+package com.mss.service;
+
+import com.mss.dto.SearchSuggestionDto;
+import com.mss.model.Customer;
+import com.mss.model.Vehicle;
+
+import java.util.List;
+
+/**
+ * The SearchSuggestService interface contains methods that will be implemented is SearchSuggestServiceImpl and methods correlate
+ * to type-ahead suggestions over Customer and Vehicle entities.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+public interface SearchSuggestService {
+    /**
+     * A method for finding the best matching customers and vehicles. It is implemented in SearchSuggestServiceImpl class.
+     *
+     * @param query the text typed by the user
+     * @param limit the maximum number of suggestions
+     * @return a list of {@link SearchSuggestionDto} objects, best match first
+     */
+    List<SearchSuggestionDto> suggest(String query, Integer limit);
+
+    /**
+     * A method for adding or refreshing a customer and its vehicles in the index. It is implemented in SearchSuggestServiceImpl class.
+     * Deleted customers and vehicles are removed from the index.
+     *
+     * @param customer customer with data
+     */
+    void indexCustomer(Customer customer);
+
+    /**
+     * A method for removing a customer and its vehicles from the index. It is implemented in SearchSuggestServiceImpl class.
+     *
+     * @param customer customer with data
+     */
+    void removeCustomer(Customer customer);
+
+    /**
+     * A method for adding or refreshing a vehicle in the index. It is implemented in SearchSuggestServiceImpl class.
+     * Deleted vehicles are removed from the index.
+     *
+     * @param vehicle vehicle with data
+     */
+    void indexVehicle(Vehicle vehicle);
+
+    /**
+     * A method for removing a vehicle from the index. It is implemented in SearchSuggestServiceImpl class.
+     *
+     * @param vehicleId the id of the vehicle
+     */
+    void removeVehicle(Long vehicleId);
+
+    /**
+     * A method for rebuilding the index from all customers and vehicles that are not deleted. It is implemented in SearchSuggestServiceImpl class.
+     */
+    void rebuild();
+
+    /**
+     * A method for applying the customers and vehicles changed since the previous refresh, including changes made
+     * on other nodes. It is implemented in SearchSuggestServiceImpl class.
+     */
+    void refresh();
+}
@@ -25,34 +25,16 @@ public interface ServiceService {
     long getServiceCount(boolean isDeleted);
 
     /**
-     * Counts the number of services based on their deletion status.
-     *
-     * @param isDeleted A boolean indicating the deletion status of services to be counted.
-     *                  If {@code true}, counts only deleted services.
-     *                  If {@code false}, counts only active services.
-     * @return The total number of services matching the specified deletion status.
-     */
-    Integer getServicesForCount(boolean isDeleted, TwoDateDto twoDateDto);
-
-    /**
-     * Gets the revenue based on two dates.
-     *
-     * @param isDeleted A boolean indicating the deletion status of services to be counted.
-     *                  If {@code true}, counts only deleted services.
-     *                  If {@code false}, counts only active services.
-     * @return The total number of services matching the specified deletion status.
-     */
-    double getRevenue(boolean isDeleted, TwoDateDto twoDateDto);
-
-    /**
-     * Gets the number of parts based on two dates.
+     * Gets revenue, number of parts and number of services for services started between two dates.
+     * All three values are computed by a single grouped query.
      *
-     * @param isDeleted A boolean indicating the deletion status of services to be counted.
-     *                  If {@code true}, counts only deleted services.
-     *                  If {@code false}, counts only active services.
-     * @return The total number of services matching the specified deletion status.
+     * @param isDeleted  A boolean indicating the deletion status of services to be counted.
+     *                   If {@code true}, counts only deleted services.
+     *                   If {@code false}, counts only active services.
+     * @param twoDateDto two dates for range when service could have started.
+     * @return a {@link CountsDto} containing revenue, parts and services counts.
      */
-    Integer getParts(boolean isDeleted, TwoDateDto twoDateDto);
+    CountsDto getCounts(boolean isDeleted, TwoDateDto twoDateDto);
 
     /**
      * Retrieves a list of aggregated data for generating a pie chart.
@@ -134,6 +116,19 @@ public interface ServiceService {
      */
     Page<ServiceDto> findFilteredServices(boolean isDeleted, ServiceFiltersQueryDto serviceFiltersQueryDto, Integer page, Integer pageSize);
 
+    /**
+     * Retrieves a keyset page of services that match the query, ordered by end date and id.
+     * It is implemented in ServiceServiceImpl class.
+     *
+     * @param isDeleted              boolean representing deleted objects
+     * @param serviceFiltersQueryDto {@link ServiceFiltersQueryDto} object which contains query parameters
+     * @param cursor                 the cursor returned with the previous page, or blank for the first page
+     * @param pageSize               number of results per page
+     * @param withCount              whether the total number of matching rows should be counted
+     * @return a {@link CursorPageDto} of ServiceDto objects that match the specified query
+     */
+    CursorPageDto<ServiceDto> findFilteredServicesAfter(boolean isDeleted, ServiceFiltersQueryDto serviceFiltersQueryDto, String cursor, Integer pageSize, boolean withCount);
+
     /**
      * This method first calls the serviceRepository's findFilteredServices method
      * to retrieve a Page of Service objects that match the query.
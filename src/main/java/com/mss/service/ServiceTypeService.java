@@ -48,20 +48,12 @@ public interface ServiceTypeService {
     ServiceTypeDto findServiceTypeById(Long serviceTypeId);
 
     /**
-     * Finds a revenue for service.
+     * A method for recalculating total amount and number of parts of a service from its service types.
+     * It is implemented in ServiceTypeServiceImpl class.
      *
-     * @param service service with data
-     * @return a revenue from one service
+     * @param service service with data, ignored if null
      */
-    double findRevenueForService(boolean isDeleted, Service service);
-
-    /**
-     * Finds a number of parts for service.
-     *
-     * @param service service with data
-     * @return a revenue from one service
-     */
-    Integer findNumberOfPartsForService(boolean isDeleted, Service service);
+    void recalculateServiceTotals(Service service);
 
     /**
      * A method for deleting service type. It is implemented in ServiceTypeServiceImpl class.
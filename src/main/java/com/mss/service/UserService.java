@@ -106,4 +106,17 @@ public interface UserService {
      * @return a Page of UsersDto objects that match the specified query
      */
     Page<UserDto> findFilteredUsers(boolean isDeleted, UserFiltersQueryDto userFiltersQueryDto, Integer page, Integer pageSize);
+
+    /**
+     * Retrieves a keyset page of users that match the query, ordered by first name and id.
+     * It is implemented in UserServiceImpl class.
+     *
+     * @param isDeleted           boolean representing deleted objects
+     * @param userFiltersQueryDto {@link UserFiltersQueryDto} object which contains query parameters
+     * @param cursor              the cursor returned with the previous page, or blank for the first page
+     * @param pageSize            number of results per page
+     * @param withCount           whether the total number of matching rows should be counted
+     * @return a {@link CursorPageDto} of UserDto objects that match the specified query
+     */
+    CursorPageDto<UserDto> findFilteredUsersAfter(boolean isDeleted, UserFiltersQueryDto userFiltersQueryDto, String cursor, Integer pageSize, boolean withCount);
 }
@@ -1,5 +1,6 @@
 package com.mss.service;
 
+import com.mss.dto.CursorPageDto;
 import com.mss.dto.VehicleCreateDto;
 import com.mss.dto.VehicleDto;
 import com.mss.dto.VehicleFiltersQueryDto;
@@ -83,4 +84,17 @@ public interface VehicleService {
      * @return a Page of ServiceDto objects that match the specified query
      */
     Page<VehicleDto> findFilteredVehicles(boolean isDeleted, VehicleFiltersQueryDto vehicleFiltersQueryDto, Integer page, Integer pageSize);
+
+    /**
+     * Retrieves a keyset page of vehicles that match the query, ordered by manufacturer and id.
+     * It is implemented in VehicleServiceImpl class.
+     *
+     * @param isDeleted              boolean representing deleted objects
+     * @param vehicleFiltersQueryDto {@link VehicleFiltersQueryDto} object which contains query parameters
+     * @param cursor                 the cursor returned with the previous page, or blank for the first page
+     * @param pageSize               number of results per page
+     * @param withCount              whether the total number of matching rows should be counted
+     * @return a {@link CursorPageDto} of VehicleDto objects that match the specified query
+     */
+    CursorPageDto<VehicleDto> findFilteredVehiclesAfter(boolean isDeleted, VehicleFiltersQueryDto vehicleFiltersQueryDto, String cursor, Integer pageSize, boolean withCount);
 }
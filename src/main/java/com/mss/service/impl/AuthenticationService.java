@@ -3,22 +3,21 @@ package com.mss.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mss.dto.*;
+import com.mss.enumeration.RevocationMode;
 import com.mss.enumeration.TokenType;
 import com.mss.model.Token;
 import com.mss.model.User;
 import com.mss.repository.TokenRepository;
 import com.mss.repository.UserRepository;
-import jakarta.mail.MessagingException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
@@ -47,6 +46,21 @@ public class AuthenticationService {
      */
     private final TokenRepository tokenRepository;
 
+    /**
+     * Evicts cached tokens on every instance when tokens of a user are revoked.
+     */
+    private final TokenEvictionService tokenEvictionService;
+
+    /**
+     * Service used to revoke tokens by token epoch.
+     */
+    private final TokenEpochService tokenEpochService;
+
+    /**
+     * Throttles attempts per email and client address before any database read or password hash.
+     */
+    private final LoginThrottle loginThrottle;
+
     /**
      * Service interface for encoding passwords. The preferred implementation is BCryptPasswordEncoder.
      */
@@ -57,11 +71,6 @@ public class AuthenticationService {
      */
     private final com.mss.service.impl.JwtService jwtService;
 
-    /**
-     * Processes an Authentication request.
-     */
-    private final AuthenticationManager authenticationManager;
-
     /**
      * The Service used to send email.
      */
@@ -80,13 +89,21 @@ public class AuthenticationService {
     @Value("${spring.frontend.url}")
     private String frontendUrl;
 
+    /**
+     * How tokens are revoked, by the token table or by the token epoch of the user.
+     */
+    @Value("${application.security.revocation-mode}")
+    private RevocationMode revocationMode;
+
 
     /**
-     * Registers a new user.
+     * Registers a new user. The verification email is written to the outbox together with the user,
+     * so it is only delivered once the user is saved.
      *
      * @param request the registration request data
      * @return the authentication response containing the access token and refresh token
      */
+    @Transactional
     public AuthenticationResponseDto register(@Valid RegisterRequestDto request) throws UnsupportedEncodingException {
         var user = User.builder()
                 .firstname(request.getFirstname())
@@ -103,8 +120,8 @@ public class AuthenticationService {
         user.setVerificationCode(passwordEncoder.encode(token));
         user.setVerificationExpiration(LocalDateTime.now().plusHours(3));
         user.setEnabled(false);
-        sendVerificationEmail(token, user.getEmail());
         var savedUser = repository.save(user);
+        sendVerificationEmail(token, user.getEmail());
         var jwtToken = jwtService.generateToken(user);
         var refreshToken = jwtService.generateRefreshToken(user);
         saveUserToken(savedUser, jwtToken);
@@ -114,7 +131,10 @@ public class AuthenticationService {
                 .build();
     }
 
+    @Transactional
     public void setPasswordResetCode(EmailRequestDto emailRequestDto) throws UnsupportedEncodingException {
+        loginThrottle.acquire(emailRequestDto.getEmail());
+
         User user = repository.findByEmail(emailRequestDto.getEmail())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, " User doesn't exist"));
 
@@ -148,9 +168,9 @@ public class AuthenticationService {
         user.setPasswordCodeExpiration(null);
         repository.save(user);
 
+        revokeAllUserTokens(user);
         var jwtToken = jwtService.generateToken(user);
         var refreshToken = jwtService.generateRefreshToken(user);
-        revokeAllUserTokens(user);
         saveUserToken(user, jwtToken);
 
         return AuthenticationResponseDto.builder()
@@ -160,33 +180,35 @@ public class AuthenticationService {
     }
 
     /**
-     * Authenticates a user.
+     * Authenticates a user. The password is verified exactly once, and only for attempts let through by
+     * {@link LoginThrottle}.
      *
      * @param request the authentication request data
      * @return the authentication response containing the access token and refresh token
      */
     public AuthenticationResponseDto authenticate(AuthenticationRequestDto request) {
+        loginThrottle.acquire(request.getEmail());
+
         var user = repository.findByEmail(request.getEmail())
                 .orElseThrow();
 
         if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            loginThrottle.recordFailure(request.getEmail());
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid email or password");
         }
+        loginThrottle.recordSuccess(request.getEmail());
 
         if (!user.isEnabled()) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, " Account is not verified");
         }
 
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
+        if (!user.isAccountNonLocked()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, " Account is locked");
+        }
 
+        revokeAllUserTokens(user);
         var jwtToken = jwtService.generateToken(user);
         var refreshToken = jwtService.generateRefreshToken(user);
-        revokeAllUserTokens(user);
         saveUserToken(user, jwtToken);
 
         return AuthenticationResponseDto.builder()
@@ -196,15 +218,19 @@ public class AuthenticationService {
     }
 
     /**
-     * Saves a user token.
+     * Saves a user token. Tokens are not stored when they are revoked by epoch.
      *
      * @param user     the user associated with the token
      * @param jwtToken the JWT token to be saved
      */
     private void saveUserToken(User user, String jwtToken) {
+        if (revocationMode == RevocationMode.EPOCH) {
+            return;
+        }
+
         var token = Token.builder()
                 .user(user)
-                .token(jwtToken)
+                .tokenHash(jwtService.hash(jwtToken))
                 .tokenType(TokenType.BEARER)
                 .expired(false)
                 .revoked(false)
@@ -213,23 +239,24 @@ public class AuthenticationService {
     }
 
     /**
-     * Revokes all tokens associated with a user.
+     * Revokes all tokens associated with a user, either in the token table or by advancing the token epoch
+     * of the user. Tokens issued afterwards carry the new epoch.
      *
      * @param user the user whose tokens should be revoked
      */
     private void revokeAllUserTokens(User user) {
-        var validUserTokens = tokenRepository.findAllValidTokenByUser(user.getId());
-        if (validUserTokens.isEmpty())
+        tokenEvictionService.evictUser(user.getId());
+        if (revocationMode == RevocationMode.EPOCH) {
+            tokenEpochService.revokeAll(user);
             return;
-        validUserTokens.forEach(token -> {
-            token.setExpired(true);
-            token.setRevoked(true);
-        });
-        tokenRepository.saveAll(validUserTokens);
+        }
+        tokenRepository.revokeAllValidTokensByUser(user.getId());
     }
 
     /**
-     * Refreshes the access token.
+     * Refreshes the access token. When tokens are revoked by epoch the refresh token has to carry the
+     * current epoch, and earlier access tokens stay valid until they expire, so the returned refresh token
+     * keeps working.
      *
      * @param request  the HTTP request
      * @param response the HTTP response
@@ -243,13 +270,17 @@ public class AuthenticationService {
             return;
         }
         refreshToken = refreshHeader.substring(7);
-        userEmail = jwtService.extractUsername(refreshToken);
+        var claims = jwtService.parseAndValidate(refreshToken);
+        userEmail = claims.username();
 
         if (userEmail != null) {
             var user = this.repository.findByEmail(userEmail).orElseThrow();
-            if (jwtService.isTokenValid(refreshToken, user)) {
+            if (claims.isValidFor(user) && (revocationMode == RevocationMode.TABLE
+                    || tokenEpochService.isCurrent(user.getId(), claims.epoch()))) {
                 var accessToken = jwtService.generateToken(user);
-                revokeAllUserTokens(user);
+                if (revocationMode == RevocationMode.TABLE) {
+                    revokeAllUserTokens(user);
+                }
                 saveUserToken(user, accessToken);
                 var authResponse = AuthenticationResponseDto.builder()
                         .accessToken(accessToken)
@@ -281,9 +312,9 @@ public class AuthenticationService {
         user.setVerificationExpiration(null);
         repository.save(user);
 
+        revokeAllUserTokens(user);
         var jwtToken = jwtService.generateToken(user);
         var refreshToken = jwtService.generateRefreshToken(user);
-        revokeAllUserTokens(user);
         saveUserToken(user, jwtToken);
 
         return AuthenticationResponseDto.builder()
@@ -292,7 +323,10 @@ public class AuthenticationService {
                 .build();
     }
 
+    @Transactional
     public void resendVerificationCode(String email) throws UnsupportedEncodingException {
+        loginThrottle.acquire(email);
+
         User user = repository.findByEmail(email)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, " User doesn't exist"));
 
@@ -303,8 +337,8 @@ public class AuthenticationService {
         String token = generateVerificationCode();
         user.setVerificationCode(passwordEncoder.encode(token));
         user.setVerificationExpiration(LocalDateTime.now().plusHours(3));
-        sendVerificationEmail(token, user.getEmail());
         repository.save(user);
+        sendVerificationEmail(token, user.getEmail());
     }
 
     public void sendVerificationEmail(String token, String email) throws UnsupportedEncodingException {
@@ -408,11 +442,7 @@ public class AuthenticationService {
                 </html>
                 """.formatted(verificationLink);
 
-        try {
-            emailService.sendVerificationEmail(email, subject, htmlMessage);
-        } catch (MessagingException e) {
-            e.printStackTrace();
-        }
+        emailService.enqueueEmail(email, subject, htmlMessage);
     }
 
     public void sendResetPasswordLink(String email, String generatedToken) throws UnsupportedEncodingException {
@@ -453,12 +483,7 @@ public class AuthenticationService {
                 </html>
                 """.formatted(email, resetLink);
 
-        try {
-            emailService.sendVerificationEmail(user.getEmail(), subject, htmlMessage);
-        } catch (MessagingException e) {
-            e.printStackTrace();
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to send email");
-        }
+        emailService.enqueueEmail(user.getEmail(), subject, htmlMessage);
     }
 
     public static String generateVerificationCode() {
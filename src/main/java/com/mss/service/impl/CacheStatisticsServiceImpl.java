@@ -0,0 +1,64 @@
+package com.mss.service.impl;
+
+import com.mss.dto.CacheRegionStatisticsDto;
+import com.mss.dto.CacheStatisticsDto;
+import com.mss.service.CacheStatisticsService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The CacheStatisticsServiceImpl implements CacheStatisticsService and
+ * reads counters from Hibernate statistics. They are collected only when the {@code hibernate-statistics}
+ * property enables {@code hibernate.generate_statistics}, which is off by default.
+ * Regions holding query results are reported by their query cache counters, all other regions by their entity
+ * and collection counters.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@org.springframework.stereotype.Service
+@RequiredArgsConstructor
+public class CacheStatisticsServiceImpl implements CacheStatisticsService {
+    /**
+     * The factory whose statistics are reported.
+     */
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * @return {@link CacheStatisticsDto} with counters collected since the application started
+     * @throws ResponseStatusException if Hibernate statistics are not collected
+     */
+    @Override
+    public CacheStatisticsDto getCacheStatistics() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Cache statistics are disabled.");
+        }
+
+        List<CacheRegionStatisticsDto> regions = new ArrayList<>();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = sessionFactory.getCache().getRegion(regionName) instanceof QueryResultsRegion
+                    ? statistics.getQueryRegionStatistics(regionName)
+                    : statistics.getDomainDataRegionStatistics(regionName);
+            regions.add(new CacheRegionStatisticsDto(regionName, region.getHitCount(), region.getMissCount(), region.getPutCount()));
+        }
+
+        return new CacheStatisticsDto(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(), regions);
+    }
+}
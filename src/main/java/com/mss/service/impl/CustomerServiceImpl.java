@@ -1,14 +1,15 @@
 package com.mss.service.impl;
 
+import com.mss.dto.CursorPageDto;
 import com.mss.dto.CustomerCreateDto;
 import com.mss.dto.CustomerDto;
 import com.mss.dto.CustomerFiltersQueryDto;
 import com.mss.dto.CustomerUpdateDto;
 import com.mss.mapper.CustomerMapper;
 import com.mss.model.Customer;
-import com.mss.model.ServiceType;
-import com.mss.model.Vehicle;
 import com.mss.repository.*;
+import com.mss.service.RevenueRollupService;
+import com.mss.service.SearchSuggestService;
 import com.mss.service.CustomerService;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
@@ -63,6 +64,21 @@ public class CustomerServiceImpl implements CustomerService {
      */
     private final CustomerCustomRepository customerCustomRepository;
 
+    /**
+     * The repository used to read list DTOs without loading entities.
+     */
+    private final ProjectionRepository projectionRepository;
+
+    /**
+     * The service used to keep pre-aggregated revenue data current.
+     */
+    private final RevenueRollupService revenueRollupService;
+
+    /**
+     * The service used to keep type-ahead suggestions current.
+     */
+    private final SearchSuggestService searchSuggestService;
+
     /**
      * The mapper used to convert customer data between CustomerDto and Customer entities.
      */
@@ -99,13 +115,7 @@ public class CustomerServiceImpl implements CustomerService {
      */
     @Override
     public List<CustomerDto> getAllCustomers(boolean isDeleted) {
-        Session session = entityManager.unwrap(Session.class);
-        Filter filter = session.enableFilter(CUSTOMER_FILTER);
-        filter.setParameter("isDeleted", isDeleted);
-        List<Customer> customers = customerRepository.findAll();
-        session.disableFilter(CUSTOMER_FILTER);
-
-        return customerMapper.customersToCustomerDtos(customers);
+        return projectionRepository.findCustomers(isDeleted);
     }
 
     /**
@@ -140,6 +150,7 @@ public class CustomerServiceImpl implements CustomerService {
                     throw new ResponseStatusException(HttpStatus.CONFLICT, "Customer with that phone number already exists.");
                 });
         Customer customer = customerRepository.save((customerMapper.customerCreateDtoToCustomer(customerCreateDto)));
+        searchSuggestService.indexCustomer(customer);
 
         return customerMapper.customerToCustomerDto(customer);
     }
@@ -190,7 +201,7 @@ public class CustomerServiceImpl implements CustomerService {
      */
     @Transactional
     public void deleteCustomer(Long customerId) {
-        customerRepository.findById(customerId)
+        Customer deletedCustomer = customerRepository.findById(customerId)
                 .map(customer -> {
                     if (Boolean.TRUE.equals(customer.getDeleted())) {
                         throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer is already deleted.");
@@ -198,37 +209,20 @@ public class CustomerServiceImpl implements CustomerService {
 
                     Instant now = Instant.now();
 
-                    for (Vehicle vehicle : customer.getVehicles()) {
-                        if (Boolean.FALSE.equals(vehicle.getDeleted()) && Boolean.FALSE.equals(vehicle.getDeletedByCascade())) {
-
-                            for (com.mss.model.Service service : vehicle.getServices()) {
-                                if (Boolean.FALSE.equals(service.getDeleted()) && Boolean.FALSE.equals(service.getDeletedByCascade())) {
-
-                                    for (ServiceType serviceType : service.getServiceTypes()) {
-                                        if (Boolean.FALSE.equals(serviceType.getDeleted()) && Boolean.FALSE.equals(serviceType.getDeletedByCascade())) {
-                                            serviceType.setDeletedByCascade(true);
-                                            serviceType.setDeletedAt(now);
-                                            serviceTypeRepository.save(serviceType);
-                                        }
-                                    }
-                                    service.setDeletedByCascade(true);
-                                    service.setDeletedAt(now);
-                                    serviceRepository.save(service);
-                                }
-                            }
-                            vehicle.setDeletedByCascade(true);
-                            vehicle.setDeletedAt(now);
-                            vehicleRepository.save(vehicle);
-                        }
-                    }
+                    serviceTypeRepository.cascadeDeleteByCustomerId(customerId, now);
+                    serviceRepository.cascadeDeleteByCustomerId(customerId, now);
+                    vehicleRepository.cascadeDeleteByCustomerId(customerId, now);
 
+                    customer.setDeleted(true);
                     customer.setDeletedAt(now);
+                    customer.setUpdatedAt(now);
                     entityManager.flush();
                     return customer;
                 })
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer is not found."));
 
-        customerRepository.deleteById(customerId);
+        revenueRollupService.refreshForCustomer(customerId);
+        searchSuggestService.removeCustomer(deletedCustomer);
     }
 
     /**
@@ -251,16 +245,42 @@ public class CustomerServiceImpl implements CustomerService {
         Filter filter = session.enableFilter(CUSTOMER_FILTER);
         filter.setParameter("isDeleted", isDeleted);
 
-        Page<Customer> resultPage = customerCustomRepository.findFilteredCustomers(customerFiltersQueryDto, PageRequest.of(page, pageSize));
-        List<Customer> customers = resultPage.getContent();
+        Page<Long> resultPage = customerCustomRepository.findFilteredCustomerIds(customerFiltersQueryDto, PageRequest.of(page, pageSize));
 
         session.disableFilter(CUSTOMER_FILTER);
 
-        List<CustomerDto> customerDtos = customerMapper.customersToCustomerDtos(customers);
+        List<CustomerDto> customerDtos = projectionRepository.findCustomersByIds(resultPage.getContent());
 
         return new PageImpl<>(customerDtos, resultPage.getPageable(), resultPage.getTotalElements());
     }
 
+    /**
+     * Retrieves a keyset page of customers based on the provided filters and deletion status.
+     * Instead of an offset, the page starts right after the row encoded in the cursor,
+     * so deep pages cost the same as the first one.
+     *
+     * @param isDeleted               a boolean indicating whether to include deleted customers in the results.
+     * @param customerFiltersQueryDto the {@link CustomerFiltersQueryDto} containing the filter criteria for customers.
+     * @param cursor                  the cursor returned with the previous page, or blank for the first page.
+     * @param pageSize                the size of each page.
+     * @param withCount               whether the total number of matching rows should be counted.
+     * @return a {@link CursorPageDto} of {@link CustomerDto} objects with the cursor of the next page.
+     */
+    @Override
+    public CursorPageDto<CustomerDto> findFilteredCustomersAfter(boolean isDeleted, CustomerFiltersQueryDto customerFiltersQueryDto, String cursor, Integer pageSize, boolean withCount) {
+        Session session = entityManager.unwrap(Session.class);
+        Filter filter = session.enableFilter(CUSTOMER_FILTER);
+        filter.setParameter("isDeleted", isDeleted);
+
+        CursorPageDto<Long> resultPage = customerCustomRepository.findFilteredCustomerIdsAfter(customerFiltersQueryDto, cursor, pageSize, withCount);
+
+        session.disableFilter(CUSTOMER_FILTER);
+
+        List<CustomerDto> customerDtos = projectionRepository.findCustomersByIds(resultPage.getContent());
+
+        return new CursorPageDto<>(customerDtos, resultPage.getNextCursor(), resultPage.getTotalElements());
+    }
+
     /**
      * Updates the details of an existing customer based on the provided {@link CustomerUpdateDto}.
      *
@@ -291,36 +311,15 @@ public class CustomerServiceImpl implements CustomerService {
             customer.setDeletedAt(null);
         }
 
-        for (Vehicle vehicle : customer.getVehicles()) {
-            if (Boolean.TRUE.equals(vehicle.getDeletedByCascade()) && Boolean.TRUE.equals(vehicle.getDeleted())) {
-                vehicle.setDeleted(false);
-                vehicle.setDeletedByCascade(false);
-                vehicle.setDeletedAt(null);
-
-                for (com.mss.model.Service service : vehicle.getServices()) {
-                    if (Boolean.TRUE.equals(service.getDeletedByCascade()) && Boolean.TRUE.equals(service.getDeleted())) {
-                        service.setDeleted(false);
-                        service.setDeletedByCascade(false);
-                        service.setDeletedAt(null);
-
-                        for (ServiceType serviceType : service.getServiceTypes()) {
-                            if (Boolean.TRUE.equals(serviceType.getDeletedByCascade()) && Boolean.TRUE.equals(serviceType.getDeleted())) {
-                                serviceType.setDeleted(false);
-                                serviceType.setDeletedByCascade(false);
-                                serviceType.setDeletedAt(null);
-                                serviceTypeRepository.save(serviceType);
-                            }
-                        }
-                        serviceRepository.save(service);
-                    }
-                }
-                vehicleRepository.save(vehicle);
-            }
-        }
+        serviceTypeRepository.cascadeRestoreByCustomerId(customer.getId());
+        serviceRepository.cascadeRestoreByCustomerId(customer.getId());
+        vehicleRepository.cascadeRestoreByCustomerId(customer.getId(), customer.getUpdatedAt());
 
         customerRepository.save(customer);
         entityManager.flush();
 
+        revenueRollupService.refreshForCustomer(customer.getId());
+        searchSuggestService.indexCustomer(customer);
 
         return customerMapper.customerToCustomerDto(customer);
     }
@@ -1,19 +1,71 @@
 package com.mss.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mss.dto.EmailMessageDto;
 import com.mss.service.EmailService;
+import com.mss.service.JobHandler;
+import com.mss.service.JobService;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+/**
+ * The EmailServiceImpl implements EmailService and delivers outbound email through an outbox.
+ * The outbox is the job queue: every email is enqueued as a job in the transaction of the caller,
+ * and this service runs those jobs as their {@link JobHandler}. Failed deliveries are retried with backoff,
+ * and emails that fail on their last allowed attempt are kept as failed jobs until they are retried or purged.
+ * Once an email is delivered only its recipient and subject are kept, so verification and reset links do not
+ * stay in the database.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
 @Service
 @RequiredArgsConstructor
-public class EmailServiceImpl implements EmailService {
+public class EmailServiceImpl implements EmailService, JobHandler {
+    /**
+     * The type of the jobs delivering emails.
+     */
+    private static final String EMAIL_JOB = "send-email";
+
+    /**
+     * The priority of emails, above background maintenance, since users are waiting for them.
+     */
+    private static final int EMAIL_PRIORITY = 10;
 
     private final JavaMailSender emailSender;
 
+    /**
+     * Sends emails over kept connections to the mail server.
+     */
+    private final SmtpTransportPool smtpTransportPool;
+
+    /**
+     * The service used to enqueue and retry email jobs.
+     */
+    private final JobService jobService;
+
+    /**
+     * Writes and reads the payload of email jobs.
+     */
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void enqueueEmail(String to, String subject, String text) {
+        try {
+            jobService.enqueue(EMAIL_JOB, objectMapper.writeValueAsString(new EmailMessageDto(to, subject, text)),
+                    EMAIL_PRIORITY, null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Email could not be written to the outbox", e);
+        }
+    }
+
     @Override
     public void sendVerificationEmail(String to, String subject, String text) throws MessagingException{
         MimeMessage message = emailSender.createMimeMessage();
@@ -23,6 +75,52 @@ public class EmailServiceImpl implements EmailService {
         helper.setSubject(subject);
         helper.setText(text, true);
 
-        emailSender.send(message);
+        smtpTransportPool.send(message);
+    }
+
+    @Override
+    public int retryUndeliveredEmails() {
+        return jobService.retryFailedJobs(EMAIL_JOB);
+    }
+
+    /**
+     * @return the type of the jobs delivering emails
+     */
+    @Override
+    public String getType() {
+        return EMAIL_JOB;
+    }
+
+    /**
+     * Delivers an email from the outbox.
+     *
+     * @param payload the email, as written by {@link #enqueueEmail(String, String, String)}
+     */
+    @Override
+    public void handle(String payload) {
+        try {
+            EmailMessageDto email = objectMapper.readValue(payload, EmailMessageDto.class);
+            sendVerificationEmail(email.getTo(), email.getSubject(), email.getText());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Email in the outbox could not be read", e);
+        } catch (MessagingException e) {
+            throw new MailSendException("Email could not be delivered: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Drops the body of a delivered email, which may hold verification or reset links.
+     *
+     * @param payload the email, as written by {@link #enqueueEmail(String, String, String)}
+     * @return the email without its body
+     */
+    @Override
+    public String retainedPayload(String payload) {
+        try {
+            EmailMessageDto email = objectMapper.readValue(payload, EmailMessageDto.class);
+            return objectMapper.writeValueAsString(new EmailMessageDto(email.getTo(), email.getSubject(), null));
+        } catch (JsonProcessingException e) {
+            return null;
+        }
     }
 }
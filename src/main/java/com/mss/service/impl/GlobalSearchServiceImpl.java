@@ -0,0 +1,163 @@
+package com.mss.service.impl;
+
+import com.mss.dto.SearchResultDto;
+import com.mss.dto.SearchTermsDto;
+import com.mss.repository.GlobalSearchRepository;
+import com.mss.service.GlobalSearchService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * The GlobalSearchServiceImpl implements GlobalSearchService and
+ * all methods that are in GlobalSearchRepository.
+ * The query is normalized once, every entity type is searched on its own thread and the hits are merged
+ * and ranked in memory. No entity type is counted.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@org.springframework.stereotype.Service
+public class GlobalSearchServiceImpl implements GlobalSearchService {
+    /**
+     * The repository used to search every entity type.
+     */
+    private final GlobalSearchRepository globalSearchRepository;
+
+    /**
+     * The executor running the search of each entity type.
+     */
+    private final ThreadPoolTaskExecutor searchExecutor;
+
+    /**
+     * Shortest query that is searched, trigram indexes can not serve anything shorter.
+     */
+    private static final int MIN_QUERY_LENGTH = 3;
+
+    /**
+     * Number of hits per entity type returned when no limit is given.
+     */
+    private static final int DEFAULT_LIMIT_PER_TYPE = 5;
+
+    /**
+     * Largest number of hits per entity type a single request can ask for.
+     */
+    private static final int MAX_LIMIT_PER_TYPE = 20;
+
+    /**
+     * Order of entity types for hits of the same rank.
+     */
+    private static final List<String> TYPE_ORDER = List.of("CUSTOMER", "VEHICLE", "SERVICE", "USER");
+
+    /**
+     * Creates the service.
+     *
+     * @param globalSearchRepository the repository used to search every entity type
+     * @param searchExecutor         the executor running the search of each entity type
+     */
+    public GlobalSearchServiceImpl(GlobalSearchRepository globalSearchRepository,
+                                   @Qualifier("searchExecutor") ThreadPoolTaskExecutor searchExecutor) {
+        this.globalSearchRepository = globalSearchRepository;
+        this.searchExecutor = searchExecutor;
+    }
+
+    /**
+     * Searches customers, vehicles, services and optionally users in parallel and merges the hits.
+     * Hits whose label starts with the query rank first, then hits where a word of the label starts with it,
+     * then hits that contain it anywhere, then hits that matched another field.
+     *
+     * @param query        the text to search for
+     * @param limitPerType the maximum number of hits of each entity type, defaults to 5 and is capped at 20
+     * @param includeUsers whether users are searched as well
+     * @return a list of {@link SearchResultDto} objects, best match first, empty for queries shorter than three characters
+     */
+    @Override
+    public List<SearchResultDto> search(String query, Integer limitPerType, boolean includeUsers) {
+        SearchTermsDto terms = normalize(query);
+        if (terms == null) {
+            return List.of();
+        }
+
+        int limit = limitPerType == null || limitPerType <= 0 ? DEFAULT_LIMIT_PER_TYPE : Math.min(limitPerType, MAX_LIMIT_PER_TYPE);
+
+        List<CompletableFuture<List<SearchResultDto>>> searches = new ArrayList<>();
+        searches.add(async(() -> globalSearchRepository.searchCustomers(terms, limit)));
+        searches.add(async(() -> globalSearchRepository.searchVehicles(terms, limit)));
+        searches.add(async(() -> globalSearchRepository.searchServices(terms, limit)));
+        if (includeUsers) {
+            searches.add(async(() -> globalSearchRepository.searchUsers(terms, limit)));
+        }
+
+        List<SearchResultDto> results = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<SearchResultDto>> search : searches) {
+                results.addAll(search.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        results.sort(Comparator.<SearchResultDto>comparingInt(result -> rank(result.getLabel(), terms.getTerm()))
+                .thenComparingInt(result -> TYPE_ORDER.indexOf(result.getType()))
+                .thenComparingInt(result -> result.getLabel() == null ? Integer.MAX_VALUE : result.getLabel().length()));
+
+        return results;
+    }
+
+    /**
+     * Builds the LIKE patterns of a query once for all entity types. Phone numbers are matched by digits only
+     * and license plates by letters and digits only, the same way the entity search endpoints do.
+     *
+     * @return the patterns, or null if the query is shorter than three characters
+     */
+    private static SearchTermsDto normalize(String query) {
+        if (query == null) {
+            return null;
+        }
+
+        String term = query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (term.length() < MIN_QUERY_LENGTH) {
+            return null;
+        }
+
+        String digits = term.replaceAll("[^0-9]", "");
+        String compact = term.replaceAll("[^a-z0-9]", "");
+
+        return new SearchTermsDto(term,
+                "%" + term + "%",
+                term + "%",
+                digits.length() < MIN_QUERY_LENGTH ? null : "%" + digits + "%",
+                compact.length() < MIN_QUERY_LENGTH ? null : "%" + compact + "%");
+    }
+
+    private static int rank(String label, String term) {
+        if (label == null) {
+            return 3;
+        }
+
+        int index = label.toLowerCase(Locale.ROOT).indexOf(term);
+        if (index == 0) {
+            return 0;
+        }
+        if (index > 0 && !Character.isLetterOrDigit(label.charAt(index - 1))) {
+            return 1;
+        }
+
+        return index > 0 ? 2 : 3;
+    }
+
+    private CompletableFuture<List<SearchResultDto>> async(Supplier<List<SearchResultDto>> search) {
+        return CompletableFuture.supplyAsync(search, searchExecutor);
+    }
+}
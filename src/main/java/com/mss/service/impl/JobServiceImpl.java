@@ -0,0 +1,64 @@
+package com.mss.service.impl;
+
+import com.mss.repository.JobRepository;
+import com.mss.service.JobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * The JobServiceImpl implements JobService and
+ * enqueues background jobs in the persistent job queue, from which {@link JobWorker} runs them.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@org.springframework.stereotype.Service
+@RequiredArgsConstructor
+public class JobServiceImpl implements JobService {
+    /**
+     * The priority of jobs enqueued without one.
+     */
+    private static final int DEFAULT_PRIORITY = 0;
+
+    /**
+     * The repository used to enqueue jobs.
+     */
+    private final JobRepository jobRepository;
+
+    /**
+     * How many times a job may be claimed before it is marked as failed.
+     */
+    @Value("${application.jobs.max-attempts}")
+    private int maxAttempts;
+
+    /**
+     * @param type    the type of the job, naming its handler
+     * @param payload the input of the job
+     */
+    @Override
+    public void enqueue(String type, String payload) {
+        enqueue(type, payload, DEFAULT_PRIORITY, null);
+    }
+
+    /**
+     * @param type      the type of the job, naming its handler
+     * @param payload   the input of the job
+     * @param priority  jobs with a higher priority are claimed first
+     * @param uniqueKey optional key, the job is not enqueued if a job with the same key exists
+     * @return true if the job was enqueued, false if a job with the same key exists
+     */
+    @Override
+    public boolean enqueue(String type, String payload, int priority, String uniqueKey) {
+        return jobRepository.enqueue(type, payload, priority, maxAttempts, uniqueKey) == 1;
+    }
+
+    /**
+     * @param type the type of the jobs
+     * @return the number of jobs returned to the queue
+     */
+    @Override
+    public int retryFailedJobs(String type) {
+        return jobRepository.retryFailed(type);
+    }
+}
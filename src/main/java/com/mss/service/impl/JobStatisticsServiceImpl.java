@@ -0,0 +1,38 @@
+package com.mss.service.impl;
+
+import com.mss.dto.JobTypeStatisticsDto;
+import com.mss.repository.JobRepository;
+import com.mss.service.JobStatisticsService;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The JobStatisticsServiceImpl implements JobStatisticsService and
+ * combines the queue counts of every job type with the attempt counters of {@link JobWorker}.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@org.springframework.stereotype.Service
+@RequiredArgsConstructor
+public class JobStatisticsServiceImpl implements JobStatisticsService {
+    /**
+     * The repository used to count queued jobs.
+     */
+    private final JobRepository jobRepository;
+
+    /**
+     * The worker whose counters are reported.
+     */
+    private final JobWorker jobWorker;
+
+    /**
+     * @return list of {@link JobTypeStatisticsDto} with queue counts and the counters collected since the application started
+     */
+    @Override
+    public List<JobTypeStatisticsDto> getJobStatistics() {
+        return jobWorker.getStatistics(jobRepository.countJobsByType());
+    }
+}
@@ -0,0 +1,265 @@
+package com.mss.service.impl;
+
+import com.mss.dto.JobTypeStatisticsDto;
+import com.mss.enumeration.JobStatus;
+import com.mss.model.Job;
+import com.mss.repository.JobRepository;
+import com.mss.service.JobHandler;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class running jobs from the persistent job queue. Every poll claims as many due jobs as there are free
+ * threads in the job executor and hands each one to the {@link JobHandler} of its type. Claims are leases: while jobs
+ * are running every poll extends them, and jobs whose lease expired because their instance stopped are put back into
+ * the queue by the next poll of any instance. Failed attempts are retried with exponential backoff until the job
+ * runs out of attempts.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class JobWorker {
+    /**
+     * The longest error message stored with a failed attempt.
+     */
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    /**
+     * The repository used to claim and finish jobs.
+     */
+    private final JobRepository jobRepository;
+
+    /**
+     * Runs claimed jobs.
+     */
+    private final AsyncTaskExecutor jobExecutor;
+
+    /**
+     * The handlers of every job type, by type.
+     */
+    private final Map<String, JobHandler> handlers;
+
+    /**
+     * The maximum number of jobs running on this instance at the same time.
+     */
+    private final int threads;
+
+    /**
+     * How long a claim lasts without a heartbeat, in milliseconds.
+     */
+    private final long leaseMillis;
+
+    /**
+     * How long to wait before the first retry, in milliseconds. Doubled with every further attempt.
+     */
+    private final long backoffMillis;
+
+    /**
+     * The longest wait before a retry, in milliseconds.
+     */
+    private final long maxBackoffMillis;
+
+    /**
+     * Identifies this instance as the owner of its claims.
+     */
+    private final String owner;
+
+    /**
+     * The number of claimed jobs that have not finished yet.
+     */
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * Attempt counters of this instance, by job type.
+     */
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Set once the application is stopping, after which no more jobs are claimed.
+     */
+    private volatile boolean stopping;
+
+    /**
+     * Creates the worker.
+     *
+     * @param jobRepository    the repository used to claim and finish jobs
+     * @param jobExecutor      runs claimed jobs
+     * @param handlers         the handlers of every job type
+     * @param threads          the maximum number of jobs running on this instance at the same time
+     * @param leaseMillis      how long a claim lasts without a heartbeat, in milliseconds
+     * @param backoffMillis    how long to wait before the first retry, in milliseconds
+     * @param maxBackoffMillis the longest wait before a retry, in milliseconds
+     */
+    public JobWorker(JobRepository jobRepository,
+                     @Qualifier("jobExecutor") AsyncTaskExecutor jobExecutor,
+                     List<JobHandler> handlers,
+                     @Value("${application.jobs.threads}") int threads,
+                     @Value("${application.jobs.lease}") long leaseMillis,
+                     @Value("${application.jobs.backoff}") long backoffMillis,
+                     @Value("${application.jobs.max-backoff}") long maxBackoffMillis) {
+        this.jobRepository = jobRepository;
+        this.jobExecutor = jobExecutor;
+        this.handlers = handlers.stream().collect(Collectors.toMap(JobHandler::getType, Function.identity()));
+        this.threads = threads;
+        this.leaseMillis = leaseMillis;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.owner = hostName() + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * Requeues jobs of stopped instances, extends the leases of the jobs running on this instance
+     * and claims due jobs for the free threads.
+     */
+    @Scheduled(fixedDelayString = "${application.jobs.poll-interval}")
+    public void poll() {
+        if (stopping) {
+            return;
+        }
+
+        jobRepository.requeueExpired();
+        if (running.get() > 0) {
+            jobRepository.extendLeases(owner, leaseMillis);
+        }
+
+        int free = threads - running.get();
+        if (free <= 0 || handlers.isEmpty()) {
+            return;
+        }
+
+        for (Job job : jobRepository.claim(owner, handlers.keySet(), free, leaseMillis)) {
+            running.incrementAndGet();
+            try {
+                jobExecutor.execute(() -> run(job));
+            } catch (TaskRejectedException e) {
+                running.decrementAndGet();
+                jobRepository.finish(job.getId(), owner, JobStatus.PENDING.name(), 0, e.getMessage(), null);
+            }
+        }
+    }
+
+    private void run(Job job) {
+        Counters typeCounters = counters.computeIfAbsent(job.getType(), type -> new Counters());
+        long start = System.nanoTime();
+        try {
+            JobHandler handler = handlers.get(job.getType());
+            if (handler == null) {
+                throw new IllegalStateException("No handler for job type " + job.getType());
+            }
+
+            handler.handle(job.getPayload());
+            jobRepository.finish(job.getId(), owner, JobStatus.SUCCEEDED.name(), 0, null,
+                    handler.retainedPayload(job.getPayload()));
+        } catch (Throwable e) {
+            if (job.getAttempts() < job.getMaxAttempts()) {
+                typeCounters.retries.increment();
+                jobRepository.finish(job.getId(), owner, JobStatus.PENDING.name(), backoff(job.getAttempts()), error(e),
+                        null);
+            } else {
+                typeCounters.failures.increment();
+                jobRepository.finish(job.getId(), owner, JobStatus.FAILED.name(), 0, error(e), null);
+            }
+            if (e instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            typeCounters.attempts.increment();
+            typeCounters.durationNanos.add(System.nanoTime() - start);
+            running.decrementAndGet();
+        }
+    }
+
+    /**
+     * @param attempts the number of attempts made so far
+     * @return how long to wait before the next attempt, in milliseconds
+     */
+    long backoff(int attempts) {
+        int doublings = Math.min(attempts - 1, Long.numberOfLeadingZeros(backoffMillis) - 1);
+
+        return Math.min(backoffMillis << Math.max(doublings, 0), maxBackoffMillis);
+    }
+
+    /**
+     * Reports the attempt counters of this instance.
+     *
+     * @param queued the queue counts of every job type, as read from the database
+     * @return the queue counts together with the attempt counters, for every job type that is queued or ran here
+     */
+    public List<JobTypeStatisticsDto> getStatistics(List<JobTypeStatisticsDto> queued) {
+        Map<String, JobTypeStatisticsDto> statistics = new TreeMap<>();
+        queued.forEach(type -> statistics.put(type.getType(), type));
+
+        counters.forEach((type, typeCounters) -> {
+            JobTypeStatisticsDto dto = statistics.computeIfAbsent(type,
+                    key -> new JobTypeStatisticsDto(key, 0, 0, 0, 0, 0, 0, 0, 0));
+            long attempts = typeCounters.attempts.sum();
+            dto.setAttempts(attempts);
+            dto.setRetries(typeCounters.retries.sum());
+            dto.setFailures(typeCounters.failures.sum());
+            dto.setAverageDurationMillis(attempts == 0 ? 0
+                    : Duration.ofNanos(typeCounters.durationNanos.sum() / attempts).toMillis());
+        });
+
+        return List.copyOf(statistics.values());
+    }
+
+    /**
+     * @return the identifier this instance stores as the owner of its claims
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Stops claiming jobs. Jobs still running when the executor shuts down are interrupted,
+     * and return to the queue once their lease expires.
+     */
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+    }
+
+    private static String error(Throwable e) {
+        String message = e.getClass().getName() + (e.getMessage() == null ? "" : ": " + e.getMessage());
+
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * Attempt counters of a single job type.
+     */
+    private static final class Counters {
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder durationNanos = new LongAdder();
+    }
+}
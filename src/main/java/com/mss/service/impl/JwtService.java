@@ -1,6 +1,8 @@
 package com.mss.service.impl;
 
+import com.mss.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -9,14 +11,19 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
  * Service class for JWT-related operations.
+ * The signing key and the parser are built once, the parser is immutable and shared by all requests.
  *
  * @author Dragan Jovanovic
  * @version 1.0
@@ -25,22 +32,65 @@ import java.util.function.Function;
 @Service
 public class JwtService {
     /**
-     * String containing the secret key.
+     * Name of the claim holding the id of the user.
      */
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    private static final String USER_ID_CLAIM = "uid";
+
+    /**
+     * Name of the claim holding the token epoch of the user.
+     */
+    private static final String EPOCH_CLAIM = "epoch";
+
+    /**
+     * Key used to sign and verify tokens, decoded from the secret key.
+     */
+    private final Key signInKey;
+
+    /**
+     * Thread-safe parser verifying signatures with {@link #signInKey}.
+     */
+    private final JwtParser parser;
 
     /**
      * String containing the jwtExpiration.
      */
-    @Value("${application.security.jwt.expiration}")
-    private long jwtExpiration;
+    private final long jwtExpiration;
 
     /**
      * String containing the refresh token expiration.
      */
-    @Value("${application.security.jwt.refresh-token.expiration}")
-    private long refreshExpiration;
+    private final long refreshExpiration;
+
+    /**
+     * Creates the service and precomputes the signing key and the parser.
+     *
+     * @param secretKey         the base64 encoded secret key
+     * @param jwtExpiration     the access token expiration in milliseconds
+     * @param refreshExpiration the refresh token expiration in milliseconds
+     */
+    public JwtService(@Value("${application.security.jwt.secret-key}") String secretKey,
+                      @Value("${application.security.jwt.expiration}") long jwtExpiration,
+                      @Value("${application.security.jwt.refresh-token.expiration}") long refreshExpiration) {
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    /**
+     * Verifies the signature and the expiry of a JWT token once and returns the claims needed for authentication.
+     *
+     * @param token the JWT token
+     * @return the {@link TokenClaims} of the token
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token is expired
+     * @throws io.jsonwebtoken.JwtException        if the token is malformed or its signature does not match
+     */
+    public TokenClaims parseAndValidate(String token) {
+        Claims claims = extractAllClaims(token);
+
+        return new TokenClaims(claims.getSubject(), claims.getExpiration(),
+                claims.get(USER_ID_CLAIM, Long.class), claims.get(EPOCH_CLAIM, Long.class));
+    }
 
     /**
      * Extracts the username from a JWT token.
@@ -103,6 +153,8 @@ public class JwtService {
 
     /**
      * Builds a JWT token with the specified claims and expiration time.
+     * Every token gets a random id, so tokens issued within the same second are never equal.
+     * Tokens of a {@link User} also carry the id and the token epoch of the user.
      *
      * @param extraClaims the additional claims to include in the token
      * @param userDetails the user details
@@ -114,13 +166,21 @@ public class JwtService {
             UserDetails userDetails,
             long expiration
     ) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+
+        if (userDetails instanceof User user) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(EPOCH_CLAIM, user.getTokenEpoch());
+        }
+
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
+                .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -132,28 +192,21 @@ public class JwtService {
      * @return true if the token is valid, false otherwise
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return parseAndValidate(token).isValidFor(userDetails);
     }
 
     /**
-     * Checks if a JWT token is expired.
+     * Computes the SHA-256 digest under which a JWT token is stored.
      *
      * @param token the JWT token
-     * @return true if the token is expired, false otherwise
+     * @return the 32 byte digest of the token
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    /**
-     * Extracts the expiration date from a JWT token.
-     *
-     * @param token the JWT token
-     * @return the expiration date extracted from the token
-     */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     /**
@@ -163,21 +216,28 @@ public class JwtService {
      * @return the claims extracted from the token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
     /**
-     * Retrieves the signing key for JWT token verification.
+     * Immutable view of the claims of a verified token.
      *
-     * @return the signing key
+     * @param username   the subject of the token
+     * @param expiration the expiration date of the token
+     * @param userId     the id of the user, or null if the token does not carry it
+     * @param epoch      the token epoch of the user, or null if the token does not carry it
      */
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public record TokenClaims(String username, Date expiration, Long userId, Long epoch) {
+        /**
+         * Checks if the token belongs to the given user and is not expired.
+         *
+         * @param userDetails the user details
+         * @return true if the token is valid, false otherwise
+         */
+        public boolean isValidFor(UserDetails userDetails) {
+            return username.equals(userDetails.getUsername()) && expiration.after(new Date());
+        }
     }
 }
@@ -0,0 +1,321 @@
+package com.mss.service.impl;
+
+import com.mss.config.RetryAfterResponseStatusException;
+import com.mss.dto.LoginThrottleStatisticsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service class throttling login, password reset and verification attempts before they reach the database
+ * or the password encoder. Every email and every client address owns a token bucket, and repeated failed
+ * logins lock an email out for a period that doubles with every further failure.
+ * Buckets live in a fixed number of stripes, each guarded by its own lock and holding a bounded number of
+ * buckets, so memory stays constant and the least recently used buckets are evicted first. Buckets holding failed
+ * logins or a lockout are only evicted to record another failure, so attempts for made-up emails cannot evict them.
+ * The client address is the one resolved by the server, which trusts X-Forwarded-For only from trusted proxies.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class LoginThrottle {
+    /**
+     * Buckets keyed by lower-cased email.
+     */
+    private final Buckets emails;
+
+    /**
+     * Buckets keyed by client address.
+     */
+    private final Buckets addresses;
+
+    /**
+     * Number of failed logins after which an email is locked out.
+     */
+    private final int lockoutThreshold;
+
+    /**
+     * Lockout after reaching the threshold, in nanoseconds.
+     */
+    private final long lockoutNanos;
+
+    /**
+     * Longest lockout, in nanoseconds.
+     */
+    private final long maxLockoutNanos;
+
+    /**
+     * Number of attempts rejected by email since the application started.
+     */
+    private final LongAdder rejectedByEmail = new LongAdder();
+
+    /**
+     * Number of attempts rejected by client address since the application started.
+     */
+    private final LongAdder rejectedByAddress = new LongAdder();
+
+    /**
+     * Number of lockouts since the application started.
+     */
+    private final LongAdder lockouts = new LongAdder();
+
+    /**
+     * Creates the throttle.
+     *
+     * @param emailCapacity          attempts per email in a burst
+     * @param emailRefillPerMinute   attempts per email regained every minute
+     * @param addressCapacity        attempts per client address in a burst
+     * @param addressRefillPerMinute attempts per client address regained every minute
+     * @param lockoutThreshold       failed logins after which an email is locked out
+     * @param lockout                lockout after reaching the threshold, in milliseconds
+     * @param maxLockout             longest lockout, in milliseconds
+     * @param stripes                number of independently locked stripes, rounded up to a power of two
+     * @param maximumSize            maximum number of buckets kept per key type
+     */
+    public LoginThrottle(@Value("${application.security.login-throttle.email.capacity}") int emailCapacity,
+                         @Value("${application.security.login-throttle.email.refill-per-minute}") int emailRefillPerMinute,
+                         @Value("${application.security.login-throttle.address.capacity}") int addressCapacity,
+                         @Value("${application.security.login-throttle.address.refill-per-minute}") int addressRefillPerMinute,
+                         @Value("${application.security.login-throttle.lockout-threshold}") int lockoutThreshold,
+                         @Value("${application.security.login-throttle.lockout}") long lockout,
+                         @Value("${application.security.login-throttle.max-lockout}") long maxLockout,
+                         @Value("${application.security.login-throttle.stripes}") int stripes,
+                         @Value("${application.security.login-throttle.maximum-size}") int maximumSize) {
+        this.emails = new Buckets(emailCapacity, emailRefillPerMinute, stripes, maximumSize);
+        this.addresses = new Buckets(addressCapacity, addressRefillPerMinute, stripes, maximumSize);
+        this.lockoutThreshold = lockoutThreshold;
+        this.lockoutNanos = TimeUnit.MILLISECONDS.toNanos(lockout);
+        this.maxLockoutNanos = TimeUnit.MILLISECONDS.toNanos(maxLockout);
+    }
+
+    /**
+     * Takes one attempt from the buckets of the email and of the client address of the current request.
+     *
+     * @param email the email the attempt is made for
+     * @throws RetryAfterResponseStatusException with status 429 if either bucket is empty or the email is locked out
+     */
+    public void acquire(String email) {
+        long now = System.nanoTime();
+
+        if (email != null) {
+            long wait = emails.acquire(email.toLowerCase(Locale.ROOT), now);
+            if (wait > 0) {
+                rejectedByEmail.increment();
+                throw tooManyAttempts(wait);
+            }
+        }
+
+        String address = clientAddress();
+        if (address != null) {
+            long wait = addresses.acquire(address, now);
+            if (wait > 0) {
+                rejectedByAddress.increment();
+                throw tooManyAttempts(wait);
+            }
+        }
+    }
+
+    /**
+     * Records a failed login and locks the email out once the failures reach the threshold.
+     * Every further failure doubles the lockout up to the maximum.
+     *
+     * @param email the email the login failed for
+     */
+    public void recordFailure(String email) {
+        long now = System.nanoTime();
+        String key = email.toLowerCase(Locale.ROOT);
+        Stripe stripe = emails.stripe(key);
+
+        synchronized (stripe) {
+            Bucket bucket = stripe.bucket(key, emails.capacity, now, true);
+            bucket.failures++;
+
+            if (bucket.failures >= lockoutThreshold) {
+                int doublings = Math.min(bucket.failures - lockoutThreshold, 30);
+                bucket.lockedUntil = now + Math.min(maxLockoutNanos, lockoutNanos << doublings);
+                lockouts.increment();
+            }
+        }
+    }
+
+    /**
+     * Clears the failed logins and the lockout of an email after a successful login.
+     *
+     * @param email the email the login succeeded for
+     */
+    public void recordSuccess(String email) {
+        long now = System.nanoTime();
+        String key = email.toLowerCase(Locale.ROOT);
+        Stripe stripe = emails.stripe(key);
+
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket != null) {
+                bucket.failures = 0;
+                bucket.lockedUntil = now;
+            }
+        }
+    }
+
+    /**
+     * @return {@link LoginThrottleStatisticsDto} with counters collected since the application started
+     */
+    public LoginThrottleStatisticsDto getStatistics() {
+        return new LoginThrottleStatisticsDto(rejectedByEmail.sum(), rejectedByAddress.sum(), lockouts.sum(),
+                emails.size(), addresses.size());
+    }
+
+    private static String clientAddress() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getRemoteAddr();
+        }
+
+        return null;
+    }
+
+    private static RetryAfterResponseStatusException tooManyAttempts(long waitNanos) {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+
+        return new RetryAfterResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                "Too many attempts, try again later", retryAfter);
+    }
+
+    /**
+     * Token buckets of one key type, spread over independently locked stripes.
+     */
+    private static final class Buckets {
+        private final double capacity;
+
+        private final double refillPerNano;
+
+        private final Stripe[] stripes;
+
+        private Buckets(int capacity, int refillPerMinute, int stripes, int maximumSize) {
+            int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+
+            this.capacity = capacity;
+            this.refillPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.stripes = new Stripe[count];
+            for (int i = 0; i < count; i++) {
+                this.stripes[i] = new Stripe(Math.max(1, maximumSize / count));
+            }
+        }
+
+        private Stripe stripe(String key) {
+            int hash = key.hashCode();
+
+            return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+        }
+
+        /**
+         * @return 0 if an attempt was taken, otherwise the nanoseconds until the next attempt is allowed
+         */
+        private long acquire(String key, long now) {
+            Stripe stripe = stripe(key);
+
+            synchronized (stripe) {
+                Bucket bucket = stripe.bucket(key, capacity, now, false);
+
+                if (now - bucket.lockedUntil < 0) {
+                    return bucket.lockedUntil - now;
+                }
+
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAt) * refillPerNano);
+                bucket.refilledAt = now;
+
+                if (bucket.tokens >= 1) {
+                    bucket.tokens -= 1;
+                    return 0;
+                }
+
+                return Math.max(1, (long) ((1 - bucket.tokens) / refillPerNano));
+            }
+        }
+
+        private int size() {
+            int size = 0;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    size += stripe.size();
+                }
+            }
+
+            return size;
+        }
+    }
+
+    /**
+     * Buckets of one stripe in access order. When full, the least recently used bucket without failures is evicted
+     * to make room for a new one.
+     */
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int maximumSize;
+
+        private Stripe(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        /**
+         * @param evictPenalised whether buckets holding failures or a lockout may be evicted to make room
+         * @return the bucket of the key, which is not kept if the stripe is full and no bucket may be evicted
+         */
+        private Bucket bucket(String key, double capacity, long now, boolean evictPenalised) {
+            Bucket bucket = get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                if (size() < maximumSize || evictEldest(now, false) || (evictPenalised && evictEldest(now, true))) {
+                    put(key, bucket);
+                }
+            }
+
+            return bucket;
+        }
+
+        private boolean evictEldest(long now, boolean penalised) {
+            Iterator<Bucket> buckets = values().iterator();
+            while (buckets.hasNext()) {
+                Bucket bucket = buckets.next();
+                if (penalised || !bucket.isPenalised(now)) {
+                    buckets.remove();
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Mutable state of one key, only accessed while holding the lock of its stripe.
+     */
+    private static final class Bucket {
+        private double tokens;
+
+        private long refilledAt;
+
+        private int failures;
+
+        private long lockedUntil;
+
+        private Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+            this.lockedUntil = refilledAt;
+        }
+
+        private boolean isPenalised(long now) {
+            return failures > 0 || now - lockedUntil < 0;
+        }
+    }
+}
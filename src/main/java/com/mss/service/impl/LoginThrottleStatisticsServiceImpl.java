@@ -0,0 +1,30 @@
+package com.mss.service.impl;
+
+import com.mss.dto.LoginThrottleStatisticsDto;
+import com.mss.service.LoginThrottleStatisticsService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The LoginThrottleStatisticsServiceImpl implements LoginThrottleStatisticsService and
+ * reads the counters of {@link LoginThrottle}.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@org.springframework.stereotype.Service
+@RequiredArgsConstructor
+public class LoginThrottleStatisticsServiceImpl implements LoginThrottleStatisticsService {
+    /**
+     * The throttle whose counters are reported.
+     */
+    private final LoginThrottle loginThrottle;
+
+    /**
+     * @return {@link LoginThrottleStatisticsDto} with counters collected since the application started
+     */
+    @Override
+    public LoginThrottleStatisticsDto getLoginThrottleStatistics() {
+        return loginThrottle.getStatistics();
+    }
+}
@@ -1,10 +1,13 @@
 package com.mss.service.impl;
 
 
+import com.mss.enumeration.RevocationMode;
 import com.mss.repository.TokenRepository;
+import com.mss.repository.UserRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
@@ -25,8 +28,40 @@ public class LogoutService implements LogoutHandler {
      */
     private final TokenRepository tokenRepository;
 
+    /**
+     * Cache of validated tokens, evicted on logout.
+     */
+    private final TokenCache tokenCache;
+
+    /**
+     * Evicts cached tokens of the user on every instance once the token is revoked.
+     */
+    private final TokenEvictionService tokenEvictionService;
+
+    /**
+     * The repository used to retrieve user data.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Service used to hash the token and to parse it when tokens are revoked by epoch.
+     */
+    private final JwtService jwtService;
+
+    /**
+     * Service used to revoke tokens by token epoch.
+     */
+    private final TokenEpochService tokenEpochService;
+
+    /**
+     * How tokens are revoked, by the token table or by the token epoch of the user.
+     */
+    @Value("${application.security.revocation-mode}")
+    private RevocationMode revocationMode;
+
     /**
      * Performs the logout operation by invalidating the user's token and clearing the security context.
+     * When tokens are revoked by epoch, every token of the user is revoked.
      *
      * @param request        the HTTP request
      * @param response       the HTTP response
@@ -44,13 +79,39 @@ public class LogoutService implements LogoutHandler {
             return;
         }
         jwt = authHeader.substring(7);
-        var storedToken = tokenRepository.findByToken(jwt)
+        tokenCache.evict(jwt);
+        if (revocationMode == RevocationMode.EPOCH) {
+            revokeByEpoch(jwt);
+            return;
+        }
+        var storedToken = tokenRepository.findByTokenHash(jwtService.hash(jwt))
                 .orElse(null);
         if (storedToken != null) {
             storedToken.setExpired(true);
             storedToken.setRevoked(true);
             tokenRepository.save(storedToken);
+            tokenEvictionService.evictUser(storedToken.getUser().getId());
             SecurityContextHolder.clearContext();
         }
     }
+
+    private void revokeByEpoch(String jwt) {
+        final JwtService.TokenClaims claims;
+
+        try {
+            claims = jwtService.parseAndValidate(jwt);
+        } catch (Exception e) {
+            return;
+        }
+
+        if (claims.userId() == null || !tokenEpochService.isCurrent(claims.userId(), claims.epoch())) {
+            return;
+        }
+
+        userRepository.findById(claims.userId()).ifPresent(user -> {
+            tokenEvictionService.evictUser(user.getId());
+            tokenEpochService.revokeAll(user);
+            SecurityContextHolder.clearContext();
+        });
+    }
 }
@@ -0,0 +1,373 @@
+package com.mss.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted trigram index used for type-ahead suggestions.
+ * <p>
+ * Every document gets an int ordinal. Each trigram of its normalized fields maps to a posting list of ordinals,
+ * stored in a growable {@code int[]} that stays sorted because ordinals only grow. Removed documents are
+ * tombstoned and the index is compacted once tombstones outnumber live documents, so memory stays
+ * proportional to the number of live documents.
+ * <p>
+ * Reads run concurrently under a read lock, changes take the write lock.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+final class NgramIndex {
+    /**
+     * Length of the indexed n-grams. Queries shorter than this return no results.
+     */
+    static final int GRAM_LENGTH = 3;
+
+    /**
+     * Separates fields in the stored text, so a query never matches across two fields.
+     */
+    private static final char FIELD_SEPARATOR = '\n';
+
+    /**
+     * Marks the key of a removed document.
+     */
+    private static final long REMOVED = -1L;
+
+    /**
+     * Number of tombstones tolerated before compaction is considered.
+     */
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    /**
+     * A single suggestion returned by {@link #search}.
+     *
+     * @param key    the key the document was added with
+     * @param label  the label of the document
+     * @param detail the detail of the document
+     */
+    record Hit(long key, String label, String detail) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, Postings> postings = new HashMap<>();
+
+    private final Map<Long, Integer> ordinalByKey = new HashMap<>();
+
+    private long[] keys = new long[64];
+
+    private String[] texts = new String[64];
+
+    private String[] labels = new String[64];
+
+    private String[] details = new String[64];
+
+    private int size;
+
+    private int removed;
+
+    /**
+     * Adds a document or replaces the document with the same key.
+     *
+     * @param key    the key of the document, unique across all document types
+     * @param label  the label shown in suggestions
+     * @param detail the detail shown in suggestions
+     * @param fields the searchable field values, null values are ignored
+     */
+    void put(long key, String label, String detail, List<String> fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            String normalized = normalize(field);
+            if (!normalized.isEmpty()) {
+                if (!text.isEmpty()) {
+                    text.append(FIELD_SEPARATOR);
+                }
+                text.append(normalized);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            append(key, text.toString(), label, detail);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document if it is present.
+     *
+     * @param key the key of the document
+     */
+    void remove(long key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every document.
+     */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            postings = new HashMap<>();
+            ordinalByKey.clear();
+            Arrays.fill(texts, 0, size, null);
+            Arrays.fill(labels, 0, size, null);
+            Arrays.fill(details, 0, size, null);
+            size = 0;
+            removed = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds documents whose fields contain the query. Matches at the start of a field rank first,
+     * then matches at the start of a word, then any other match; ties are broken by the shorter label.
+     *
+     * @param query the text typed by the user
+     * @param limit the maximum number of results
+     * @return up to {@code limit} best matching documents
+     */
+    List<Hit> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.length() < GRAM_LENGTH || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] grams = grams(normalized);
+            Postings[] lists = new Postings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            Comparator<int[]> worstFirst = Comparator.<int[]>comparingInt(candidate -> candidate[1])
+                    .thenComparingInt(candidate -> labels[candidate[0]].length())
+                    .reversed();
+            PriorityQueue<int[]> best = new PriorityQueue<>(limit + 1, worstFirst);
+
+            Postings smallest = lists[0];
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                int ordinal = smallest.values[i];
+                if (keys[ordinal] == REMOVED) {
+                    continue;
+                }
+                for (int j = 1; j < lists.length; j++) {
+                    if (!lists[j].contains(ordinal)) {
+                        continue candidates;
+                    }
+                }
+
+                int rank = rank(texts[ordinal], normalized);
+                if (rank < 0) {
+                    continue;
+                }
+
+                best.add(new int[]{ordinal, rank});
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                int ordinal = best.poll()[0];
+                hits.add(new Hit(keys[ordinal], labels[ordinal], details[ordinal]));
+            }
+            Collections.reverse(hits);
+
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of live documents.
+     *
+     * @return the number of documents that were added and not removed
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lowercases the value, drops punctuation and collapses whitespace, so "LJ-12 AB" and "lj12 ab" match.
+     *
+     * @param value the value to normalize, may be null
+     * @return the normalized value, empty for null
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        StringBuilder normalized = new StringBuilder(value.length());
+        boolean pendingSpace = false;
+        for (char c : value.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                pendingSpace = false;
+            } else if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+            }
+        }
+
+        return normalized.toString();
+    }
+
+    private void append(long key, String text, String label, String detail) {
+        if (size == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+            details = Arrays.copyOf(details, capacity);
+        }
+
+        int ordinal = size++;
+        keys[ordinal] = key;
+        texts[ordinal] = text;
+        labels[ordinal] = label;
+        details[ordinal] = detail;
+        ordinalByKey.put(key, ordinal);
+
+        for (long gram : grams(text)) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(ordinal);
+        }
+    }
+
+    private void removeLocked(long key) {
+        Integer ordinal = ordinalByKey.remove(key);
+        if (ordinal == null) {
+            return;
+        }
+
+        keys[ordinal] = REMOVED;
+        texts[ordinal] = null;
+        labels[ordinal] = null;
+        details[ordinal] = null;
+        removed++;
+
+        if (removed > COMPACTION_THRESHOLD && removed > ordinalByKey.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Rebuilds ordinals and posting lists from live documents only.
+     */
+    private void compact() {
+        long[] oldKeys = keys;
+        String[] oldTexts = texts;
+        String[] oldLabels = labels;
+        String[] oldDetails = details;
+        int oldSize = size;
+
+        int capacity = Math.max(64, Integer.highestOneBit(Math.max(1, ordinalByKey.size())) * 2);
+        keys = new long[capacity];
+        texts = new String[capacity];
+        labels = new String[capacity];
+        details = new String[capacity];
+        postings = new HashMap<>();
+        ordinalByKey.clear();
+        size = 0;
+        removed = 0;
+
+        for (int i = 0; i < oldSize; i++) {
+            if (oldKeys[i] != REMOVED) {
+                append(oldKeys[i], oldTexts[i], oldLabels[i], oldDetails[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the rank of the first match of the query in the text, or -1 if the text does not contain it.
+     */
+    private static int rank(String text, String query) {
+        int index = text.indexOf(query);
+        if (index < 0) {
+            return -1;
+        }
+        if (index == 0 || text.charAt(index - 1) == FIELD_SEPARATOR) {
+            return 0;
+        }
+        if (text.charAt(index - 1) == ' ') {
+            return 1;
+        }
+
+        return 2;
+    }
+
+    /**
+     * Returns the distinct n-grams of a text, skipping grams that span two fields.
+     * Three characters are packed into one long, 16 bits each.
+     */
+    private static long[] grams(String text) {
+        long[] grams = new long[Math.max(0, text.length() - GRAM_LENGTH + 1)];
+        int count = 0;
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            char a = text.charAt(i);
+            char b = text.charAt(i + 1);
+            char c = text.charAt(i + 2);
+            if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) {
+                continue;
+            }
+            grams[count++] = ((long) a << 32) | ((long) b << 16) | c;
+        }
+
+        return Arrays.stream(grams, 0, count).distinct().toArray();
+    }
+
+    /**
+     * A sorted posting list of ordinals backed by a primitive array.
+     */
+    private static final class Postings {
+        private int[] values = new int[4];
+
+        private int size;
+
+        void add(int ordinal) {
+            if (size > 0 && values[size - 1] == ordinal) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            values[size++] = ordinal;
+        }
+
+        boolean contains(int ordinal) {
+            return Arrays.binarySearch(values, 0, size, ordinal) >= 0;
+        }
+    }
+}
@@ -2,9 +2,7 @@ package com.mss.service.impl;
 
 import com.mss.dto.EmailCustomerDto;
 import com.mss.service.NotificationService;
-import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.MailException;
 import org.springframework.stereotype.Service;
 
 /**
@@ -28,12 +26,11 @@ public class NotificationServiceImpl implements NotificationService {
      * Sends an email to the customer notifying them that their service is complete and their vehicle is ready for pick-up.
      * <p>
      * This method formats an email message with the customer's information and the details of the completed service,
-     * and then sends the email to the specified recipient.
+     * and then writes the email to the outbox, from which it is delivered to the specified recipient in the background.
      *
      * @param emailCustomerDto the DTO containing the customer's email and service details, including the vehicle information.
      *                         This should include the customer's email address, vehicle details, and any additional service
      *                         information such as the service completion status or invoice.
-     * @throws MailException      if there is an error while sending the email.
      */
     @Override
     public void sendServiceOverEmail(EmailCustomerDto emailCustomerDto) {
@@ -153,10 +150,16 @@ public class NotificationServiceImpl implements NotificationService {
                 </html>
                 """.formatted(emailCustomerDto.getCustomerName(), emailCustomerDto.getVehicleManufacturerAndModel(), emailCustomerDto.getInvoiceCode());
 
-        try {
-            emailService.sendVerificationEmail(emailCustomerDto.getCustomerEmail(), subject, htmlMessage);
-        } catch (MessagingException e) {
-            e.printStackTrace();
-        }
+        emailService.enqueueEmail(emailCustomerDto.getCustomerEmail(), subject, htmlMessage);
+    }
+
+    /**
+     * Returns emails that failed on their last allowed attempt to the outbox.
+     *
+     * @return the number of emails that will be delivered again
+     */
+    @Override
+    public int retryUndeliveredEmails() {
+        return emailService.retryUndeliveredEmails();
     }
 }
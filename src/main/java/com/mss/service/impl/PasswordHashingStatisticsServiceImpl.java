@@ -0,0 +1,37 @@
+package com.mss.service.impl;
+
+import com.mss.config.BoundedPasswordEncoder;
+import com.mss.dto.PasswordHashingStatisticsDto;
+import com.mss.service.PasswordHashingStatisticsService;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * The PasswordHashingStatisticsServiceImpl implements PasswordHashingStatisticsService and
+ * reads the state of the executor used by {@link BoundedPasswordEncoder}.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@org.springframework.stereotype.Service
+@RequiredArgsConstructor
+public class PasswordHashingStatisticsServiceImpl implements PasswordHashingStatisticsService {
+    /**
+     * The encoder whose executor is reported.
+     */
+    private final BoundedPasswordEncoder passwordEncoder;
+
+    /**
+     * @return {@link PasswordHashingStatisticsDto} with the current state of the executor
+     */
+    @Override
+    public PasswordHashingStatisticsDto getPasswordHashingStatistics() {
+        ThreadPoolExecutor executor = passwordEncoder.getExecutor().getThreadPoolExecutor();
+
+        return new PasswordHashingStatisticsDto(executor.getPoolSize(), executor.getActiveCount(),
+                executor.getQueue().size(), passwordEncoder.getExecutor().getQueueCapacity(),
+                executor.getCompletedTaskCount(), passwordEncoder.getRejectedCount());
+    }
+}
@@ -65,7 +65,7 @@ public class PdfServiceImpl implements PdfService {
     @Override
     public byte[] createInvoicePdf(Long serviceId) {
         ByteArrayOutputStream dataStream = new ByteArrayOutputStream();
-        Service service = serviceRepository.findOneById(serviceId)
+        Service service = serviceRepository.findInvoiceById(serviceId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Service with that id doesn't exist"));
         Customer customer = service.getVehicle().getCustomer();
         List<ServiceType> allServiceTypes = service.getServiceTypes();
@@ -77,7 +77,7 @@ public class PdfServiceImpl implements PdfService {
             }
         }
 
-        double totalPrice = calculateTotalPrice(serviceTypes);
+        double totalPrice = service.getTotalAmount() != null ? service.getTotalAmount() : 0;
 
         try {
             PdfWriter writer = new PdfWriter(dataStream);
@@ -128,7 +128,7 @@ public class PdfServiceImpl implements PdfService {
      */
     @Override
     public String generateInvoiceFilename(Long serviceId) {
-        Service service = serviceRepository.findOneById(serviceId)
+        Service service = serviceRepository.findInvoiceById(serviceId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Service with that id doesn't exist"));
 
         Customer customer = service.getVehicle().getCustomer();
@@ -147,19 +147,6 @@ public class PdfServiceImpl implements PdfService {
         return date.format(formatter);
     }
 
-    /**
-     * Calculates the total price based on the list of service types.
-     *
-     * @param serviceTypes the list of service types.
-     * @return the total price.
-     */
-    private double calculateTotalPrice(List<ServiceType> serviceTypes) {
-        double total = 0;
-        for (ServiceType serviceType : serviceTypes) {
-            total += serviceType.getPrice() * serviceType.getQuantity();
-        }
-        return total;
-    }
 
     /**
      * Adds the header section to the PDF document.
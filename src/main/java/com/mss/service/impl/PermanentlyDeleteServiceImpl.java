@@ -1,24 +1,36 @@
 package com.mss.service.impl;
 
-import com.mss.model.*;
+import com.mss.dto.PurgeStatisticsDto;
+import com.mss.dto.PurgeTableStatisticsDto;
 import com.mss.repository.*;
+import com.mss.service.JobHandler;
+import com.mss.service.JobService;
 import com.mss.service.PermanentDeletionService;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntUnaryOperator;
 
 /**
  * The {@code PermanentlyDeleteServiceImpl} class implements the {@link PermanentDeletionService} interface,
  * providing functionality to permanently delete softly deleted resources from the database.
  * Dependency injection is used to obtain instances of the necessary repository beans for handling
- * different entity types (Vehicle, User, Customer, Service, and ServiceType).
+ * different entity types (Vehicle, Customer, Service, ServiceType, Token, TokenEviction and Job).
  * <p>
- * This service runs a scheduled job to periodically remove all resources marked as deleted.
+ * This service enqueues a background job every hour to remove all resources marked as deleted, and runs it as the
+ * {@link JobHandler} of that job type.
+ * Rows are deleted by set-based statements in chunks of a fixed size, each committed in its own transaction,
+ * so locks are held only for one chunk. Every chunk deletes whatever still matches the retention predicate,
+ * so a purge that is interrupted simply continues with the remaining rows on its next run.
+ * When several instances share the database, each run executes only on the instance that acquires its lease.
  * </p>
  *
  * @author Dragan Jovanovic
@@ -27,7 +39,27 @@ import java.util.stream.Collectors;
  */
 @org.springframework.stereotype.Service
 @RequiredArgsConstructor
-public class PermanentlyDeleteServiceImpl implements PermanentDeletionService {
+public class PermanentlyDeleteServiceImpl implements PermanentDeletionService, JobHandler {
+    /**
+     * How long softly deleted resources, tokens, token evictions and finished jobs are kept.
+     */
+    private static final Duration RETENTION = Duration.ofDays(7);
+
+    /**
+     * The type of the purge job.
+     */
+    private static final String PURGE_JOB = "permanently-delete-resources";
+
+    /**
+     * The priority of the purge job, below jobs a user is waiting for.
+     */
+    private static final int PURGE_PRIORITY = -10;
+
+    /**
+     * The name of the lease taken by the purge.
+     */
+    private static final String PURGE_LOCK = "permanently-delete-resources";
+
     /**
      * The repository used to retrieve vehicle data.
      */
@@ -39,9 +71,9 @@ public class PermanentlyDeleteServiceImpl implements PermanentDeletionService {
     private final TokenRepository tokenRepository;
 
     /**
-     * The repository used to retrieve user data.
+     * The repository used to retrieve token eviction data.
      */
-    private final UserRepository userRepository;
+    private final TokenEvictionRepository tokenEvictionRepository;
 
     /**
      * The repository used to retrieve customer data.
@@ -59,62 +91,162 @@ public class PermanentlyDeleteServiceImpl implements PermanentDeletionService {
     private final ServiceTypeRepository serviceTypeRepository;
 
     /**
-     * Permanently deletes resources (customers, vehicles, services, service types, and tokens) that have been deleted for
-     * longer than one week. This method is scheduled to run periodically to ensure resources are permanently removed after
-     * the retention period.
+     * The repository used to retrieve job data.
+     */
+    private final JobRepository jobRepository;
+
+    /**
+     * The service used to enqueue the purge job.
+     */
+    private final JobService jobService;
+
+    /**
+     * Runs every chunk in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Makes sure only one instance runs the purge at a time.
+     */
+    private final SchedulerLockService schedulerLockService;
+
+    /**
+     * Prevents overlapping purges within this instance.
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * The maximum number of rows deleted by a single statement.
+     */
+    @Value("${application.purge.chunk-size}")
+    private int chunkSize;
+
+    /**
+     * Progress of the running purge, or the outcome of the last one. Guarded by {@code this}.
+     */
+    private PurgeStatisticsDto statistics = new PurgeStatisticsDto(false, null, null, null, List.of());
+
+    /**
+     * Enqueues the purge job of the current hour. The hour is part of the unique key of the job,
+     * so instances enqueuing it at the same time create only one job.
+     */
+    @Override
+    @Scheduled(cron = "0 0 * * * *", zone = "GMT+2")
+    public void schedulePermanentDeletion() {
+        jobService.enqueue(PURGE_JOB, null, PURGE_PRIORITY, PURGE_JOB + ":" + Instant.now().truncatedTo(ChronoUnit.HOURS));
+    }
+
+    /**
+     * @return the type of the purge job
+     */
+    @Override
+    public String getType() {
+        return PURGE_JOB;
+    }
+
+    /**
+     * Runs the purge job.
+     *
+     * @param payload unused, the purge has no input
+     */
+    @Override
+    public void handle(String payload) {
+        permanentlyDeleteResources();
+    }
+
+    /**
+     * Permanently deletes resources (service types, services, vehicles, customers, tokens, token evictions and finished
+     * jobs) that have been deleted or finished for longer than one week. The job enqueued by
+     * {@link #schedulePermanentDeletion()} runs this method periodically to ensure resources are permanently removed
+     * after the retention period.
      *
-     * <p>The resources are identified based on their deletion status and the deletion timestamp. The following operations
-     * are performed:
-     * <ul>
-     *     <li>Find customers, vehicles, services, and service types deleted for over one week.</li>
-     *     <li>Permanently delete these entities from the respective repositories by ID.</li>
-     *     <li>Delete all tokens from the token repository.</li>
-     * </ul>
-     * </p>
+     * <p>Tables are purged children first. A parent is only deleted once none of its children are left, so a chunk never
+     * fails on a foreign key and the remaining parents are picked up once their children expire.</p>
      *
-     * <p>This method is scheduled to run every minute, but can be adjusted for testing purposes. The method utilizes
-     * repository queries that filter entities based on the deletion timestamp.</p>
+     * <p>The purge runs only on the instance holding its lease, and stops before the next chunk if the lease is lost.</p>
      *
-     * @see CustomerRepository#findCustomersDeletedOlderThanOneWeek(Instant) (LocalDateTime)
-     * @see VehicleRepository#findVehiclesDeletedOlderThanOneWeek(Instant) (LocalDateTime)
-     * @see ServiceRepository#findServicesDeletedOlderThanOneWeek(Instant) (LocalDateTime)
-     * @see ServiceTypeRepository#findServiceTypesDeletedOlderThanOneWeek(Instant) (LocalDateTime)
+     * @see ServiceTypeRepository#permanentlyDeleteDeletedServiceTypes(Instant, int)
+     * @see ServiceRepository#permanentlyDeleteDeletedServices(Instant, int)
+     * @see VehicleRepository#permanentlyDeleteDeletedVehicles(Instant, int)
+     * @see CustomerRepository#permanentlyDeleteDeletedCustomers(Instant, int)
+     * @see TokenRepository#permanentlyDeleteTokensCreatedBefore(Instant, int)
+     * @see TokenEvictionRepository#permanentlyDeleteEvictionsBefore(Instant, int)
+     * @see JobRepository#permanentlyDeleteJobsFinishedBefore(Instant, int)
      */
     @Override
-    @Transactional
-    @Scheduled(cron = "0 0 * * * *", zone = "GMT+2")
     public void permanentlyDeleteResources() {
-        Instant oneWeekAgo = Instant.now().minus(Duration.ofDays(7));
-
-        List<Long> deletedCustomerIds = customerRepository.findCustomersDeletedOlderThanOneWeek(oneWeekAgo)
-                .stream()
-                .map(Customer::getId)
-                .collect(Collectors.toList());
-
-        List<Long> deletedVehicleIds = vehicleRepository.findVehiclesDeletedOlderThanOneWeek(oneWeekAgo)
-                .stream()
-                .map(Vehicle::getId)
-                .collect(Collectors.toList());
-
-        List<Long> deletedServiceIds = serviceRepository.findServicesDeletedOlderThanOneWeek(oneWeekAgo)
-                .stream()
-                .map(Service::getId)
-                .collect(Collectors.toList());
-
-        List<Long> deletedServiceTypeIds = serviceTypeRepository.findServiceTypesDeletedOlderThanOneWeek(oneWeekAgo)
-                .stream()
-                .map(ServiceType::getId)
-                .collect(Collectors.toList());
-
-        List<Long> deletedTokensByIds = tokenRepository.findTokensOlderThanOneWeek(oneWeekAgo)
-                .stream()
-                .map(Token::getId)
-                .collect(Collectors.toList());
-
-        serviceTypeRepository.permanentlyDeleteAllDeletedServiceTypes(deletedServiceTypeIds);
-        serviceRepository.permanentlyDeleteAllDeletedServices(deletedServiceIds);
-        vehicleRepository.permanentlyDeleteAllDeletedVehicles(deletedVehicleIds);
-        customerRepository.permanentlyDeleteAllDeletedCustomers(deletedCustomerIds);
-        tokenRepository.deleteByIds(deletedTokensByIds);
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            schedulerLockService.runExclusively(PURGE_LOCK, this::purgeAll);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void purgeAll(SchedulerLockService.Lease lease) {
+        Instant cutoff = Instant.now().minus(RETENTION);
+        synchronized (this) {
+            statistics = new PurgeStatisticsDto(true, Instant.now(), null, null, new ArrayList<>());
+        }
+
+        String failure = null;
+        try {
+            purge(lease, "service_types", chunk -> serviceTypeRepository.permanentlyDeleteDeletedServiceTypes(cutoff, chunk));
+            purge(lease, "services", chunk -> serviceRepository.permanentlyDeleteDeletedServices(cutoff, chunk));
+            purge(lease, "vehicles", chunk -> vehicleRepository.permanentlyDeleteDeletedVehicles(cutoff, chunk));
+            purge(lease, "customers", chunk -> customerRepository.permanentlyDeleteDeletedCustomers(cutoff, chunk));
+            purge(lease, "token", chunk -> tokenRepository.permanentlyDeleteTokensCreatedBefore(cutoff, chunk));
+            purge(lease, "token_evictions", chunk -> tokenEvictionRepository.permanentlyDeleteEvictionsBefore(cutoff, chunk));
+            purge(lease, "jobs", chunk -> jobRepository.permanentlyDeleteJobsFinishedBefore(cutoff, chunk));
+        } catch (RuntimeException e) {
+            failure = e.getMessage();
+            throw e;
+        } finally {
+            synchronized (this) {
+                statistics.setRunning(false);
+                statistics.setFinishedAt(Instant.now());
+                statistics.setFailure(failure);
+            }
+        }
+    }
+
+    /**
+     * @return {@link PurgeStatisticsDto} with the progress of the running purge, or the outcome of the last one
+     */
+    @Override
+    public synchronized PurgeStatisticsDto getPurgeStatistics() {
+        List<PurgeTableStatisticsDto> tables = statistics.getTables().stream()
+                .map(table -> new PurgeTableStatisticsDto(table.getTable(), table.getDeletedRows(), table.getChunks(),
+                        table.getDurationMillis()))
+                .toList();
+
+        return new PurgeStatisticsDto(statistics.isRunning(), statistics.getStartedAt(), statistics.getFinishedAt(),
+                statistics.getFailure(), tables);
+    }
+
+    private void purge(SchedulerLockService.Lease lease, String table, IntUnaryOperator deleteChunk) {
+        PurgeTableStatisticsDto progress = new PurgeTableStatisticsDto(table, 0, 0, 0);
+        synchronized (this) {
+            statistics.getTables().add(progress);
+        }
+
+        long start = System.nanoTime();
+        int deleted;
+        do {
+            if (!lease.isHeld()) {
+                throw new IllegalStateException("Purge lease was taken over by another instance");
+            }
+
+            deleted = transactionTemplate.execute(status -> deleteChunk.applyAsInt(chunkSize));
+
+            synchronized (this) {
+                progress.setDeletedRows(progress.getDeletedRows() + deleted);
+                progress.setChunks(progress.getChunks() + 1);
+                progress.setDurationMillis(Duration.ofNanos(System.nanoTime() - start).toMillis());
+            }
+        } while (deleted == chunkSize);
     }
-}
\ No newline at end of file
+}
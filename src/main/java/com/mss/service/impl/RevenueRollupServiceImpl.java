@@ -0,0 +1,128 @@
+package com.mss.service.impl;
+
+import com.mss.model.DailyRevenueRollupId;
+import com.mss.model.Service;
+import com.mss.repository.DailyRevenueRollupRepository;
+import com.mss.service.RevenueRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The RevenueRollupServiceImpl implements RevenueRollupService and
+ * all methods that are in DailyRevenueRollupRepository.
+ * Every refresh deletes the affected rows and recomputes them from the stored totals of services,
+ * so the rollup stays correct regardless of which change triggered it. Refreshes of the same customer hold
+ * an advisory lock until their transaction ends, so concurrent writers never overwrite each other's totals.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@org.springframework.stereotype.Service
+@RequiredArgsConstructor
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+    /**
+     * The repository used to maintain rollup data.
+     */
+    private final DailyRevenueRollupRepository dailyRevenueRollupRepository;
+
+    /**
+     * Resolves the day, mechanic and customer a service is aggregated under.
+     *
+     * @param service service with data
+     * @return the rollup key of the service, or null if the service has no start date, mechanic or customer
+     */
+    @Override
+    public DailyRevenueRollupId bucketOf(Service service) {
+        if (service == null || service.getStartDate() == null || service.getUser() == null
+                || service.getVehicle() == null || service.getVehicle().getCustomer() == null) {
+            return null;
+        }
+
+        return new DailyRevenueRollupId(service.getStartDate(), service.getUser().getId(),
+                service.getVehicle().getCustomer().getId());
+    }
+
+    /**
+     * Recomputes a single rollup row. The row is removed first, so it disappears
+     * when no services are left for its day, mechanic and customer.
+     *
+     * @param bucket the day, mechanic and customer to recompute, ignored if null
+     */
+    @Override
+    @Transactional
+    public void refreshBucket(DailyRevenueRollupId bucket) {
+        if (bucket == null) {
+            return;
+        }
+
+        dailyRevenueRollupRepository.lockCustomer(bucket.getCustomerId());
+        dailyRevenueRollupRepository.deleteBucket(bucket.getDay(), bucket.getMechanicId(), bucket.getCustomerId());
+        dailyRevenueRollupRepository.upsertBucket(bucket.getDay(), bucket.getMechanicId(), bucket.getCustomerId());
+    }
+
+    /**
+     * Recomputes several rollup rows, such as the rows a service is moved between. The locks of all affected
+     * customers are taken up front in ascending id order, so two transactions moving services in opposite
+     * directions between the same customers wait for each other instead of deadlocking.
+     *
+     * @param buckets the days, mechanics and customers to recompute, null entries are ignored
+     */
+    @Override
+    @Transactional
+    public void refreshBuckets(DailyRevenueRollupId... buckets) {
+        Arrays.stream(buckets)
+                .filter(Objects::nonNull)
+                .map(DailyRevenueRollupId::getCustomerId)
+                .distinct()
+                .sorted()
+                .forEach(dailyRevenueRollupRepository::lockCustomer);
+
+        Arrays.stream(buckets)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(this::refreshBucket);
+    }
+
+    /**
+     * Recomputes the rollup row a service belongs to.
+     *
+     * @param service service with data
+     */
+    @Override
+    @Transactional
+    public void refreshForService(Service service) {
+        refreshBucket(bucketOf(service));
+    }
+
+    /**
+     * Recomputes all rollup rows of a customer. Used when a customer or one of their vehicles
+     * is deleted or restored, since that cascades to all of their services.
+     *
+     * @param customerId the id of the customer, ignored if null
+     */
+    @Override
+    @Transactional
+    public void refreshForCustomer(Long customerId) {
+        if (customerId == null) {
+            return;
+        }
+
+        dailyRevenueRollupRepository.lockCustomer(customerId);
+        dailyRevenueRollupRepository.deleteByCustomer(customerId);
+        dailyRevenueRollupRepository.upsertByCustomer(customerId);
+    }
+
+    /**
+     * Rebuilds the whole rollup table from the stored totals of services.
+     */
+    @Override
+    @Transactional
+    public void rebuild() {
+        dailyRevenueRollupRepository.deleteAllRows();
+        dailyRevenueRollupRepository.upsertAll();
+    }
+}
@@ -0,0 +1,149 @@
+package com.mss.service.impl;
+
+import com.mss.repository.SchedulerLockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Service class making sure a scheduled job runs on only one instance at a time when several instances share a
+ * database. Before running, an instance acquires the lease of the job in the {@code scheduler_locks} table. While the
+ * job is running, a heartbeat extends the lease, so it only expires if the instance stops. Instances that find the
+ * lease held skip their run. A heartbeat that fails marks the lease as lost, so the job stops rather than run
+ * on without knowing whether it still holds the lease.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+public class SchedulerLockService {
+    /**
+     * The repository used to acquire, extend and release leases.
+     */
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    /**
+     * How long a lease lasts without a heartbeat, in milliseconds.
+     */
+    private final long leaseMillis;
+
+    /**
+     * Identifies this instance as the owner of its leases.
+     */
+    private final String owner;
+
+    /**
+     * Sends heartbeats. Kept apart from the task scheduler, whose only thread is busy running the job.
+     */
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scheduler-lock-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates the service.
+     *
+     * @param schedulerLockRepository the repository used to acquire, extend and release leases
+     * @param leaseMillis             how long a lease lasts without a heartbeat, in milliseconds
+     */
+    public SchedulerLockService(SchedulerLockRepository schedulerLockRepository,
+                                @Value("${application.scheduler-lock.lease}") long leaseMillis) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.leaseMillis = leaseMillis;
+        this.owner = hostName() + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * Runs a job if this instance acquires its lease, extending the lease every third of its duration until the job
+     * finishes and releasing it afterwards. Releasing only affects a lease this instance still owns.
+     *
+     * @param name the name of the job
+     * @param job  the job, given its lease so that long running jobs can stop once the lease is lost
+     * @return true if the job ran on this instance, false if another instance holds the lease
+     */
+    public boolean runExclusively(String name, Consumer<Lease> job) {
+        if (schedulerLockRepository.tryAcquire(name, owner, leaseMillis) == 0) {
+            return false;
+        }
+
+        Lease lease = new Lease();
+        long heartbeatMillis = Math.max(1, leaseMillis / 3);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleWithFixedDelay(() -> {
+            synchronized (lease) {
+                try {
+                    if (lease.held && schedulerLockRepository.extend(name, owner, leaseMillis) == 0) {
+                        lease.held = false;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Heartbeat of lease {} failed, stopping the job", name, e);
+                    lease.held = false;
+                }
+            }
+        }, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        try {
+            job.accept(lease);
+        } finally {
+            heartbeat.cancel(false);
+            synchronized (lease) {
+                lease.held = false;
+                schedulerLockRepository.release(name, owner);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the identifier this instance stores as the owner of its leases
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Stops sending heartbeats, letting leases of jobs still running expire.
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * The lease of a running job.
+     */
+    public static final class Lease {
+        private volatile boolean held = true;
+
+        private Lease() {
+        }
+
+        /**
+         * @return false once another instance has taken the lease over, after which the job should stop
+         */
+        public boolean isHeld() {
+            return held;
+        }
+    }
+}
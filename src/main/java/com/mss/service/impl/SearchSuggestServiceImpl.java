@@ -0,0 +1,357 @@
+package com.mss.service.impl;
+
+import com.mss.dto.SearchSuggestionDto;
+import com.mss.model.Customer;
+import com.mss.model.Vehicle;
+import com.mss.repository.CustomerRepository;
+import com.mss.repository.VehicleRepository;
+import com.mss.service.SearchSuggestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The SearchSuggestServiceImpl implements SearchSuggestService and
+ * serves type-ahead suggestions from an in-memory {@link NgramIndex} over customers and vehicles.
+ * The index is built when the application is ready and every change is applied after the
+ * surrounding transaction commits, so rolled back changes never become visible.
+ * Changes made on other nodes are picked up by a periodic refresh of the rows changed since the previous one.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@org.springframework.stereotype.Service
+@RequiredArgsConstructor
+public class SearchSuggestServiceImpl implements SearchSuggestService {
+    /**
+     * The repository used to retrieve customer data.
+     */
+    private final CustomerRepository customerRepository;
+
+    /**
+     * The repository used to retrieve vehicle data.
+     */
+    private final VehicleRepository vehicleRepository;
+
+    /**
+     * The in-memory index holding customers and vehicles that are not deleted.
+     * A rebuild fills a new index and swaps it in, so searches never see a partly built index.
+     */
+    private volatile NgramIndex index = new NgramIndex();
+
+    /**
+     * Guards the swap of the index and the changes buffered while a rebuild runs.
+     */
+    private final Object changeLock = new Object();
+
+    /**
+     * Changes committed while a rebuild runs, applied again to the new index once it is swapped in.
+     * Null when no rebuild runs.
+     */
+    private List<Runnable> pendingChanges;
+
+    /**
+     * The time from which the next refresh reads changed rows, null until the index is first built.
+     */
+    private Instant watermark;
+
+    /**
+     * How far before the start of the previous refresh the next one looks, in milliseconds.
+     * Covers clock skew between nodes and rows whose update time was set before their transaction committed.
+     */
+    @Value("${application.search.suggest-refresh-overlap}")
+    private long refreshOverlapMillis;
+
+    /**
+     * Number of suggestions returned when no limit is given.
+     */
+    private static final int DEFAULT_LIMIT = 10;
+
+    /**
+     * Largest number of suggestions a single request can ask for.
+     */
+    private static final int MAX_LIMIT = 50;
+
+    private static final String CUSTOMER = "CUSTOMER";
+
+    private static final String VEHICLE = "VEHICLE";
+
+    /**
+     * Finds the best matching customers and vehicles for a query of at least three characters.
+     *
+     * @param query the text typed by the user
+     * @param limit the maximum number of suggestions, defaults to 10 and is capped at 50
+     * @return a list of {@link SearchSuggestionDto} objects, best match first
+     */
+    @Override
+    public List<SearchSuggestionDto> suggest(String query, Integer limit) {
+        int size = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+
+        List<SearchSuggestionDto> suggestions = new ArrayList<>();
+        for (NgramIndex.Hit hit : index.search(query, size)) {
+            boolean isVehicle = (hit.key() & 1L) == 1L;
+            suggestions.add(new SearchSuggestionDto(isVehicle ? VEHICLE : CUSTOMER, hit.key() >> 1, hit.label(), hit.detail()));
+        }
+
+        return suggestions;
+    }
+
+    /**
+     * Adds or refreshes a customer and its vehicles once the current transaction commits.
+     *
+     * @param customer customer with data
+     */
+    @Override
+    public void indexCustomer(Customer customer) {
+        if (Boolean.TRUE.equals(customer.getDeleted())) {
+            removeCustomer(customer);
+            return;
+        }
+
+        Runnable putCustomer = customerEntry(customer);
+        List<Runnable> vehicleChanges = new ArrayList<>();
+        for (Vehicle vehicle : customer.getVehicles()) {
+            vehicleChanges.add(vehicleChange(vehicle));
+        }
+
+        afterCommit(() -> {
+            putCustomer.run();
+            vehicleChanges.forEach(Runnable::run);
+        });
+    }
+
+    /**
+     * Removes a customer and its vehicles once the current transaction commits.
+     *
+     * @param customer customer with data
+     */
+    @Override
+    public void removeCustomer(Customer customer) {
+        long customerKey = customerKey(customer.getId());
+        long[] vehicleKeys = customer.getVehicles().stream()
+                .mapToLong(vehicle -> vehicleKey(vehicle.getId()))
+                .toArray();
+
+        afterCommit(() -> {
+            index.remove(customerKey);
+            Arrays.stream(vehicleKeys).forEach(key -> index.remove(key));
+        });
+    }
+
+    /**
+     * Adds or refreshes a vehicle once the current transaction commits.
+     *
+     * @param vehicle vehicle with data
+     */
+    @Override
+    public void indexVehicle(Vehicle vehicle) {
+        afterCommit(vehicleChange(vehicle));
+    }
+
+    /**
+     * Removes a vehicle once the current transaction commits.
+     *
+     * @param vehicleId the id of the vehicle
+     */
+    @Override
+    public void removeVehicle(Long vehicleId) {
+        long vehicleKey = vehicleKey(vehicleId);
+        afterCommit(() -> index.remove(vehicleKey));
+    }
+
+    /**
+     * Rebuilds the index from all customers and vehicles that are not deleted.
+     * Runs once the application is ready to serve requests. The new index is swapped in once it is built,
+     * together with the changes committed in the meantime.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Instant since = Instant.now().minusMillis(refreshOverlapMillis);
+        synchronized (changeLock) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        NgramIndex rebuilt = new NgramIndex();
+        try {
+            for (Customer customer : customerRepository.findAllByDeleted(false)) {
+                put(rebuilt, customer);
+            }
+            for (Vehicle vehicle : vehicleRepository.findAllByDeleted(false)) {
+                put(rebuilt, vehicle);
+            }
+        } catch (RuntimeException e) {
+            synchronized (changeLock) {
+                pendingChanges = null;
+            }
+            throw e;
+        }
+
+        synchronized (changeLock) {
+            index = rebuilt;
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges = null;
+        }
+        watermark = since;
+    }
+
+    /**
+     * Applies the customers and vehicles created, changed or deleted since the previous refresh, on any node.
+     * Runs periodically once the index is built.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${application.search.suggest-refresh-interval}",
+            initialDelayString = "${application.search.suggest-refresh-interval}")
+    public synchronized void refresh() {
+        if (watermark == null) {
+            return;
+        }
+
+        Instant since = Instant.now().minusMillis(refreshOverlapMillis);
+        List<Runnable> changes = new ArrayList<>();
+        for (Customer customer : customerRepository.findAllChangedSince(watermark)) {
+            changes.add(customerChange(customer));
+        }
+        for (Vehicle vehicle : vehicleRepository.findAllChangedSince(watermark)) {
+            changes.add(vehicleChange(vehicle));
+        }
+
+        changes.forEach(this::apply);
+        watermark = since;
+    }
+
+    /**
+     * Reads the searchable values of a customer now, so the returned action does not touch the entity later.
+     */
+    private Runnable customerEntry(Customer customer) {
+        long key = customerKey(customer.getId());
+        String label = customer.getFirstname() + " " + customer.getLastname();
+        String detail = customer.getPhoneNumber();
+        List<String> fields = customerFields(customer, label);
+
+        return () -> index.put(key, label, detail, fields);
+    }
+
+    /**
+     * Reads a customer now like {@link #customerEntry}, deleted customers produce a removal.
+     */
+    private Runnable customerChange(Customer customer) {
+        if (Boolean.TRUE.equals(customer.getDeleted())) {
+            long key = customerKey(customer.getId());
+            return () -> index.remove(key);
+        }
+
+        return customerEntry(customer);
+    }
+
+    /**
+     * Adds a customer that is not deleted straight to the given index.
+     */
+    private static void put(NgramIndex target, Customer customer) {
+        String label = customer.getFirstname() + " " + customer.getLastname();
+        target.put(customerKey(customer.getId()), label, customer.getPhoneNumber(), customerFields(customer, label));
+    }
+
+    /**
+     * Returns the searchable values of a customer. The phone number is also indexed as digits only,
+     * so "064 123" and "064-123" both find "+381 64 123 456".
+     */
+    private static List<String> customerFields(Customer customer, String label) {
+        return Arrays.asList(
+                label,
+                customer.getPhoneNumber(),
+                customer.getPhoneNumber() == null ? null : customer.getPhoneNumber().replaceAll("[^0-9]", ""),
+                customer.getEmail(),
+                customer.getAddress());
+    }
+
+    /**
+     * Reads the searchable values of a vehicle now, so the returned action does not touch the entity later.
+     * Deleted vehicles produce a removal.
+     */
+    private Runnable vehicleChange(Vehicle vehicle) {
+        long key = vehicleKey(vehicle.getId());
+        if (Boolean.TRUE.equals(vehicle.getDeleted())) {
+            return () -> index.remove(key);
+        }
+
+        String label = vehicleLabel(vehicle);
+        String detail = vehicle.getVin();
+        List<String> fields = vehicleFields(vehicle);
+
+        return () -> index.put(key, label, detail, fields);
+    }
+
+    /**
+     * Adds a vehicle that is not deleted straight to the given index.
+     */
+    private static void put(NgramIndex target, Vehicle vehicle) {
+        target.put(vehicleKey(vehicle.getId()), vehicleLabel(vehicle), vehicle.getVin(), vehicleFields(vehicle));
+    }
+
+    private static String vehicleLabel(Vehicle vehicle) {
+        return vehicle.getManufacturer() + " " + vehicle.getModel() + " (" + vehicle.getVehiclePlate() + ")";
+    }
+
+    /**
+     * Returns the searchable values of a vehicle. The plate is also indexed without separators.
+     */
+    private static List<String> vehicleFields(Vehicle vehicle) {
+        return Arrays.asList(
+                vehicle.getManufacturer() + " " + vehicle.getModel(),
+                vehicle.getVehiclePlate(),
+                vehicle.getVehiclePlate() == null ? null : vehicle.getVehiclePlate().replaceAll("[^a-zA-Z0-9]", ""),
+                vehicle.getVin());
+    }
+
+    /**
+     * Runs the action after the current transaction commits, or right away when there is no transaction.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(action);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(action);
+            }
+        });
+    }
+
+    /**
+     * Applies a change to the current index, and buffers it while a rebuild runs so it is not lost with the old index.
+     * Changes only read the index field when they run, so a buffered change applies to the new index.
+     */
+    private void apply(Runnable change) {
+        synchronized (changeLock) {
+            change.run();
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    private static long customerKey(Long customerId) {
+        return customerId << 1;
+    }
+
+    private static long vehicleKey(Long vehicleId) {
+        return (vehicleId << 1) | 1L;
+    }
+}
@@ -6,6 +6,7 @@ import com.mss.mapper.UserMapper;
 import com.mss.mapper.VehicleMapper;
 import com.mss.model.*;
 import com.mss.repository.*;
+import com.mss.service.RevenueRollupService;
 import com.mss.service.ServiceService;
 import com.mss.service.ServiceTypeService;
 import jakarta.persistence.EntityManager;
@@ -22,9 +23,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * The ServiceServiceImpl implements ServiceService and
@@ -58,6 +57,21 @@ public class ServiceServiceImpl implements ServiceService {
      */
     private final ServiceCustomRepository serviceCustomRepository;
 
+    /**
+     * The repository used to read list DTOs without loading entities.
+     */
+    private final ProjectionRepository projectionRepository;
+
+    /**
+     * The repository used to retrieve pre-aggregated revenue data.
+     */
+    private final DailyRevenueRollupRepository dailyRevenueRollupRepository;
+
+    /**
+     * The service used to keep pre-aggregated revenue data current.
+     */
+    private final RevenueRollupService revenueRollupService;
+
     /**
      * The repository used to retrieve user data.
      */
@@ -68,11 +82,6 @@ public class ServiceServiceImpl implements ServiceService {
      */
     private final VehicleRepository vehicleRepository;
 
-    /**
-     * The repository used to retrieve customer data.
-     */
-    private final CustomerRepository customerRepository;
-
     /**
      * The mapper used to convert service data between ServiceDto and Service entities.
      */
@@ -114,80 +123,40 @@ public class ServiceServiceImpl implements ServiceService {
     }
 
     /**
-     * Counts the number of services based on their deletion status.
-     *
-     * @param isDeleted A boolean indicating the deletion status of services to be counted.
-     *                  If {@code true}, counts only deleted services.
-     *                  If {@code false}, counts only active services.
-     * @return The total number of services matching the specified deletion status.
-     */
-    @Override
-    public Integer getServicesForCount(boolean isDeleted, TwoDateDto twoDateDto) {
-        Session session = entityManager.unwrap(Session.class);
-        Filter filter = session.enableFilter(SERVICE_FILTER);
-        filter.setParameter("isDeleted", isDeleted);
-        List<Service> services = serviceRepository.findServicesByDateRange(twoDateDto.getStartDate(), twoDateDto.getEndDate());
-
-        session.disableFilter(SERVICE_FILTER);
-
-        return services.size();
-    }
-
-    /**
-     * Gets the revenue based on two dates.
+     * Gets revenue, number of parts and number of services for services started between two dates.
+     * Revenue, parts and services are aggregated in one grouped query. Active services are read from
+     * the daily revenue rollup, so the cost depends on the number of days rather than services in the range.
      *
      * @param isDeleted  A boolean indicating the deletion status of services to be counted.
      *                   If {@code true}, counts only deleted services.
      *                   If {@code false}, counts only active services.
-     * @param twoDateDto
-     * @return The total number of services matching the specified deletion status.
+     * @param twoDateDto two dates for range when service could have started.
+     * @return a {@link CountsDto} containing revenue, parts and services counts.
+     * @throws IllegalArgumentException if the {@code twoDateDto} is null, or its start and end dates are null.
      */
     @Override
-    public double getRevenue(boolean isDeleted, TwoDateDto twoDateDto) {
-        double revenue = 0;
-        Session session = entityManager.unwrap(Session.class);
-        Filter filter = session.enableFilter(SERVICE_FILTER);
-        filter.setParameter("isDeleted", isDeleted);
-        List<Service> services = serviceRepository.findServicesByDateRange(twoDateDto.getStartDate(), twoDateDto.getEndDate());
-
-        for (Service service : services) {
-            revenue += serviceTypeService.findRevenueForService(isDeleted, service);
+    public CountsDto getCounts(boolean isDeleted, TwoDateDto twoDateDto) {
+        if (twoDateDto == null || twoDateDto.getStartDate() == null || twoDateDto.getEndDate() == null) {
+            throw new IllegalArgumentException("Start and end dates must not be null");
         }
 
-        session.disableFilter(SERVICE_FILTER);
-        return revenue;
-    }
+        ServiceKpiDto kpis = isDeleted
+                ? serviceRepository.aggregateKpisByDateRange(true, twoDateDto.getStartDate(), twoDateDto.getEndDate())
+                : dailyRevenueRollupRepository.sumKpisByDateRange(twoDateDto.getStartDate(), twoDateDto.getEndDate());
 
-    /**
-     * Gets the number of parts based on two dates.
-     *
-     * @param isDeleted  A boolean indicating the deletion status of services to be counted.
-     *                   If {@code true}, counts only deleted services.
-     *                   If {@code false}, counts only active services.
-     * @param twoDateDto tho dates for range when service could have started.
-     * @return The total number of services matching the specified deletion status.
-     */
-    @Override
-    public Integer getParts(boolean isDeleted, TwoDateDto twoDateDto) {
-        Integer numberOfParts = 0;
-
-        Session session = entityManager.unwrap(Session.class);
-        Filter filter = session.enableFilter(SERVICE_FILTER);
-        filter.setParameter("isDeleted", isDeleted);
-        List<Service> services = serviceRepository.findServicesByDateRange(twoDateDto.getStartDate(), twoDateDto.getEndDate());
-
-        for (Service service : services) {
-            numberOfParts += serviceTypeService.findNumberOfPartsForService(isDeleted, service);
-        }
+        CountsDto counts = new CountsDto();
+        counts.setRevenue(kpis.getRevenue());
+        counts.setParts(Math.toIntExact(kpis.getParts()));
+        counts.setServices(Math.toIntExact(kpis.getServices()));
 
-        session.disableFilter(SERVICE_FILTER);
-        return numberOfParts;
+        return counts;
     }
 
     /**
      * Retrieves a list of aggregated data for generating a pie chart.
      * This method calculates revenue grouped by specific criteria (e.g., service invoice code)
      * within the specified date range and based on the soft deletion status.
+     * Active services are read with their stored total amount, deleted services are summed by the database in a single query.
      *
      * @param isDeleted  a boolean flag indicating whether to include soft-deleted records (true) or not (false).
      * @param twoDateDto an object containing the start and end dates for filtering the data.
@@ -200,30 +169,17 @@ public class ServiceServiceImpl implements ServiceService {
             throw new IllegalArgumentException("Start and end dates must not be null");
         }
 
-        Session session = entityManager.unwrap(Session.class);
-        Filter filter = session.enableFilter(SERVICE_FILTER);
-        filter.setParameter("isDeleted", isDeleted);
-        List<Service> services = serviceRepository.findServicesByDateRange(twoDateDto.getStartDate(), twoDateDto.getEndDate());
-        List<PieChartServiceDto> pieChartServiceDtos;
-
-        pieChartServiceDtos = services.stream()
-                .map(service -> {
-                    PieChartServiceDto pieChartServiceDto = new PieChartServiceDto();
-                    pieChartServiceDto.setInvoiceCode(service.getInvoiceCode());
-                    pieChartServiceDto.setRevenue(serviceTypeService.findRevenueForService(isDeleted, service));
-                    return pieChartServiceDto;
-                })
-                .collect(Collectors.toList());
-
-        session.disableFilter(SERVICE_FILTER);
+        if (!isDeleted) {
+            return serviceRepository.findTotalAmountByDateRange(twoDateDto.getStartDate(), twoDateDto.getEndDate());
+        }
 
-        return pieChartServiceDtos;
+        return serviceRepository.sumRevenueByServiceAndDateRange(true, twoDateDto.getStartDate(), twoDateDto.getEndDate());
     }
 
     /**
      * Retrieves revenue information for mechanics within a specified date range.
-     * Groups the total revenue by mechanic and returns a list of DTOs containing
-     * each mechanic's name and total revenue.
+     * Groups the total revenue by mechanic in a single query and returns a list of DTOs containing
+     * each mechanic's name and total revenue. Active services are read from the daily revenue rollup.
      *
      * @param isDeleted  a boolean indicating whether to include deleted services.
      * @param twoDateDto an object containing the start and end dates for filtering services.
@@ -236,40 +192,16 @@ public class ServiceServiceImpl implements ServiceService {
             throw new IllegalArgumentException("Start and end dates must not be null");
         }
 
-        Session session = entityManager.unwrap(Session.class);
-        Filter filter = session.enableFilter(SERVICE_FILTER);
-        filter.setParameter("isDeleted", isDeleted);
-
-        List<Service> services = serviceRepository.findServicesByDateRange(twoDateDto.getStartDate(), twoDateDto.getEndDate());
-
-        Map<Long, Double> revenueByMechanic = services.stream()
-                .collect(Collectors.groupingBy(
-                        service -> service.getUser().getId(),
-                        Collectors.summingDouble(service -> serviceTypeService.findRevenueForService(isDeleted, service))
-                ));
-
-        List<PieChartMechanicDto> mechanicRevenueList = revenueByMechanic.entrySet().stream()
-                .map(entry -> {
-                    Long mechanicId = entry.getKey();
-                    Double revenue = entry.getValue();
-
-                    User user = userRepository.findById(mechanicId)
-                            .orElseThrow(() -> new IllegalArgumentException("Mechanic not found with ID: " + mechanicId));
-
-                    PieChartMechanicDto dto = new PieChartMechanicDto();
-                    dto.setMechanicName(user.getFirstname() + " " + user.getLastname());
-                    dto.setRevenue(revenue);
-                    return dto;
-                })
-                .collect(Collectors.toList());
-
-        session.disableFilter(SERVICE_FILTER);
+        if (!isDeleted) {
+            return dailyRevenueRollupRepository.sumRevenueByMechanicAndDateRange(twoDateDto.getStartDate(), twoDateDto.getEndDate());
+        }
 
-        return mechanicRevenueList;
+        return serviceRepository.sumRevenueByMechanicAndDateRange(true, twoDateDto.getStartDate(), twoDateDto.getEndDate());
     }
 
     /**
      * Retrieves data for a pie chart representing Customer information for revenue.
+     * Revenue is grouped by customer in a single query. Active services are read from the daily revenue rollup.
      *
      * @param isDeleted  a boolean indicating whether to include only deleted data (true)
      *                   or non-deleted data (false) in the result.
@@ -284,36 +216,11 @@ public class ServiceServiceImpl implements ServiceService {
             throw new IllegalArgumentException("Start and end dates must not be null");
         }
 
-        Session session = entityManager.unwrap(Session.class);
-        Filter filter = session.enableFilter(SERVICE_FILTER);
-        filter.setParameter("isDeleted", isDeleted);
-
-        List<Service> services = serviceRepository.findServicesByDateRange(twoDateDto.getStartDate(), twoDateDto.getEndDate());
-
-        Map<Long, Double> revenueByCustomer = services.stream()
-                .collect(Collectors.groupingBy(
-                        service -> service.getVehicle().getCustomer().getId(),
-                        Collectors.summingDouble(service -> serviceTypeService.findRevenueForService(isDeleted, service))
-                ));
-
-        List<PieChartCustomerDto> customerRevenueList = revenueByCustomer.entrySet().stream()
-                .map(entry -> {
-                    Long customerId = entry.getKey();
-                    Double revenue = entry.getValue();
-
-                    Customer customer = customerRepository.findById(customerId)
-                            .orElseThrow(() -> new IllegalArgumentException("Customer not found with ID: " + customerId));
-
-                    PieChartCustomerDto dto = new PieChartCustomerDto();
-                    dto.setCustomerName(customer.getFirstname() + " " + customer.getLastname());
-                    dto.setRevenue(revenue);
-                    return dto;
-                })
-                .collect(Collectors.toList());
-
-        session.disableFilter(SERVICE_FILTER);
+        if (!isDeleted) {
+            return dailyRevenueRollupRepository.sumRevenueByCustomerAndDateRange(twoDateDto.getStartDate(), twoDateDto.getEndDate());
+        }
 
-        return customerRevenueList;
+        return serviceRepository.sumRevenueByCustomerAndDateRange(true, twoDateDto.getStartDate(), twoDateDto.getEndDate());
     }
 
     /**
@@ -323,13 +230,7 @@ public class ServiceServiceImpl implements ServiceService {
      */
     @Override
     public List<ServiceDto> getAllServices(boolean isDeleted) {
-        Session session = entityManager.unwrap(Session.class);
-        Filter filter = session.enableFilter(SERVICE_FILTER);
-        filter.setParameter("isDeleted", isDeleted);
-        List<Service> services = serviceRepository.findAll();
-        session.disableFilter(SERVICE_FILTER);
-
-        return serviceMapper.serviceToServiceDtos(services);
+        return projectionRepository.findServices(isDeleted);
     }
 
     /**
@@ -346,6 +247,7 @@ public class ServiceServiceImpl implements ServiceService {
      * @throws ResponseStatusException if the user or vehicle with the provided IDs does not exist.
      */
     @Override
+    @Transactional
     public ServiceDto saveService(ServiceCreateDto serviceCreateDto) {
         User user = userRepository.findOneById(serviceCreateDto.getUserId())
                 .map(userPresent -> {
@@ -371,7 +273,10 @@ public class ServiceServiceImpl implements ServiceService {
         service.setInvoiceCode(UUID.randomUUID().toString().substring(0, 8).toUpperCase());
         vehicleRepository.save(vehicle);
 
-        return serviceMapper.serviceToServiceDto(serviceRepository.save(service));
+        Service savedService = serviceRepository.save(service);
+        revenueRollupService.refreshForService(savedService);
+
+        return serviceMapper.serviceToServiceDto(savedService);
     }
 
     /**
@@ -381,7 +286,7 @@ public class ServiceServiceImpl implements ServiceService {
      */
     @Override
     public ServiceDto findServiceById(Long serviceId, boolean isDeleted) {
-        Service service = serviceRepository.findOneById(serviceId)
+        Service service = serviceRepository.findDetailById(serviceId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Service with this id doesn't exist"));
 
         return serviceMapper.serviceToServiceDto(service);
@@ -393,7 +298,7 @@ public class ServiceServiceImpl implements ServiceService {
     @Override
     @Transactional
     public void deleteService(Long serviceId) {
-        serviceRepository.findById(serviceId)
+        Service deletedService = serviceRepository.findById(serviceId)
                 .map(service -> {
                     if (Boolean.TRUE.equals(service.getDeleted())) {
                         throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Service is already deleted.");
@@ -408,6 +313,8 @@ public class ServiceServiceImpl implements ServiceService {
                             serviceTypeRepository.save(serviceType);
                         }
                     }
+                    service.setTotalAmount(0.0);
+                    service.setPartCount(0);
                     service.setDeletedAt(now);
                     entityManager.flush();
                     return service;
@@ -415,6 +322,7 @@ public class ServiceServiceImpl implements ServiceService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Service is not found."));
 
         serviceRepository.deleteById(serviceId);
+        revenueRollupService.refreshForService(deletedService);
     }
 
     /**
@@ -437,21 +345,40 @@ public class ServiceServiceImpl implements ServiceService {
         Filter filter = session.enableFilter(SERVICE_FILTER);
         filter.setParameter("isDeleted", isDeleted);
 
-        Page<Service> resultPage = serviceCustomRepository.findFilteredServices(serviceFiltersQueryDto, PageRequest.of(page, pageSize));
-        List<Service> services = resultPage.getContent();
+        Page<Long> resultPage = serviceCustomRepository.findFilteredServiceIds(serviceFiltersQueryDto, PageRequest.of(page, pageSize));
 
-        List<ServiceDto> serviceDtos = new ArrayList<ServiceDto>();
+        session.disableFilter(SERVICE_FILTER);
 
-        for (Service service : services) {
-            ServiceDto serviceDto = serviceMapper.serviceToServiceDto(service);
-            serviceDto.setRevenuePerService(serviceTypeService.findRevenueForService(false, service));
-            service.getServiceTypes();
-            serviceDtos.add(serviceDto);
-        }
+        List<ServiceDto> serviceDtos = projectionRepository.findServicesByIds(resultPage.getContent());
+
+        return new PageImpl<>(serviceDtos, resultPage.getPageable(), resultPage.getTotalElements());
+    }
+
+    /**
+     * Retrieves a keyset page of services based on the provided filters and deletion status.
+     * Instead of an offset, the page starts right after the row encoded in the cursor,
+     * so deep pages cost the same as the first one.
+     *
+     * @param isDeleted              a boolean indicating whether to include deleted services in the results.
+     * @param serviceFiltersQueryDto the {@link ServiceFiltersQueryDto} containing the filter criteria for services.
+     * @param cursor                 the cursor returned with the previous page, or blank for the first page.
+     * @param pageSize               the size of each page.
+     * @param withCount              whether the total number of matching rows should be counted.
+     * @return a {@link CursorPageDto} of {@link ServiceDto} objects with the cursor of the next page.
+     */
+    @Override
+    public CursorPageDto<ServiceDto> findFilteredServicesAfter(boolean isDeleted, ServiceFiltersQueryDto serviceFiltersQueryDto, String cursor, Integer pageSize, boolean withCount) {
+        Session session = entityManager.unwrap(Session.class);
+        Filter filter = session.enableFilter(SERVICE_FILTER);
+        filter.setParameter("isDeleted", isDeleted);
+
+        CursorPageDto<Long> resultPage = serviceCustomRepository.findFilteredServiceIdsAfter(serviceFiltersQueryDto, cursor, pageSize, withCount);
 
         session.disableFilter(SERVICE_FILTER);
 
-        return new PageImpl<>(serviceDtos, resultPage.getPageable(), resultPage.getTotalElements());
+        List<ServiceDto> serviceDtos = projectionRepository.findServicesByIds(resultPage.getContent());
+
+        return new CursorPageDto<>(serviceDtos, resultPage.getNextCursor(), resultPage.getTotalElements());
     }
 
     /**
@@ -472,18 +399,12 @@ public class ServiceServiceImpl implements ServiceService {
         Filter filter = session.enableFilter(SERVICE_FILTER);
         filter.setParameter("isDeleted", isDeleted);
 
-        Page<Service> resultPage = serviceCustomRepository.findFilteredServicesWithCustomer(serviceFiltersQueryDto, PageRequest.of(page, pageSize));
-        List<Service> services = resultPage.getContent();
-
-        List<ServiceWithUserDto> serviceWithUserDto = new ArrayList<ServiceWithUserDto>();
-
-        for (Service service : services) {
-            ServiceWithUserDto serviceDto = serviceMapper.serviceToServiceWithUserDto(service);
-            serviceWithUserDto.add(serviceDto);
-        }
+        Page<Long> resultPage = serviceCustomRepository.findFilteredServiceIdsWithCustomer(serviceFiltersQueryDto, PageRequest.of(page, pageSize));
 
         session.disableFilter(SERVICE_FILTER);
 
+        List<ServiceWithUserDto> serviceWithUserDto = projectionRepository.findServicesWithCustomerByIds(resultPage.getContent());
+
         return new PageImpl<>(serviceWithUserDto, resultPage.getPageable(), resultPage.getTotalElements());
     }
 
@@ -509,6 +430,8 @@ public class ServiceServiceImpl implements ServiceService {
         User user = userRepository.findOneById(serviceUpdateDto.getUserId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, " User with this id doesn't exist"));
 
+        DailyRevenueRollupId previousBucket = revenueRollupService.bucketOf(service);
+
         service.setUpdatedAt(Instant.now());
         service.setDeleted(serviceUpdateDto.getDeleted());
         service.setStartDate(serviceUpdateDto.getStartDate());
@@ -534,6 +457,9 @@ public class ServiceServiceImpl implements ServiceService {
         serviceRepository.save(service);
         entityManager.flush();
 
+        serviceTypeService.recalculateServiceTotals(service);
+        revenueRollupService.refreshBuckets(previousBucket, revenueRollupService.bucketOf(service));
+
         return serviceMapper.serviceToServiceDto(service);
     }
 }
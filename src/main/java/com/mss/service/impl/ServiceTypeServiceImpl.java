@@ -1,5 +1,6 @@
 package com.mss.service.impl;
 
+import com.mss.dto.ServiceTotalsDto;
 import com.mss.dto.ServiceTypeCreateDto;
 import com.mss.dto.ServiceTypeDto;
 import com.mss.dto.ServiceTypeFiltersQueryDto;
@@ -10,6 +11,7 @@ import com.mss.model.ServiceType;
 import com.mss.repository.ServiceRepository;
 import com.mss.repository.ServiceTypeCustomRepository;
 import com.mss.repository.ServiceTypeRepository;
+import com.mss.service.RevenueRollupService;
 import com.mss.service.ServiceTypeService;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
@@ -52,6 +54,11 @@ public class ServiceTypeServiceImpl implements ServiceTypeService {
      */
     private final ServiceRepository serviceRepository;
 
+    /**
+     * The service used to keep pre-aggregated revenue data current.
+     */
+    private final RevenueRollupService revenueRollupService;
+
     /**
      * The mapper used to convert service type data between ServiceTypeDto and ServiceType entities.
      */
@@ -79,7 +86,7 @@ public class ServiceTypeServiceImpl implements ServiceTypeService {
         Session session = entityManager.unwrap(Session.class);
         Filter filter = session.enableFilter(SERVICE_TYPE_FILTER);
         filter.setParameter("isDeleted", isDeleted);
-        List<ServiceType> serviceTypes = serviceTypeRepository.findAll();
+        List<ServiceType> serviceTypes = serviceTypeRepository.findAllDetailBy();
         session.disableFilter(SERVICE_TYPE_FILTER);
 
         return serviceTypeMapper.serviceTypesToServiceTypeDtos(serviceTypes);
@@ -93,6 +100,7 @@ public class ServiceTypeServiceImpl implements ServiceTypeService {
      * @throws ResponseStatusException if the service with the specified ID does not exist.
      */
     @Override
+    @Transactional
     public ServiceTypeDto saveServiceType(ServiceTypeCreateDto serviceTypeCreateDto) {
         Service service = serviceRepository.findOneById(serviceTypeCreateDto.getServiceId())
                 .map(servicePresent -> {
@@ -106,6 +114,8 @@ public class ServiceTypeServiceImpl implements ServiceTypeService {
         ServiceType serviceType = serviceTypeMapper.serviceTypeCreateDtoToServiceType(serviceTypeCreateDto);
         serviceType.setService(service);
         serviceTypeRepository.save(serviceType);
+        recalculateServiceTotals(service);
+        revenueRollupService.refreshForService(service);
 
         return serviceTypeMapper.serviceTypeToServiceTypeDto(serviceType);
     }
@@ -125,6 +135,8 @@ public class ServiceTypeServiceImpl implements ServiceTypeService {
         Service service = serviceRepository.findOneById(serviceTypeUpdateDto.getServiceId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, " Service with this id doesn't exist"));
 
+        Service previousService = serviceType.getService();
+
         serviceType.setUpdatedAt(Instant.now());
         serviceType.setTypeOfService(serviceTypeUpdateDto.getTypeOfService());
         serviceType.setDeleted(serviceTypeUpdateDto.getDeleted());
@@ -140,6 +152,12 @@ public class ServiceTypeServiceImpl implements ServiceTypeService {
 
         serviceTypeRepository.save(serviceType);
         entityManager.flush();
+
+        recalculateServiceTotals(previousService);
+        recalculateServiceTotals(service);
+        revenueRollupService.refreshBuckets(revenueRollupService.bucketOf(previousService),
+                revenueRollupService.bucketOf(service));
+
         return serviceTypeMapper.serviceTypeToServiceTypeDto(serviceType);
     }
 
@@ -152,60 +170,29 @@ public class ServiceTypeServiceImpl implements ServiceTypeService {
      */
     @Override
     public ServiceTypeDto findServiceTypeById(Long serviceTypeId) {
-        ServiceType serviceType = serviceTypeRepository.findOneById(serviceTypeId)
+        ServiceType serviceType = serviceTypeRepository.findDetailById(serviceTypeId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Service type with this id doesn't exist"));
 
         return serviceTypeMapper.serviceTypeToServiceTypeDto(serviceType);
     }
 
     /**
-     * Finds a service type by their unique identifier.
-     *
-     * @param service service with data
-     * @return a revenue from one service
-     */
-    @Override
-    public double findRevenueForService(boolean isDeleted, Service service) {
-        double revenueOfService = 0;
-
-        Session session = entityManager.unwrap(Session.class);
-        Filter filter = session.enableFilter(SERVICE_TYPE_FILTER);
-        filter.setParameter("isDeleted", isDeleted);
-        List<ServiceType> serviceTypes = serviceTypeRepository.findAllByServiceId(service.getId());
-
-        for (ServiceType serviceType : serviceTypes) {
-            revenueOfService += serviceType.getPrice() * serviceType.getQuantity();
-        }
-
-        session.disableFilter(SERVICE_TYPE_FILTER);
-
-        return revenueOfService;
-    }
-
-    /**
-     * Finds a number of parts for service.
+     * Recalculates total amount and number of parts of a service from its service types that are not deleted.
+     * Pending changes of service types are flushed before the sum is read, so the result includes them.
      *
-     * @param service   service with data
-     * @return a revenue from one service
+     * @param service service with data, ignored if null
      */
     @Override
-    public Integer findNumberOfPartsForService(boolean isDeleted, Service service) {
-        Integer parts = 0;
-
-        Session session = entityManager.unwrap(Session.class);
-        Filter filter = session.enableFilter(SERVICE_TYPE_FILTER);
-        filter.setParameter("isDeleted", isDeleted);
-        List<ServiceType> serviceTypes = serviceTypeRepository.findAllByServiceId(service.getId());
-
-        for (ServiceType serviceType : serviceTypes) {
-            if (serviceType.getPartCode() != null) {
-                parts++;
-            }
+    @Transactional
+    public void recalculateServiceTotals(Service service) {
+        if (service == null) {
+            return;
         }
 
-        session.disableFilter(SERVICE_TYPE_FILTER);
-
-        return parts;
+        ServiceTotalsDto totals = serviceTypeRepository.sumTotalsByServiceId(service.getId());
+        service.setTotalAmount(totals.getTotalAmount());
+        service.setPartCount(Math.toIntExact(totals.getPartCount()));
+        serviceRepository.save(service);
     }
 
     /**
@@ -216,7 +203,7 @@ public class ServiceTypeServiceImpl implements ServiceTypeService {
     @Override
     @Transactional
     public void deleteServiceType(Long serviceTypeId) {
-        serviceTypeRepository.findById(serviceTypeId)
+        ServiceType deletedServiceType = serviceTypeRepository.findById(serviceTypeId)
                 .map(service -> {
                     if (Boolean.TRUE.equals(service.getDeleted())) {
                         throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Service Type is already deleted.");
@@ -231,6 +218,8 @@ public class ServiceTypeServiceImpl implements ServiceTypeService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Service Type is not found."));
 
         serviceTypeRepository.deleteById(serviceTypeId);
+        recalculateServiceTotals(deletedServiceType.getService());
+        revenueRollupService.refreshForService(deletedServiceType.getService());
     }
 
     /**
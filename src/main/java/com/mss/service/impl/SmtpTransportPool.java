@@ -0,0 +1,128 @@
+package com.mss.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Service class keeping connections to the mail server open between emails. Connecting, upgrading to TLS and
+ * authenticating take several round trips, so every email sent over a kept connection saves them.
+ * Each connection sends one email at a time. Connections are kept for a limited time without use,
+ * and checked before they are reused, because mail servers close idle connections.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class SmtpTransportPool {
+    /**
+     * Opens connections with the session, server and credentials of the application.
+     */
+    private final JavaMailSenderImpl mailSender;
+
+    /**
+     * Idle connections, most recently used first.
+     */
+    private final BlockingDeque<IdleTransport> idle;
+
+    /**
+     * How long a connection is kept without use, in milliseconds.
+     */
+    private final long idleTimeoutMillis;
+
+    /**
+     * Creates the pool.
+     *
+     * @param mailSender        opens connections with the session, server and credentials of the application
+     * @param connections       the maximum number of idle connections kept
+     * @param idleTimeoutMillis how long a connection is kept without use, in milliseconds
+     */
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${application.email.connections}") int connections,
+                             @Value("${application.email.idle-timeout}") long idleTimeoutMillis) {
+        this.mailSender = mailSender;
+        this.idle = new LinkedBlockingDeque<>(connections);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Sends an email over an idle connection, or over a new one if none is left.
+     * The connection is kept if the email was sent, and closed otherwise.
+     *
+     * @param message the email, created by the session of the mail sender
+     * @throws MessagingException if the email could not be sent
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+
+        Transport transport = borrow();
+        boolean sent = false;
+        try {
+            transport.sendMessage(message, message.getAllRecipients());
+            sent = true;
+        } finally {
+            if (!sent || !idle.offerFirst(new IdleTransport(transport, System.currentTimeMillis()))) {
+                close(transport);
+            }
+        }
+    }
+
+    private Transport borrow() throws MessagingException {
+        IdleTransport candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - candidate.since < idleTimeoutMillis && candidate.transport.isConnected()) {
+                return candidate.transport;
+            }
+            close(candidate.transport);
+        }
+
+        Transport transport = mailSender.getSession().getTransport();
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+
+        return transport;
+    }
+
+    /**
+     * Closes the idle connections.
+     */
+    @PreDestroy
+    public void shutdown() {
+        IdleTransport candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            close(candidate.transport);
+        }
+    }
+
+    private static void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            // The connection is dropped either way.
+        }
+    }
+
+    /**
+     * A connection waiting to be reused, and when it was last used.
+     */
+    private static final class IdleTransport {
+        private final Transport transport;
+        private final long since;
+
+        private IdleTransport(Transport transport, long since) {
+            this.transport = transport;
+            this.since = since;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.mss.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class keeping recently validated access tokens in memory, so authenticated requests
+ * do not read the token and the user from the database.
+ * An entry lives at most for the configured time to live and never past the expiry of the token itself.
+ * Evictions happen immediately and once more after the surrounding transaction commits, so a request
+ * running concurrently with a revocation cannot cache the state read before the commit.
+ * Evictions reach the caches of other instances of the application through {@link TokenEvictionService}.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class TokenCache {
+    /**
+     * The cached tokens, keyed by the compact JWT.
+     */
+    private final Cache<String, CachedToken> tokens;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maximumSize the maximum number of cached tokens
+     * @param timeToLive  the maximum time in milliseconds a token stays cached
+     */
+    public TokenCache(@Value("${application.security.token-cache.maximum-size}") long maximumSize,
+                      @Value("${application.security.token-cache.time-to-live}") long timeToLive) {
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, CachedToken>() {
+                    @Override
+                    public long expireAfterCreate(String jwt, CachedToken token, long currentTime) {
+                        long untilExpiry = token.expiresAt() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, Math.min(timeToLive, untilExpiry)));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String jwt, CachedToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(jwt, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String jwt, CachedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the user of a token that was validated recently.
+     *
+     * @param jwt the JWT token
+     * @return the user details, or null if the token has to be validated against the database
+     */
+    public UserDetails get(String jwt) {
+        CachedToken token = tokens.getIfPresent(jwt);
+
+        return token != null ? token.userDetails() : null;
+    }
+
+    /**
+     * Caches a token that is stored, not revoked and not expired.
+     *
+     * @param jwt         the JWT token
+     * @param userDetails the user the token belongs to
+     * @param userId      the id of the user
+     * @param expiration  the expiration date of the token
+     */
+    public void put(String jwt, UserDetails userDetails, Long userId, Date expiration) {
+        tokens.put(jwt, new CachedToken(userDetails, userId, expiration.getTime()));
+    }
+
+    /**
+     * Removes a single token.
+     *
+     * @param jwt the JWT token
+     */
+    public void evict(String jwt) {
+        evictNowAndAfterCommit(() -> tokens.invalidate(jwt));
+    }
+
+    /**
+     * Removes every token of a user.
+     *
+     * @param userId the id of the user
+     */
+    public void evictUser(Long userId) {
+        evictNowAndAfterCommit(() -> tokens.asMap().values().removeIf(token -> userId.equals(token.userId())));
+    }
+
+    private void evictNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private record CachedToken(UserDetails userDetails, Long userId, long expiresAt) {
+    }
+}
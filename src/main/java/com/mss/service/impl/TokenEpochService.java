@@ -0,0 +1,97 @@
+package com.mss.service.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.mss.model.User;
+import com.mss.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class revoking tokens by token epoch. Every token carries the epoch of its user at the time
+ * it was issued, and advancing the epoch revokes all tokens issued before.
+ * Current epochs are kept in memory, so validating a token reads neither the token table nor the user.
+ * Other instances of the application evict a revoked epoch once they poll the eviction recorded by
+ * {@link TokenEvictionService}, and an epoch stays cached at most for the configured time to live.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class TokenEpochService {
+    /**
+     * The repository used to retrieve and store user data.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * The current token epochs, keyed by the id of the user.
+     */
+    private final LoadingCache<Long, Long> epochs;
+
+    /**
+     * Creates the service.
+     *
+     * @param userRepository the repository used to retrieve and store user data
+     * @param maximumSize    the maximum number of cached epochs
+     * @param timeToLive     the maximum time in milliseconds an epoch stays cached
+     */
+    public TokenEpochService(UserRepository userRepository,
+                             @Value("${application.security.token-cache.maximum-size}") long maximumSize,
+                             @Value("${application.security.token-cache.time-to-live}") long timeToLive) {
+        this.userRepository = userRepository;
+        this.epochs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive, TimeUnit.MILLISECONDS)
+                .build(userId -> userRepository.findTokenEpochById(userId).orElse(null));
+    }
+
+    /**
+     * Checks if a token was issued with the current epoch of its user.
+     *
+     * @param userId the id of the user taken from the token
+     * @param epoch  the epoch taken from the token
+     * @return true if the token is not revoked, false otherwise
+     */
+    public boolean isCurrent(Long userId, Long epoch) {
+        if (userId == null || epoch == null) {
+            return false;
+        }
+
+        return epoch.equals(epochs.get(userId));
+    }
+
+    /**
+     * Revokes every token of a user by advancing the token epoch of the user.
+     *
+     * @param user the user whose tokens should be revoked
+     */
+    public void revokeAll(User user) {
+        user.setTokenEpoch(user.getTokenEpoch() + 1);
+        userRepository.save(user);
+        evict(user.getId());
+    }
+
+    /**
+     * Removes the cached epoch of a user, immediately and once more after the surrounding transaction commits.
+     *
+     * @param userId the id of the user
+     */
+    public void evict(Long userId) {
+        epochs.invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    epochs.invalidate(userId);
+                }
+            });
+        }
+    }
+}
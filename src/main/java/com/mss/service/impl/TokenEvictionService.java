@@ -0,0 +1,76 @@
+package com.mss.service.impl;
+
+import com.mss.model.TokenEviction;
+import com.mss.repository.TokenEvictionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Service class evicting the cached tokens and token epoch of a user on every instance of the application.
+ * An eviction is applied to the caches of this instance right away and recorded in the database, and every
+ * instance polls the recorded evictions, so a revoked token is rejected everywhere within the poll interval
+ * instead of being accepted until it expires from the cache of another instance.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenEvictionService {
+    /**
+     * The repository used to record and poll evictions.
+     */
+    private final TokenEvictionRepository tokenEvictionRepository;
+
+    /**
+     * Cache of validated tokens.
+     */
+    private final TokenCache tokenCache;
+
+    /**
+     * Cache of current token epochs.
+     */
+    private final TokenEpochService tokenEpochService;
+
+    /**
+     * How far before the previous poll the next one looks, in milliseconds.
+     * Covers clock skew between instances and evictions recorded before their transaction committed.
+     */
+    @Value("${application.security.token-cache.eviction-overlap}")
+    private long overlapMillis;
+
+    /**
+     * The time from which the next poll reads evictions. Caches start empty, so earlier evictions do not matter.
+     */
+    private Instant watermark = Instant.now();
+
+    /**
+     * Evicts the cached tokens and token epoch of a user on every instance.
+     * Joins the surrounding transaction, so the eviction is published only if the change causing it commits.
+     *
+     * @param userId the id of the user
+     */
+    public void evictUser(Long userId) {
+        tokenCache.evictUser(userId);
+        tokenEpochService.evict(userId);
+        tokenEvictionRepository.save(new TokenEviction(null, userId, Instant.now()));
+    }
+
+    /**
+     * Applies the evictions recorded by any instance since the previous poll.
+     */
+    @Scheduled(fixedDelayString = "${application.security.token-cache.eviction-poll-interval}")
+    public synchronized void poll() {
+        Instant since = Instant.now().minusMillis(overlapMillis);
+        for (Long userId : tokenEvictionRepository.findUserIdsEvictedSince(watermark)) {
+            tokenCache.evictUser(userId);
+            tokenEpochService.evict(userId);
+        }
+        watermark = since;
+    }
+}
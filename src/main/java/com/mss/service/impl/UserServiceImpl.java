@@ -49,6 +49,11 @@ public class UserServiceImpl implements UserService {
      */
     private final TokenRepository tokenRepository;
 
+    /**
+     * Evicts cached tokens on every instance when a user changes or is deleted.
+     */
+    private final TokenEvictionService tokenEvictionService;
+
     /**
      * The repository used to retrieve token data.
      */
@@ -192,6 +197,7 @@ public class UserServiceImpl implements UserService {
             user.setDateOfBirth(userUpdateDto.getDateOfBirth());
             user.setAddress(userUpdateDto.getAddress());
             userRepository.save(user);
+            tokenEvictionService.evictUser(user.getId());
 
             return userMapper.userToUserUpdateDto(user);
         } else {
@@ -220,6 +226,7 @@ public class UserServiceImpl implements UserService {
         user.setAddress(userUpdateDto.getAddress());
         user.setDeleted(userUpdateDto.getDeleted());
         userRepository.save(user);
+        tokenEvictionService.evictUser(user.getId());
 
         return userMapper.userToUserUpdateDto(user);
     }
@@ -272,6 +279,7 @@ public class UserServiceImpl implements UserService {
                     user.getTokens().forEach(token -> {
                         tokenRepository.permanentlyDeleteTokenById(token.getId());
                     });
+                    tokenEvictionService.evictUser(user.getId());
 
                     userRepository.save(user);
                     userRepository.flush();
@@ -308,4 +316,30 @@ public class UserServiceImpl implements UserService {
 
         return new PageImpl<>(userDtos, resultPage.getPageable(), resultPage.getTotalElements());
     }
+
+    /**
+     * Retrieves a keyset page of users based on the provided filters and deletion status.
+     * Instead of an offset, the page starts right after the row encoded in the cursor,
+     * so deep pages cost the same as the first one.
+     *
+     * @param isDeleted           a boolean indicating whether to include deleted users in the results.
+     * @param userFiltersQueryDto the {@link UserFiltersQueryDto} containing the filter criteria for users.
+     * @param cursor              the cursor returned with the previous page, or blank for the first page.
+     * @param pageSize            the size of each page.
+     * @param withCount           whether the total number of matching rows should be counted.
+     * @return a {@link CursorPageDto} of {@link UserDto} objects with the cursor of the next page.
+     */
+    @Override
+    public CursorPageDto<UserDto> findFilteredUsersAfter(boolean isDeleted, UserFiltersQueryDto userFiltersQueryDto, String cursor, Integer pageSize, boolean withCount) {
+        Session session = entityManager.unwrap(Session.class);
+        Filter filter = session.enableFilter(USER_FILTER);
+        filter.setParameter("isDeleted", isDeleted);
+
+        CursorPageDto<User> resultPage = userCustomRepository.findFilteredUsersAfter(userFiltersQueryDto, cursor, pageSize, withCount);
+        List<UserDto> userDtos = userMapper.usersToUserDtos(resultPage.getContent());
+
+        session.disableFilter(USER_FILTER);
+
+        return new CursorPageDto<>(userDtos, resultPage.getNextCursor(), resultPage.getTotalElements());
+    }
 }
@@ -1,14 +1,16 @@
 package com.mss.service.impl;
 
+import com.mss.dto.CursorPageDto;
 import com.mss.dto.VehicleCreateDto;
 import com.mss.dto.VehicleDto;
 import com.mss.dto.VehicleFiltersQueryDto;
 import com.mss.dto.VehicleUpdateDto;
 import com.mss.mapper.VehicleMapper;
 import com.mss.model.Customer;
-import com.mss.model.ServiceType;
 import com.mss.model.Vehicle;
 import com.mss.repository.*;
+import com.mss.service.RevenueRollupService;
+import com.mss.service.SearchSuggestService;
 import com.mss.service.VehicleService;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
@@ -57,11 +59,26 @@ public class VehicleServiceImpl implements VehicleService {
      */
     private final VehicleCustomRepository vehicleCustomRepository;
 
+    /**
+     * The repository used to read list DTOs without loading entities.
+     */
+    private final ProjectionRepository projectionRepository;
+
     /**
      * The repository used to retrieve customer data.
      */
     private final CustomerRepository customerRepository;
 
+    /**
+     * The service used to keep pre-aggregated revenue data current.
+     */
+    private final RevenueRollupService revenueRollupService;
+
+    /**
+     * The service used to keep type-ahead suggestions current.
+     */
+    private final SearchSuggestService searchSuggestService;
+
     /**
      * The mapper used to convert vehicle data between VehicleDto and Vehicle entities.
      */
@@ -99,13 +116,7 @@ public class VehicleServiceImpl implements VehicleService {
      */
     @Override
     public List<VehicleDto> getAllVehicles(boolean isDeleted) {
-        Session session = entityManager.unwrap(Session.class);
-        Filter filter = session.enableFilter(VEHICLE_FILTER);
-        filter.setParameter("isDeleted", isDeleted);
-        List<Vehicle> vehicles = vehicleRepository.findAll();
-        session.disableFilter(VEHICLE_FILTER);
-
-        return vehicleMapper.vehiclesToVehicleDtos(vehicles);
+        return projectionRepository.findVehicles(isDeleted);
     }
 
     /**
@@ -117,7 +128,7 @@ public class VehicleServiceImpl implements VehicleService {
      */
     @Override
     public VehicleDto findVehicleById(Long vehicleId) {
-        Vehicle vehicle = vehicleRepository.findOneById(vehicleId)
+        Vehicle vehicle = vehicleRepository.findDetailById(vehicleId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, " Vehicle with this id doesn't exist"));
 
         return vehicleMapper.vehicleToVehicleDto(vehicle);
@@ -160,6 +171,7 @@ public class VehicleServiceImpl implements VehicleService {
         vehicle.setCustomer(customer);
         vehicle.setVin(vehicle.getVin().toUpperCase());
         vehicleRepository.save(vehicle);
+        searchSuggestService.indexVehicle(vehicle);
 
         return vehicleMapper.vehicleToVehicleDto(vehicle);
     }
@@ -172,7 +184,7 @@ public class VehicleServiceImpl implements VehicleService {
     @Override
     @Transactional
     public void deleteVehicle(Long vehicleId) {
-        vehicleRepository.findById(vehicleId)
+        Vehicle deletedVehicle = vehicleRepository.findById(vehicleId)
                 .map(vehicle -> {
                     if (Boolean.TRUE.equals(vehicle.getDeleted())) {
                         throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Vehicle is already deleted.");
@@ -180,28 +192,22 @@ public class VehicleServiceImpl implements VehicleService {
 
                     Instant now = Instant.now();
 
-                    for (com.mss.model.Service service : vehicle.getServices()) {
-                        if (Boolean.FALSE.equals(service.getDeleted())) {
-
-                            for (ServiceType serviceType : service.getServiceTypes()) {
-                                if (Boolean.FALSE.equals(serviceType.getDeleted()) && Boolean.FALSE.equals(serviceType.getDeletedByCascade())) {
-                                    serviceType.setDeletedByCascade(true);
-                                    serviceType.setDeletedAt(now);
-                                    serviceTypeRepository.save(serviceType);
-                                }
-                            }
-                            service.setDeletedByCascade(true);
-                            service.setDeletedAt(now);
-                            serviceRepository.save(service);
-                        }
-                    }
+                    serviceTypeRepository.cascadeDeleteByVehicleId(vehicleId, now);
+                    serviceRepository.cascadeDeleteByVehicleId(vehicleId, now);
+
+                    vehicle.setDeleted(true);
                     vehicle.setDeletedAt(now);
+                    vehicle.setUpdatedAt(now);
                     entityManager.flush();
                     return vehicle;
                 })
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Vehicle is not found."));
 
-        vehicleRepository.deleteById(vehicleId);
+        searchSuggestService.removeVehicle(vehicleId);
+
+        if (deletedVehicle.getCustomer() != null) {
+            revenueRollupService.refreshForCustomer(deletedVehicle.getCustomer().getId());
+        }
     }
 
     /**
@@ -226,6 +232,8 @@ public class VehicleServiceImpl implements VehicleService {
         Customer customer = customerRepository.findOneById(vehicleUpdateDto.getCustomerId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, " Customer with this id doesn't exist"));
 
+        Long previousCustomerId = vehicle.getCustomer() != null ? vehicle.getCustomer().getId() : null;
+
         vehicle.setUpdatedAt(Instant.now());
         vehicle.setYearOfManufacture(vehicleUpdateDto.getYearOfManufacture());
         vehicle.setModel(vehicleUpdateDto.getModel());
@@ -239,25 +247,18 @@ public class VehicleServiceImpl implements VehicleService {
             vehicle.setDeletedAt(null);
         }
 
-        for (com.mss.model.Service service : vehicle.getServices()) {
-            if (Boolean.TRUE.equals(service.getDeletedByCascade()) && Boolean.TRUE.equals(service.getDeleted())) {
-                service.setDeleted(false);
-                service.setDeletedByCascade(false);
-                service.setDeletedAt(null);
-
-                for (ServiceType serviceType : service.getServiceTypes()) {
-                    if (Boolean.TRUE.equals(serviceType.getDeletedByCascade()) && Boolean.TRUE.equals(serviceType.getDeleted())) {
-                        serviceType.setDeleted(false);
-                        serviceType.setDeletedByCascade(false);
-                        serviceType.setDeletedAt(null);
-                        serviceTypeRepository.save(serviceType);
-                    }
-                }
-                serviceRepository.save(service);
-            }
-        }
+        serviceTypeRepository.cascadeRestoreByVehicleId(vehicle.getId());
+        serviceRepository.cascadeRestoreByVehicleId(vehicle.getId());
+
         vehicleRepository.save(vehicle);
         entityManager.flush();
+
+        revenueRollupService.refreshForCustomer(previousCustomerId);
+        if (!customer.getId().equals(previousCustomerId)) {
+            revenueRollupService.refreshForCustomer(customer.getId());
+        }
+        searchSuggestService.indexVehicle(vehicle);
+
         return vehicleMapper.vehicleToVehicleDto(vehicle);
     }
 
@@ -278,13 +279,39 @@ public class VehicleServiceImpl implements VehicleService {
         Filter filter = session.enableFilter(VEHICLE_FILTER);
         filter.setParameter("isDeleted", isDeleted);
 
-        Page<Vehicle> resultPage = vehicleCustomRepository.findFilteredVehicles(vehicleFiltersQueryDto, PageRequest.of(page, pageSize));
-        List<Vehicle> vehicles = resultPage.getContent();
+        Page<Long> resultPage = vehicleCustomRepository.findFilteredVehicleIds(vehicleFiltersQueryDto, PageRequest.of(page, pageSize));
 
         session.disableFilter(VEHICLE_FILTER);
 
-        List<VehicleDto> vehicleDtos = vehicleMapper.vehiclesToVehicleDtos(vehicles);
+        List<VehicleDto> vehicleDtos = projectionRepository.findVehiclesByIds(resultPage.getContent());
 
         return new PageImpl<>(vehicleDtos, resultPage.getPageable(), resultPage.getTotalElements());
     }
+
+    /**
+     * Retrieves a keyset page of vehicles based on the provided filters and deletion status.
+     * Instead of an offset, the page starts right after the row encoded in the cursor,
+     * so deep pages cost the same as the first one.
+     *
+     * @param isDeleted              a boolean indicating whether to include deleted vehicles in the results.
+     * @param vehicleFiltersQueryDto the {@link VehicleFiltersQueryDto} containing the filter criteria for vehicles.
+     * @param cursor                 the cursor returned with the previous page, or blank for the first page.
+     * @param pageSize               the size of each page.
+     * @param withCount              whether the total number of matching rows should be counted.
+     * @return a {@link CursorPageDto} of {@link VehicleDto} objects with the cursor of the next page.
+     */
+    @Override
+    public CursorPageDto<VehicleDto> findFilteredVehiclesAfter(boolean isDeleted, VehicleFiltersQueryDto vehicleFiltersQueryDto, String cursor, Integer pageSize, boolean withCount) {
+        Session session = entityManager.unwrap(Session.class);
+        Filter filter = session.enableFilter(VEHICLE_FILTER);
+        filter.setParameter("isDeleted", isDeleted);
+
+        CursorPageDto<Long> resultPage = vehicleCustomRepository.findFilteredVehicleIdsAfter(vehicleFiltersQueryDto, cursor, pageSize, withCount);
+
+        session.disableFilter(VEHICLE_FILTER);
+
+        List<VehicleDto> vehicleDtos = projectionRepository.findVehiclesByIds(resultPage.getContent());
+
+        return new CursorPageDto<>(vehicleDtos, resultPage.getNextCursor(), resultPage.getTotalElements());
+    }
 }
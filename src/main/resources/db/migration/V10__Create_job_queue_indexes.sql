@@ -0,0 +1,16 @@
+-- This SQL file creates the indexes used by the background job queue.
+-- Workers claim due jobs in priority order, so pending jobs are indexed in that order and a claim reads only as many
+-- index entries as it takes jobs, however many jobs wait for a retry or have finished.
+-- Expired leases are found among running jobs, and the purge finds jobs by the time they finished.
+
+CREATE SEQUENCE IF NOT EXISTS jobs_seq INCREMENT BY 50;
+ALTER TABLE jobs ALTER COLUMN id SET DEFAULT nextval('jobs_seq');
+
+CREATE INDEX IF NOT EXISTS idx_jobs_pending
+    ON jobs (priority DESC, run_at, id) WHERE status = 'PENDING';
+
+CREATE INDEX IF NOT EXISTS idx_jobs_running
+    ON jobs (locked_until) WHERE status = 'RUNNING';
+
+CREATE INDEX IF NOT EXISTS idx_jobs_finished_at
+    ON jobs (finished_at) WHERE finished_at IS NOT NULL;
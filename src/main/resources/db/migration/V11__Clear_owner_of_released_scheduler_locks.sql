@@ -0,0 +1,4 @@
+-- This SQL file lets released scheduler locks have no owner.
+-- Releasing a lease clears its owner, so a heartbeat of the previous owner can no longer extend it.
+
+ALTER TABLE scheduler_locks ALTER COLUMN owner DROP NOT NULL;
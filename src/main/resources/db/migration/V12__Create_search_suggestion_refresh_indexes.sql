@@ -0,0 +1,8 @@
+-- This SQL file creates the indexes used by the periodic refresh of search suggestions.
+-- New rows have no update time yet, so changes are found by the update time falling back to the creation time,
+-- and a refresh reads only the rows changed since the previous one.
+
+CREATE INDEX IF NOT EXISTS idx_customers_changed_at
+    ON customers ((COALESCE(updated_at, created_at)));
+CREATE INDEX IF NOT EXISTS idx_vehicles_changed_at
+    ON vehicles ((COALESCE(updated_at, created_at)));
@@ -0,0 +1,5 @@
+-- This SQL file creates the index used to poll the evictions of cached tokens.
+-- Every instance reads the evictions requested since its previous poll, and the purge deletes old ones.
+
+CREATE INDEX IF NOT EXISTS idx_token_evictions_evicted_at
+    ON token_evictions (evicted_at);
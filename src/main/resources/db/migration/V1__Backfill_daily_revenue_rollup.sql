@@ -0,0 +1,16 @@
+-- This SQL file backfills the daily revenue rollup from services and service types that are not deleted.
+-- Afterwards the rollup is kept current by RevenueRollupService.
+
+DELETE FROM daily_revenue_rollup;
+
+INSERT INTO daily_revenue_rollup (day, mechanic_id, customer_id, revenue, part_count, service_count)
+SELECT s.start_date, s.user_id, v.customer_id,
+       COALESCE(SUM(st.price * st.quantity), 0), COUNT(st.part_code), COUNT(DISTINCT s.id)
+FROM services s
+JOIN vehicles v ON v.id = s.vehicle_id
+LEFT JOIN service_types st ON st.service_id = s.id AND st.deleted = false
+WHERE s.deleted = false
+AND s.start_date IS NOT NULL
+AND s.user_id IS NOT NULL
+AND v.customer_id IS NOT NULL
+GROUP BY s.start_date, s.user_id, v.customer_id;
@@ -0,0 +1,17 @@
+-- This SQL file backfills total amount and number of parts of every service from its service types that are not deleted.
+-- Afterwards both columns are kept current by ServiceTypeService whenever a service type changes.
+
+UPDATE services s
+SET total_amount = COALESCE(t.total_amount, 0),
+    part_count = COALESCE(t.part_count, 0)
+FROM services s2
+LEFT JOIN (SELECT st.service_id, SUM(st.price * st.quantity) AS total_amount, COUNT(st.part_code) AS part_count
+           FROM service_types st
+           WHERE st.deleted = false
+           GROUP BY st.service_id) t ON t.service_id = s2.id
+WHERE s.id = s2.id;
+
+ALTER TABLE services ALTER COLUMN total_amount SET DEFAULT 0;
+ALTER TABLE services ALTER COLUMN total_amount SET NOT NULL;
+ALTER TABLE services ALTER COLUMN part_count SET DEFAULT 0;
+ALTER TABLE services ALTER COLUMN part_count SET NOT NULL;
@@ -0,0 +1,26 @@
+-- This SQL file creates pg_trgm GIN indexes for substring search of customers, vehicles and services.
+-- Every index expression matches the predicate built by the custom repositories exactly,
+-- otherwise the planner can not use the index for LIKE '%...%'.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_customers_full_name_trgm
+    ON customers USING gin (lower((firstname || ' ') || lastname) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_address_trgm
+    ON customers USING gin (lower(address) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_email_trgm
+    ON customers USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_phone_number_trgm
+    ON customers USING gin (lower(phone_number) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_vehicles_manufacturer_trgm
+    ON vehicles USING gin (lower(manufacturer) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_vehicles_model_trgm
+    ON vehicles USING gin (lower(model) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_vehicles_vehicle_plate_trgm
+    ON vehicles USING gin (lower(regexp_replace(vehicle_plate, '[^a-zA-Z0-9]', '', 'g')) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_vehicles_vin_trgm
+    ON vehicles USING gin (lower(vin) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_services_invoice_code_trgm
+    ON services USING gin (lower(invoice_code) gin_trgm_ops);
@@ -0,0 +1,11 @@
+-- This SQL file creates pg_trgm GIN indexes for substring search of users.
+-- Every index expression matches the predicate built by UserCustomRepository and GlobalSearchRepository exactly.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm
+    ON users USING gin (lower((firstname || ' ') || lastname) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm
+    ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_mobile_number_trgm
+    ON users USING gin (lower(mobile_number) gin_trgm_ops);
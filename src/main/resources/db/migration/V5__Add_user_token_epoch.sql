@@ -0,0 +1,4 @@
+-- This SQL file adds the token epoch of users, embedded in access tokens when tokens are revoked by epoch.
+-- Advancing the epoch of a user revokes every token issued to that user before.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_epoch BIGINT NOT NULL DEFAULT 0;
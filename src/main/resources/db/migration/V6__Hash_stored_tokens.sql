@@ -0,0 +1,24 @@
+-- This SQL file replaces the stored value of every token with its SHA-256 digest.
+-- Tokens are looked up by the digest, which keeps the unique index fixed-width and small.
+
+ALTER TABLE token ADD COLUMN IF NOT EXISTS token_hash BYTEA;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1
+               FROM information_schema.columns
+               WHERE table_schema = current_schema()
+               AND table_name = 'token'
+               AND column_name = 'token') THEN
+        UPDATE token SET token_hash = sha256(convert_to(token.token, 'UTF8'))
+        WHERE token_hash IS NULL AND token.token IS NOT NULL;
+
+        ALTER TABLE token DROP COLUMN token;
+    END IF;
+END $$;
+
+DELETE FROM token WHERE token_hash IS NULL;
+
+ALTER TABLE token ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE token DROP CONSTRAINT IF EXISTS uk_token_token_hash;
+ALTER TABLE token ADD CONSTRAINT uk_token_token_hash UNIQUE (token_hash);
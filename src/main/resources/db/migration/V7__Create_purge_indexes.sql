@@ -0,0 +1,20 @@
+-- This SQL file creates the indexes used by the chunked purge of softly deleted resources.
+-- Partial indexes cover only deleted rows, and the foreign key indexes answer the check for remaining children.
+
+CREATE INDEX IF NOT EXISTS idx_service_types_deleted_at
+    ON service_types (deleted_at) WHERE deleted = true;
+CREATE INDEX IF NOT EXISTS idx_services_deleted_at
+    ON services (deleted_at) WHERE deleted = true;
+CREATE INDEX IF NOT EXISTS idx_vehicles_deleted_at
+    ON vehicles (deleted_at) WHERE deleted = true;
+CREATE INDEX IF NOT EXISTS idx_customers_deleted_at
+    ON customers (deleted_at) WHERE deleted = true;
+CREATE INDEX IF NOT EXISTS idx_token_created_at
+    ON token (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_service_types_service_id
+    ON service_types (service_id);
+CREATE INDEX IF NOT EXISTS idx_services_vehicle_id
+    ON services (vehicle_id);
+CREATE INDEX IF NOT EXISTS idx_vehicles_customer_id
+    ON vehicles (customer_id);
@@ -0,0 +1,20 @@
+-- This SQL file rebuilds the purge indexes on deletion time so that they only cover rows that have one.
+-- Indexes restricted to deleted = true also matched the cascade restore statements, and right after a cascade
+-- the planner estimates a single deleted row and scans them once per restored child instead of following the foreign keys.
+-- The purge compares deleted_at with its cutoff, which implies deleted_at IS NOT NULL, so it keeps using these indexes.
+
+DROP INDEX IF EXISTS idx_service_types_deleted_at;
+CREATE INDEX idx_service_types_deleted_at
+    ON service_types (deleted_at) WHERE deleted_at IS NOT NULL;
+
+DROP INDEX IF EXISTS idx_services_deleted_at;
+CREATE INDEX idx_services_deleted_at
+    ON services (deleted_at) WHERE deleted_at IS NOT NULL;
+
+DROP INDEX IF EXISTS idx_vehicles_deleted_at;
+CREATE INDEX idx_vehicles_deleted_at
+    ON vehicles (deleted_at) WHERE deleted_at IS NOT NULL;
+
+DROP INDEX IF EXISTS idx_customers_deleted_at;
+CREATE INDEX idx_customers_deleted_at
+    ON customers (deleted_at) WHERE deleted_at IS NOT NULL;
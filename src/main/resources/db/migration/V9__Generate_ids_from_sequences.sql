@@ -0,0 +1,33 @@
+-- This SQL file moves identifier generation from identity columns to one sequence per table.
+-- Hibernate reserves 50 identifiers per call to nextval, so every sequence starts above the largest existing id.
+-- Identity columns are replaced by a sequence default so statements outside Hibernate take identifiers from the same sequence.
+
+CREATE SEQUENCE IF NOT EXISTS customers_seq INCREMENT BY 50;
+SELECT setval('customers_seq', COALESCE((SELECT MAX(id) FROM customers), 0) + 50, false);
+ALTER TABLE customers ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE customers ALTER COLUMN id SET DEFAULT nextval('customers_seq');
+
+CREATE SEQUENCE IF NOT EXISTS vehicles_seq INCREMENT BY 50;
+SELECT setval('vehicles_seq', COALESCE((SELECT MAX(id) FROM vehicles), 0) + 50, false);
+ALTER TABLE vehicles ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE vehicles ALTER COLUMN id SET DEFAULT nextval('vehicles_seq');
+
+CREATE SEQUENCE IF NOT EXISTS services_seq INCREMENT BY 50;
+SELECT setval('services_seq', COALESCE((SELECT MAX(id) FROM services), 0) + 50, false);
+ALTER TABLE services ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE services ALTER COLUMN id SET DEFAULT nextval('services_seq');
+
+CREATE SEQUENCE IF NOT EXISTS service_types_seq INCREMENT BY 50;
+SELECT setval('service_types_seq', COALESCE((SELECT MAX(id) FROM service_types), 0) + 50, false);
+ALTER TABLE service_types ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE service_types ALTER COLUMN id SET DEFAULT nextval('service_types_seq');
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+CREATE SEQUENCE IF NOT EXISTS token_seq INCREMENT BY 50;
+SELECT setval('token_seq', COALESCE((SELECT MAX(id) FROM token), 0) + 50, false);
+ALTER TABLE token ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE token ALTER COLUMN id SET DEFAULT nextval('token_seq');
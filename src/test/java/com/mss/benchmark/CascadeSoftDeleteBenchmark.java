@@ -0,0 +1,256 @@
+package com.mss.benchmark;
+
+import com.mss.MechanicalShopSystemApplication;
+import com.mss.model.Customer;
+import com.mss.model.Service;
+import com.mss.model.ServiceType;
+import com.mss.model.Vehicle;
+import com.mss.repository.CustomerRepository;
+import com.mss.repository.ServiceRepository;
+import com.mss.repository.ServiceTypeRepository;
+import com.mss.repository.VehicleRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures soft deleting and restoring a customer together with all of its vehicles, services and service types.
+ * {@link #nestedLoops()} replays the previous implementation, which walked the graph and wrote every row on its own,
+ * while {@link #bulkUpdates()} runs the set-based statements now used by the customer service.
+ * Every invocation is rolled back, so each one starts from the same graph of
+ * {@code vehicles * SERVICES_PER_VEHICLE * SERVICE_TYPES_PER_SERVICE} service types.
+ * <p>
+ * The application context is started with the LOCAL profile, so the benchmark needs the same database and
+ * environment as the application. Run from the IDE through {@link #main(String[])}, or after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main CascadeSoftDeleteBenchmark}.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CascadeSoftDeleteBenchmark {
+
+	private static final int SERVICES_PER_VEHICLE = 10;
+
+	private static final int SERVICE_TYPES_PER_SERVICE = 5;
+
+	@Param({"10", "100"})
+	private int vehicles;
+
+	private ConfigurableApplicationContext context;
+
+	private TransactionTemplate transactionTemplate;
+
+	private EntityManager entityManager;
+
+	private CustomerRepository customerRepository;
+
+	private VehicleRepository vehicleRepository;
+
+	private ServiceRepository serviceRepository;
+
+	private ServiceTypeRepository serviceTypeRepository;
+
+	private Long customerId;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = new SpringApplicationBuilder(MechanicalShopSystemApplication.class)
+				.profiles("LOCAL")
+				.web(WebApplicationType.NONE)
+				.run();
+		transactionTemplate = context.getBean(TransactionTemplate.class);
+		entityManager = context.getBean(EntityManager.class);
+		customerRepository = context.getBean(CustomerRepository.class);
+		vehicleRepository = context.getBean(VehicleRepository.class);
+		serviceRepository = context.getBean(ServiceRepository.class);
+		serviceTypeRepository = context.getBean(ServiceTypeRepository.class);
+
+		customerId = transactionTemplate.execute(status -> seed());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		transactionTemplate.executeWithoutResult(status -> {
+			entityManager.createQuery("DELETE FROM ServiceType st WHERE st.service.vehicle.customer.id = :customerId")
+					.setParameter("customerId", customerId).executeUpdate();
+			entityManager.createQuery("DELETE FROM Service s WHERE s.vehicle.customer.id = :customerId")
+					.setParameter("customerId", customerId).executeUpdate();
+			entityManager.createQuery("DELETE FROM Vehicle v WHERE v.customer.id = :customerId")
+					.setParameter("customerId", customerId).executeUpdate();
+			customerRepository.permanentlyDeleteCustomerById(customerId);
+		});
+		context.close();
+	}
+
+	@Benchmark
+	public void nestedLoops() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Customer customer = customerRepository.findById(customerId).orElseThrow();
+			Instant now = Instant.now();
+
+			for (Vehicle vehicle : customer.getVehicles()) {
+				if (Boolean.FALSE.equals(vehicle.getDeleted()) && Boolean.FALSE.equals(vehicle.getDeletedByCascade())) {
+					for (Service service : vehicle.getServices()) {
+						if (Boolean.FALSE.equals(service.getDeleted()) && Boolean.FALSE.equals(service.getDeletedByCascade())) {
+							for (ServiceType serviceType : service.getServiceTypes()) {
+								if (Boolean.FALSE.equals(serviceType.getDeleted()) && Boolean.FALSE.equals(serviceType.getDeletedByCascade())) {
+									serviceType.setDeletedByCascade(true);
+									serviceType.setDeletedAt(now);
+									serviceTypeRepository.save(serviceType);
+								}
+							}
+							service.setDeletedByCascade(true);
+							service.setTotalAmount(0.0);
+							service.setPartCount(0);
+							service.setDeletedAt(now);
+							serviceRepository.save(service);
+						}
+					}
+					vehicle.setDeletedByCascade(true);
+					vehicle.setDeletedAt(now);
+					vehicleRepository.save(vehicle);
+				}
+			}
+			customer.setDeletedAt(now);
+			entityManager.flush();
+			customerRepository.deleteById(customerId);
+			entityManager.flush();
+			entityManager.clear();
+
+			customer = customerRepository.findById(customerId).orElseThrow();
+			customer.setDeleted(false);
+			customer.setDeletedAt(null);
+			for (Vehicle vehicle : customer.getVehicles()) {
+				if (Boolean.TRUE.equals(vehicle.getDeletedByCascade()) && Boolean.TRUE.equals(vehicle.getDeleted())) {
+					vehicle.setDeleted(false);
+					vehicle.setDeletedByCascade(false);
+					vehicle.setDeletedAt(null);
+					for (Service service : vehicle.getServices()) {
+						if (Boolean.TRUE.equals(service.getDeletedByCascade()) && Boolean.TRUE.equals(service.getDeleted())) {
+							service.setDeleted(false);
+							service.setDeletedByCascade(false);
+							service.setDeletedAt(null);
+							for (ServiceType serviceType : service.getServiceTypes()) {
+								if (Boolean.TRUE.equals(serviceType.getDeletedByCascade()) && Boolean.TRUE.equals(serviceType.getDeleted())) {
+									serviceType.setDeleted(false);
+									serviceType.setDeletedByCascade(false);
+									serviceType.setDeletedAt(null);
+									serviceTypeRepository.save(serviceType);
+								}
+							}
+							serviceRepository.save(service);
+							entityManager.flush();
+							serviceTypeRepository.sumTotalsByServiceId(service.getId());
+						}
+					}
+					vehicleRepository.save(vehicle);
+				}
+			}
+			entityManager.flush();
+			entityManager.clear();
+			status.setRollbackOnly();
+		});
+	}
+
+	@Benchmark
+	public void bulkUpdates() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Customer customer = customerRepository.findById(customerId).orElseThrow();
+			Instant now = Instant.now();
+
+			serviceTypeRepository.cascadeDeleteByCustomerId(customerId, now);
+			serviceRepository.cascadeDeleteByCustomerId(customerId, now);
+			vehicleRepository.cascadeDeleteByCustomerId(customerId, now);
+			customer.setDeleted(true);
+			customer.setDeletedAt(now);
+			entityManager.flush();
+
+			customer.setDeleted(false);
+			customer.setDeletedAt(null);
+			serviceTypeRepository.cascadeRestoreByCustomerId(customerId);
+			serviceRepository.cascadeRestoreByCustomerId(customerId);
+			vehicleRepository.cascadeRestoreByCustomerId(customerId, Instant.now());
+			entityManager.flush();
+			entityManager.clear();
+			status.setRollbackOnly();
+		});
+	}
+
+	private Long seed() {
+		String run = UUID.randomUUID().toString().substring(0, 8);
+
+		Customer customer = new Customer();
+		customer.setFirstname("Benchmark");
+		customer.setLastname(run);
+		customer.setPhoneNumber(run);
+		customerRepository.save(customer);
+
+		for (int i = 0; i < vehicles; i++) {
+			Vehicle vehicle = new Vehicle();
+			vehicle.setCustomer(customer);
+			vehicle.setManufacturer("Volkswagen");
+			vehicle.setModel("Golf");
+			vehicle.setVehiclePlate(run + "-" + i);
+			vehicle.setVin(run + i);
+			vehicleRepository.save(vehicle);
+
+			for (int j = 0; j < SERVICES_PER_VEHICLE; j++) {
+				Service service = new Service();
+				service.setInvoiceCode(run + "-" + i + "-" + j);
+				service.setStartDate(LocalDate.now());
+				service.setEndDate(LocalDate.now());
+				service.setVehicle(vehicle);
+				serviceRepository.save(service);
+
+				for (int k = 0; k < SERVICE_TYPES_PER_SERVICE; k++) {
+					ServiceType serviceType = new ServiceType();
+					serviceType.setService(service);
+					serviceType.setTypeOfService("Oil change");
+					serviceType.setPartCode("P" + k);
+					serviceType.setPrice(10.0);
+					serviceType.setQuantity(1);
+					serviceTypeRepository.save(serviceType);
+				}
+			}
+		}
+
+		return customer.getId();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(CascadeSoftDeleteBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+
+}
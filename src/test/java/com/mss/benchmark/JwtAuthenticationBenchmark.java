@@ -0,0 +1,111 @@
+package com.mss.benchmark;
+
+import com.mss.service.impl.JwtService;
+import com.mss.service.impl.TokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures the per-request cost of authenticating a bearer token.
+ * {@link #parsePerClaim()} replays the previous filter, which decoded the key, built a parser and
+ * verified the signature for every claim it read. {@link #parseOnce()} is the current cache miss and
+ * {@link #cachedToken()} the current cache hit.
+ * <p>
+ * Run from the IDE through {@link #main(String[])}, or after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main JwtAuthenticationBenchmark}.
+ *
+ * @author Dragan Jovanovic
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+	private static final long EXPIRATION = 86400000;
+
+	private String secretKey;
+
+	private JwtService jwtService;
+
+	private TokenCache tokenCache;
+
+	private UserDetails userDetails;
+
+	private String jwt;
+
+	@Setup
+	public void setup() {
+		secretKey = Encoders.BASE64.encode(Keys.secretKeyFor(io.jsonwebtoken.SignatureAlgorithm.HS256).getEncoded());
+		jwtService = new JwtService(secretKey, EXPIRATION, EXPIRATION * 7);
+		tokenCache = new TokenCache(10000, 300000);
+		userDetails = User.withUsername("benchmark@mss.test").password("password").authorities(List.of()).build();
+		jwt = jwtService.generateToken(userDetails);
+
+		JwtService.TokenClaims claims = jwtService.parseAndValidate(jwt);
+		tokenCache.put(jwt, userDetails, 1L, claims.expiration());
+	}
+
+	@Benchmark
+	public boolean parsePerClaim() {
+		String username = extractClaim(jwt, Claims::getSubject);
+		boolean usernameMatches = extractClaim(jwt, Claims::getSubject).equals(userDetails.getUsername());
+		boolean notExpired = !extractClaim(jwt, Claims::getExpiration).before(new Date());
+
+		return username != null && usernameMatches && notExpired;
+	}
+
+	@Benchmark
+	public boolean parseOnce() {
+		JwtService.TokenClaims claims = jwtService.parseAndValidate(jwt);
+
+		return claims.username() != null && claims.isValidFor(userDetails);
+	}
+
+	@Benchmark
+	public UserDetails cachedToken() {
+		return tokenCache.get(jwt);
+	}
+
+	private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
+		Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+		Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+
+		return claimsResolver.apply(claims);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtAuthenticationBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.mss.service.impl;
+
+import com.mss.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reads cache statistics through the dashboard endpoint with statistics enabled, in a context of its own.
+ * The first read happens before any query result is cached, when Hibernate has not yet counted anything
+ * for the query result region, and the second one after a cacheable query.
+ */
+@SpringBootTest(properties = "hibernate-statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext
+class CacheStatisticsServiceImplTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Test
+	@WithMockUser(authorities = "admin:read")
+	void cacheStatisticsIncludeQueryResultRegions() throws Exception {
+		mockMvc.perform(get("/api/v1/dashboard/cache-statistics"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.regions[?(@.region == 'default-query-results-region')]").exists());
+
+		customerRepository.findOneById(-1L);
+
+		mockMvc.perform(get("/api/v1/dashboard/cache-statistics"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.regions[?(@.region == 'default-query-results-region')].putCount").value(1));
+	}
+}
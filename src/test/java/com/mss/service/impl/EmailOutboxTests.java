@@ -0,0 +1,255 @@
+package com.mss.service.impl;
+
+import com.mss.service.EmailService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delivers the outbox to an SMTP stand-in listening on a local port, so no mail server is needed.
+ * A single job thread delivers all emails, one after another.
+ */
+@SpringBootTest(properties = {
+		"application.jobs.threads=1",
+		"application.jobs.poll-interval=100",
+		"application.jobs.backoff=100",
+		"application.jobs.max-backoff=400",
+		"application.jobs.max-attempts=3",
+		"spring.mail.host=localhost",
+		"spring.mail.properties.mail.smtp.auth=false",
+		"spring.mail.properties.mail.smtp.starttls.enable=false"})
+class EmailOutboxTests {
+
+	private static final SmtpStandIn smtp = new SmtpStandIn();
+
+	@Autowired
+	private EmailService emailService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DynamicPropertySource
+	static void mailServer(DynamicPropertyRegistry registry) {
+		registry.add("spring.mail.port", smtp::getPort);
+	}
+
+	@AfterAll
+	static void stopMailServer() throws IOException {
+		smtp.close();
+	}
+
+	@BeforeEach
+	void acceptEmails() {
+		smtp.rejectedMessages.set(0);
+	}
+
+	@Test
+	void emailIsDeliveredOnceTransactionCommits() {
+		String committed = UUID.randomUUID() + "@example.com";
+		String rolledBack = UUID.randomUUID() + "@example.com";
+
+		transactionTemplate.executeWithoutResult(status -> emailService.enqueueEmail(committed, "Committed", "<p>Hi</p>"));
+		transactionTemplate.executeWithoutResult(status -> {
+			emailService.enqueueEmail(rolledBack, "Rolled back", "<p>Hi</p>");
+			status.setRollbackOnly();
+		});
+
+		await(() -> smtp.deliveredTo(committed));
+		assertTrue(smtp.recipients.stream().noneMatch(rolledBack::equals));
+	}
+
+	@Test
+	void emailsShareConnection() {
+		List<String> recipients = List.of(UUID.randomUUID() + "@example.com", UUID.randomUUID() + "@example.com",
+				UUID.randomUUID() + "@example.com");
+		int connections = smtp.connections.get();
+
+		recipients.forEach(recipient -> emailService.enqueueEmail(recipient, "Shared", "<p>Hi</p>"));
+
+		await(() -> recipients.stream().allMatch(smtp::deliveredTo));
+		assertTrue(smtp.connections.get() - connections <= 1);
+	}
+
+	@Test
+	void rejectedEmailIsRetried() {
+		String recipient = UUID.randomUUID() + "@example.com";
+		smtp.rejectedMessages.set(2);
+
+		emailService.enqueueEmail(recipient, "Retried", "<p>Hi</p>");
+
+		await(() -> smtp.deliveredTo(recipient));
+		assertEquals(3, attempts(recipient));
+	}
+
+	@Test
+	void undeliverableEmailIsKeptUntilRetried() {
+		String recipient = UUID.randomUUID() + "@example.com";
+		smtp.rejectedMessages.set(3);
+
+		emailService.enqueueEmail(recipient, "Dead letter", "<p>Hi</p>");
+
+		await(() -> "FAILED".equals(status(recipient)));
+		assertTrue(emailService.retryUndeliveredEmails() >= 1);
+		await(() -> smtp.deliveredTo(recipient));
+		assertEquals("SUCCEEDED", status(recipient));
+	}
+
+	@Test
+	void deliveredEmailKeepsNoBody() {
+		String recipient = UUID.randomUUID() + "@example.com";
+
+		emailService.enqueueEmail(recipient, "Reset", "<a href=\"https://example.com/reset?code=secret-code\">Reset</a>");
+
+		await(() -> "SUCCEEDED".equals(status(recipient)));
+		String payload = jdbcTemplate.queryForObject("SELECT payload FROM jobs WHERE payload LIKE ?", String.class,
+				"%" + recipient + "%");
+		assertFalse(payload.contains("secret-code"));
+	}
+
+	private String status(String recipient) {
+		return jdbcTemplate.queryForObject("SELECT status FROM jobs WHERE payload LIKE ?", String.class,
+				"%" + recipient + "%");
+	}
+
+	private int attempts(String recipient) {
+		return jdbcTemplate.queryForObject("SELECT attempts FROM jobs WHERE payload LIKE ?", Integer.class,
+				"%" + recipient + "%");
+	}
+
+	private static void await(BooleanSupplier condition) {
+		for (int poll = 0; poll < 100 && !condition.getAsBoolean(); poll++) {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+
+	/**
+	 * Accepts SMTP sessions on a local port and records the recipients of every delivered email.
+	 * Rejects the given number of emails with a transient error before accepting them again.
+	 */
+	private static final class SmtpStandIn {
+
+		private final ServerSocket serverSocket;
+
+		private final List<String> recipients = new CopyOnWriteArrayList<>();
+
+		private final AtomicInteger connections = new AtomicInteger();
+
+		private final AtomicInteger rejectedMessages = new AtomicInteger();
+
+		private SmtpStandIn() {
+			try {
+				serverSocket = new ServerSocket(0);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			Thread acceptor = new Thread(this::accept, "smtp-stand-in");
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+
+		private int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		private boolean deliveredTo(String recipient) {
+			return recipients.contains(recipient);
+		}
+
+		private void accept() {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket socket = serverSocket.accept();
+					connections.incrementAndGet();
+					Thread session = new Thread(() -> serve(socket), "smtp-stand-in-session");
+					session.setDaemon(true);
+					session.start();
+				} catch (IOException e) {
+					return;
+				}
+			}
+		}
+
+		private void serve(Socket socket) {
+			try (socket;
+				 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+				 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+				reply(out, "220 localhost");
+				List<String> envelope = new CopyOnWriteArrayList<>();
+				String line;
+				while ((line = in.readLine()) != null) {
+					String command = line.toUpperCase();
+					if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+						reply(out, "250 localhost");
+					} else if (command.startsWith("MAIL FROM")) {
+						envelope.clear();
+						reply(out, "250 OK");
+					} else if (command.startsWith("RCPT TO")) {
+						envelope.add(line.substring(line.indexOf('<') + 1, line.indexOf('>')));
+						reply(out, "250 OK");
+					} else if (command.equals("DATA")) {
+						reply(out, "354 End data with <CR><LF>.<CR><LF>");
+						while ((line = in.readLine()) != null && !line.equals(".")) {
+							// The content of the email is not checked.
+						}
+						if (rejectedMessages.getAndUpdate(rejected -> Math.max(rejected - 1, 0)) > 0) {
+							reply(out, "451 Try again later");
+						} else {
+							recipients.addAll(envelope);
+							reply(out, "250 OK");
+						}
+					} else if (command.equals("QUIT")) {
+						reply(out, "221 Bye");
+						return;
+					} else {
+						reply(out, "250 OK");
+					}
+				}
+			} catch (IOException e) {
+				// The client closed the connection.
+			}
+		}
+
+		private static void reply(PrintWriter out, String reply) {
+			out.print(reply + "\r\n");
+			out.flush();
+		}
+
+		private void close() throws IOException {
+			serverSocket.close();
+		}
+	}
+
+}
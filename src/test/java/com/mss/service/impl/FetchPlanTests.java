@@ -0,0 +1,185 @@
+package com.mss.service.impl;
+
+import com.mss.dto.ServiceDto;
+import com.mss.dto.ServiceTypeDto;
+import com.mss.dto.VehicleDto;
+import com.mss.enumeration.Role;
+import com.mss.model.Customer;
+import com.mss.model.Service;
+import com.mss.model.ServiceType;
+import com.mss.model.User;
+import com.mss.model.Vehicle;
+import com.mss.repository.CustomerRepository;
+import com.mss.repository.ServiceRepository;
+import com.mss.repository.ServiceTypeRepository;
+import com.mss.repository.UserRepository;
+import com.mss.repository.VehicleRepository;
+import com.mss.service.PdfService;
+import com.mss.service.ServiceService;
+import com.mss.service.ServiceTypeService;
+import com.mss.service.VehicleService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"application.jobs.poll-interval=3600000",
+		"application.search.suggest-refresh-interval=3600000",
+		"application.security.token-cache.eviction-poll-interval=3600000"})
+@Transactional
+class FetchPlanTests {
+
+	private static final int SERVICES = 3;
+
+	private static final int SERVICE_TYPES_PER_SERVICE = 2;
+
+	@Autowired
+	private ServiceService serviceService;
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private ServiceTypeService serviceTypeService;
+
+	@Autowired
+	private PdfService pdfService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private VehicleRepository vehicleRepository;
+
+	@Autowired
+	private ServiceRepository serviceRepository;
+
+	@Autowired
+	private ServiceTypeRepository serviceTypeRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+
+	private Vehicle vehicle;
+
+	private Service service;
+
+	private ServiceType serviceType;
+
+	@BeforeEach
+	void seed() {
+		String run = UUID.randomUUID().toString().substring(0, 8);
+
+		User user = User.builder()
+				.firstname("Mechanic")
+				.lastname(run)
+				.email(run + "@mss.test")
+				.password("password")
+				.role(Role.USER)
+				.enabled(true)
+				.build();
+		userRepository.save(user);
+
+		Customer customer = new Customer();
+		customer.setFirstname("Customer");
+		customer.setLastname(run);
+		customer.setPhoneNumber(run);
+		customerRepository.save(customer);
+
+		vehicle = new Vehicle();
+		vehicle.setCustomer(customer);
+		vehicle.setManufacturer("Volkswagen");
+		vehicle.setModel("Golf");
+		vehicle.setVehiclePlate("BG-" + run);
+		vehicle.setVin(run);
+		vehicleRepository.save(vehicle);
+
+		for (int i = 0; i < SERVICES; i++) {
+			service = new Service();
+			service.setInvoiceCode(run + "-" + i);
+			service.setStartDate(LocalDate.now());
+			service.setEndDate(LocalDate.now());
+			service.setVehicle(vehicle);
+			service.setUser(user);
+			serviceRepository.save(service);
+
+			for (int j = 0; j < SERVICE_TYPES_PER_SERVICE; j++) {
+				serviceType = new ServiceType();
+				serviceType.setService(service);
+				serviceType.setTypeOfService("Oil change");
+				serviceType.setPartCode("P" + j);
+				serviceType.setPrice(10.0);
+				serviceType.setQuantity(1);
+				serviceTypeRepository.save(serviceType);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void findServiceByIdLoadsServiceInOneStatement() {
+		ServiceDto serviceDto = serviceService.findServiceById(service.getId(), false);
+
+		assertEquals(SERVICE_TYPES_PER_SERVICE, serviceDto.getServiceTypeDtos().size());
+		assertEquals("Mechanic", serviceDto.getUserDto().getFirstname());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void findVehicleByIdLoadsServiceTypesInOneBatch() {
+		VehicleDto vehicleDto = vehicleService.findVehicleById(vehicle.getId());
+
+		assertEquals(SERVICES, vehicleDto.getServiceDtos().size());
+		assertEquals(SERVICE_TYPES_PER_SERVICE, vehicleDto.getServiceDtos().get(0).getServiceTypeDtos().size());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void findServiceTypeByIdLoadsServiceInOneStatement() {
+		ServiceTypeDto serviceTypeDto = serviceTypeService.findServiceTypeById(serviceType.getId());
+
+		assertEquals(service.getInvoiceCode(), serviceTypeDto.getServiceDto().getInvoiceCode());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void getAllServiceTypesDoesNotLoadServicesPerRow() {
+		List<ServiceTypeDto> serviceTypeDtos = serviceTypeService.getAllServiceTypes(false);
+
+		assertTrue(serviceTypeDtos.size() >= SERVICES * SERVICE_TYPES_PER_SERVICE);
+		assertEquals(0, statistics.getEntityFetchCount());
+	}
+
+	@Test
+	void invoiceLoadsServiceInOneStatementPerCall() {
+		String filename = pdfService.generateInvoiceFilename(service.getId());
+		byte[] pdf = pdfService.createInvoicePdf(service.getId());
+
+		assertTrue(filename.endsWith(service.getInvoiceCode() + ".pdf"));
+		assertTrue(pdf.length > 0);
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+}
@@ -0,0 +1,221 @@
+package com.mss.service.impl;
+
+import com.mss.enumeration.JobStatus;
+import com.mss.model.Job;
+import com.mss.repository.JobRepository;
+import com.mss.service.JobHandler;
+import com.mss.service.JobService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs jobs through the worker of the application, which polls every {@link #POLL_INTERVAL} milliseconds.
+ * Payloads are unique to each test, so jobs left in the queue by other tests do not interfere.
+ */
+@SpringBootTest(properties = {
+		"application.jobs.threads=1",
+		"application.jobs.poll-interval=" + JobWorkerTests.POLL_INTERVAL,
+		"application.jobs.backoff=100",
+		"application.jobs.max-backoff=400",
+		"application.jobs.max-attempts=3"})
+class JobWorkerTests {
+
+	static final long POLL_INTERVAL = 100;
+
+	private static final String RECORDING_JOB = "test-recording";
+
+	private static final String FLAKY_JOB = "test-flaky";
+
+	private static final String BROKEN_JOB = "test-broken";
+
+	private static final List<String> handled = new CopyOnWriteArrayList<>();
+
+	private static final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+
+	@Autowired
+	private JobService jobService;
+
+	@Autowired
+	private JobRepository jobRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void jobsAreClaimedByPriority() {
+		String run = UUID.randomUUID().toString();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			jobService.enqueue(RECORDING_JOB, run + "-low", -1, null);
+			jobService.enqueue(RECORDING_JOB, run + "-high", 1, null);
+			jobService.enqueue(RECORDING_JOB, run + "-default");
+		});
+
+		awaitStatus(run + "-low", JobStatus.SUCCEEDED);
+		assertEquals(List.of(run + "-high", run + "-default", run + "-low"),
+				handled.stream().filter(payload -> payload.startsWith(run)).toList());
+	}
+
+	@Test
+	void failedAttemptIsRetried() {
+		String payload = UUID.randomUUID() + ":2";
+
+		jobService.enqueue(FLAKY_JOB, payload);
+
+		awaitStatus(payload, JobStatus.SUCCEEDED);
+		assertEquals(3, attempts(payload));
+	}
+
+	@Test
+	void jobFailsAfterLastAttempt() {
+		String payload = UUID.randomUUID() + ":3";
+
+		jobService.enqueue(FLAKY_JOB, payload);
+
+		awaitStatus(payload, JobStatus.FAILED);
+		assertEquals(3, attempts(payload));
+		assertTrue(jdbcTemplate.queryForObject("SELECT last_error FROM jobs WHERE payload = ?", String.class, payload)
+				.contains("Attempt 3 failed"));
+	}
+
+	@Test
+	void errorFailsAttempt() {
+		String payload = UUID.randomUUID().toString();
+
+		jobService.enqueue(BROKEN_JOB, payload);
+
+		awaitStatus(payload, JobStatus.FAILED);
+		assertEquals(3, attempts(payload));
+		assertTrue(jdbcTemplate.queryForObject("SELECT last_error FROM jobs WHERE payload = ?", String.class, payload)
+				.contains("NoClassDefFoundError"));
+	}
+
+	@Test
+	void jobIsEnqueuedOncePerUniqueKey() {
+		String key = UUID.randomUUID().toString();
+
+		assertTrue(jobService.enqueue(RECORDING_JOB, key, 0, key));
+		assertFalse(jobService.enqueue(RECORDING_JOB, key, 0, key));
+	}
+
+	@Test
+	void jobOfStoppedInstanceIsRequeued() {
+		String payload = UUID.randomUUID().toString();
+		jdbcTemplate.update("""
+				INSERT INTO jobs (type, payload, priority, status, attempts, max_attempts, run_at, created_at, locked_by, locked_until)
+				VALUES (?, ?, 0, 'RUNNING', 1, 3, now(), now(), 'stopped-instance', now() - INTERVAL '1 second')
+				""", RECORDING_JOB, payload);
+
+		awaitStatus(payload, JobStatus.SUCCEEDED);
+		assertEquals(2, attempts(payload));
+	}
+
+	@Test
+	void claimSkipsLockedJobs() {
+		String type = "test-unhandled-" + UUID.randomUUID();
+
+		List<Job> claimed = transactionTemplate.execute(status -> {
+			jdbcTemplate.update("""
+					INSERT INTO jobs (type, priority, status, attempts, max_attempts, run_at, created_at)
+					VALUES (?, 0, 'PENDING', 0, 3, now() + INTERVAL '1 hour', now())
+					""", type);
+			jdbcTemplate.update("UPDATE jobs SET run_at = now() WHERE type = ?", type);
+
+			return CompletableFuture.supplyAsync(() -> jobRepository.claim("other-instance", List.of(type), 100, 60000))
+					.orTimeout(5, TimeUnit.SECONDS)
+					.join();
+		});
+
+		assertTrue(claimed.stream().noneMatch(job -> job.getType().equals(type)));
+	}
+
+	private int attempts(String payload) {
+		return jdbcTemplate.queryForObject("SELECT attempts FROM jobs WHERE payload = ?", Integer.class, payload);
+	}
+
+	private void awaitStatus(String payload, JobStatus expected) {
+		for (int poll = 0; poll < 100; poll++) {
+			String status = jdbcTemplate.queryForObject("SELECT status FROM jobs WHERE payload = ?", String.class, payload);
+			if (expected.name().equals(status)) {
+				return;
+			}
+			try {
+				Thread.sleep(POLL_INTERVAL);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}
+
+		throw new AssertionError("Job " + payload + " did not reach " + expected);
+	}
+
+	@TestConfiguration
+	static class Handlers {
+
+		@Bean
+		JobHandler recordingJobHandler() {
+			return handler(RECORDING_JOB, handled::add);
+		}
+
+		/**
+		 * Fails as many attempts as the number after the colon of the payload.
+		 */
+		@Bean
+		JobHandler flakyJobHandler() {
+			return handler(FLAKY_JOB, payload -> {
+				int attempt = failures.computeIfAbsent(payload, key -> new AtomicInteger()).incrementAndGet();
+				if (attempt <= Integer.parseInt(payload.substring(payload.indexOf(':') + 1))) {
+					throw new IllegalStateException("Attempt " + attempt + " failed");
+				}
+			});
+		}
+
+		/**
+		 * Fails every attempt with an error rather than an exception.
+		 */
+		@Bean
+		JobHandler brokenJobHandler() {
+			return handler(BROKEN_JOB, payload -> {
+				throw new NoClassDefFoundError("com/example/Missing");
+			});
+		}
+
+		private static JobHandler handler(String type, Consumer<String> handle) {
+			return new JobHandler() {
+				@Override
+				public String getType() {
+					return type;
+				}
+
+				@Override
+				public void handle(String payload) {
+					handle.accept(payload);
+				}
+			};
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.mss.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Sends login attempts through the embedded server, as a proxy on the local address that forwards clients would.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"application.security.login-throttle.address.capacity=2",
+		"application.security.login-throttle.address.refill-per-minute=1"})
+class LoginThrottleTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void forwardedClientsHaveSeparateBuckets() {
+		assertNotEquals(HttpStatus.TOO_MANY_REQUESTS, login("203.0.113.1"));
+		assertNotEquals(HttpStatus.TOO_MANY_REQUESTS, login("203.0.113.1"));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("203.0.113.1"));
+
+		assertNotEquals(HttpStatus.TOO_MANY_REQUESTS, login("203.0.113.2"));
+	}
+
+	@Test
+	void madeUpEmailsDoNotEvictLockouts() {
+		LoginThrottle loginThrottle = new LoginThrottle(5, 5, 50, 60, 2, 60000, 3600000, 1, 4);
+		loginThrottle.recordFailure("victim@example.com");
+		loginThrottle.recordFailure("victim@example.com");
+
+		for (int i = 0; i < 100; i++) {
+			loginThrottle.acquire(UUID.randomUUID() + "@example.com");
+		}
+
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+				() -> loginThrottle.acquire("victim@example.com"));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatusCode());
+	}
+
+	private HttpStatus login(String clientAddress) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.set("X-Forwarded-For", clientAddress);
+		Map<String, String> request = Map.of("email", UUID.randomUUID() + "@example.com", "password", "password");
+
+		return HttpStatus.valueOf(restTemplate.postForEntity("/api/v1/auth/authenticate",
+				new HttpEntity<>(request, headers), String.class).getStatusCode().value());
+	}
+
+}
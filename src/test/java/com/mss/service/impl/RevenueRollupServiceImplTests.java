@@ -0,0 +1,187 @@
+package com.mss.service.impl;
+
+import com.mss.enumeration.Role;
+import com.mss.model.Customer;
+import com.mss.model.DailyRevenueRollup;
+import com.mss.model.DailyRevenueRollupId;
+import com.mss.model.Service;
+import com.mss.model.User;
+import com.mss.model.Vehicle;
+import com.mss.repository.CustomerRepository;
+import com.mss.repository.DailyRevenueRollupRepository;
+import com.mss.repository.ServiceRepository;
+import com.mss.repository.UserRepository;
+import com.mss.repository.VehicleRepository;
+import com.mss.service.RevenueRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs concurrent transactions that add services to the same rollup row, which does not exist yet.
+ * Both transactions add their service before either refreshes the row, so each refresh starts before the
+ * other transaction commits. Transactions that move services in opposite directions between two customers
+ * are synchronized the same way, so both refresh their rows while the other one holds a customer lock.
+ */
+@SpringBootTest
+class RevenueRollupServiceImplTests {
+
+	private static final int ROUNDS = 5;
+
+	@Autowired
+	private RevenueRollupService revenueRollupService;
+
+	@Autowired
+	private DailyRevenueRollupRepository dailyRevenueRollupRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private VehicleRepository vehicleRepository;
+
+	@Autowired
+	private ServiceRepository serviceRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private User mechanic;
+
+	private Vehicle vehicle;
+
+	@BeforeEach
+	void seed() {
+		String run = UUID.randomUUID().toString().substring(0, 8);
+
+		mechanic = userRepository.save(User.builder()
+				.firstname("Mechanic")
+				.lastname(run)
+				.email(run + "@mss.test")
+				.password("password")
+				.role(Role.USER)
+				.enabled(true)
+				.build());
+
+		vehicle = addVehicle(run);
+	}
+
+	private Vehicle addVehicle(String run) {
+		Customer customer = new Customer();
+		customer.setFirstname("Customer");
+		customer.setLastname(run);
+		customer.setPhoneNumber(run);
+		customerRepository.save(customer);
+
+		Vehicle added = new Vehicle();
+		added.setCustomer(customer);
+		added.setManufacturer("Volkswagen");
+		added.setModel("Golf");
+		added.setVehiclePlate("BG-" + run);
+		added.setVin(run);
+		return vehicleRepository.save(added);
+	}
+
+	private Service saveService(LocalDate day, Vehicle vehicle, double totalAmount) {
+		Service service = new Service();
+		service.setInvoiceCode(UUID.randomUUID().toString());
+		service.setStartDate(day);
+		service.setVehicle(vehicle);
+		service.setUser(mechanic);
+		service.setTotalAmount(totalAmount);
+		return serviceRepository.save(service);
+	}
+
+	private void moveService(Service service, Vehicle target, CyclicBarrier bothMoved) {
+		transactionTemplate.executeWithoutResult(status -> {
+			DailyRevenueRollupId previousBucket = revenueRollupService.bucketOf(service);
+			service.setVehicle(target);
+			serviceRepository.saveAndFlush(service);
+
+			try {
+				bothMoved.await(10, TimeUnit.SECONDS);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+
+			revenueRollupService.refreshBuckets(previousBucket, revenueRollupService.bucketOf(service));
+		});
+	}
+
+	@Test
+	void oppositeMovesBetweenCustomersDoNotDeadlock() {
+		Vehicle otherVehicle = addVehicle(UUID.randomUUID().toString().substring(0, 8));
+
+		for (int round = 0; round < ROUNDS; round++) {
+			LocalDate day = LocalDate.of(2001, 1, 1).plusDays(round);
+			Service forward = saveService(day, vehicle, 10.0);
+			Service backward = saveService(day, otherVehicle, 32.0);
+			CyclicBarrier bothMoved = new CyclicBarrier(2);
+
+			CompletableFuture<Void> first = CompletableFuture.runAsync(() -> moveService(forward, otherVehicle, bothMoved));
+			CompletableFuture<Void> second = CompletableFuture.runAsync(() -> moveService(backward, vehicle, bothMoved));
+
+			first.orTimeout(30, TimeUnit.SECONDS).join();
+			second.orTimeout(30, TimeUnit.SECONDS).join();
+
+			DailyRevenueRollup rollup = dailyRevenueRollupRepository.findById(revenueRollupService.bucketOf(forward)).orElseThrow();
+			assertEquals(10.0, rollup.getRevenue());
+			rollup = dailyRevenueRollupRepository.findById(revenueRollupService.bucketOf(backward)).orElseThrow();
+			assertEquals(32.0, rollup.getRevenue());
+		}
+	}
+
+	@Test
+	void concurrentWritersToSameRowAreBothCounted() {
+		for (int round = 0; round < ROUNDS; round++) {
+			LocalDate day = LocalDate.of(2000, 1, 1).plusDays(round);
+			CyclicBarrier bothAdded = new CyclicBarrier(2);
+
+			CompletableFuture<DailyRevenueRollupId> first = CompletableFuture.supplyAsync(() -> addService(day, 10.0, bothAdded));
+			CompletableFuture<DailyRevenueRollupId> second = CompletableFuture.supplyAsync(() -> addService(day, 32.0, bothAdded));
+
+			DailyRevenueRollupId bucket = first.orTimeout(30, TimeUnit.SECONDS).join();
+			second.orTimeout(30, TimeUnit.SECONDS).join();
+
+			DailyRevenueRollup rollup = dailyRevenueRollupRepository.findById(bucket).orElseThrow();
+			assertEquals(42.0, rollup.getRevenue());
+			assertEquals(2, rollup.getServiceCount());
+		}
+	}
+
+	private DailyRevenueRollupId addService(LocalDate day, double totalAmount, CyclicBarrier bothAdded) {
+		return transactionTemplate.execute(status -> {
+			Service service = new Service();
+			service.setInvoiceCode(UUID.randomUUID().toString());
+			service.setStartDate(day);
+			service.setVehicle(vehicle);
+			service.setUser(mechanic);
+			service.setTotalAmount(totalAmount);
+			serviceRepository.saveAndFlush(service);
+
+			try {
+				bothAdded.await(10, TimeUnit.SECONDS);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+
+			revenueRollupService.refreshForService(service);
+
+			return revenueRollupService.bucketOf(service);
+		});
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.mss.service.impl;
+
+import com.mss.MechanicalShopSystemApplication;
+import com.mss.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs two application contexts against the same database, standing in for two instances of the application.
+ * The second context is given the environment of the first, so both connect to the same database.
+ * Both contexts share the in-process second-level cache manager, so the first one is discarded afterwards.
+ */
+@SpringBootTest(properties = "application.scheduler-lock.lease=" + SchedulerLockServiceTests.LEASE)
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SchedulerLockServiceTests {
+
+	static final long LEASE = 1000;
+
+	@Autowired
+	private SchedulerLockService firstInstance;
+
+	@Autowired
+	private SchedulerLockRepository schedulerLockRepository;
+
+	@Autowired
+	private ConfigurableEnvironment environment;
+
+	private ConfigurableApplicationContext secondContext;
+
+	private SchedulerLockService secondInstance;
+
+	@BeforeAll
+	void startSecondInstance() {
+		StandardEnvironment secondEnvironment = new StandardEnvironment();
+		environment.getPropertySources().forEach(source -> secondEnvironment.getPropertySources().addLast(source));
+
+		secondContext = new SpringApplicationBuilder(MechanicalShopSystemApplication.class)
+				.environment(secondEnvironment)
+				.profiles(environment.getActiveProfiles())
+				.web(WebApplicationType.NONE)
+				.run();
+		secondInstance = secondContext.getBean(SchedulerLockService.class);
+	}
+
+	@AfterAll
+	void stopSecondInstance() {
+		secondContext.close();
+	}
+
+	@Test
+	void jobRunsOnOneInstanceAtATime() {
+		String job = UUID.randomUUID().toString();
+		AtomicBoolean ranOnSecond = new AtomicBoolean();
+
+		boolean ranOnFirst = firstInstance.runExclusively(job,
+				lease -> ranOnSecond.set(secondInstance.runExclusively(job, secondLease -> fail("Lease is held"))));
+
+		assertTrue(ranOnFirst);
+		assertFalse(ranOnSecond.get());
+		assertTrue(secondInstance.runExclusively(job, lease -> {
+		}));
+	}
+
+	@Test
+	void heartbeatKeepsLeaseWhileJobRuns() {
+		String job = UUID.randomUUID().toString();
+		AtomicBoolean ranOnSecond = new AtomicBoolean(true);
+
+		firstInstance.runExclusively(job, lease -> {
+			sleep(LEASE * 3);
+			ranOnSecond.set(secondInstance.runExclusively(job, secondLease -> fail("Lease is held")));
+			assertTrue(lease.isHeld());
+		});
+
+		assertFalse(ranOnSecond.get());
+	}
+
+	@Test
+	void leaseOfStoppedInstanceIsTakenOverOnceExpired() {
+		String job = UUID.randomUUID().toString();
+		schedulerLockRepository.tryAcquire(job, "stopped-instance", LEASE);
+
+		assertFalse(secondInstance.runExclusively(job, lease -> fail("Lease is held")));
+		sleep(LEASE * 2);
+		assertTrue(secondInstance.runExclusively(job, lease -> {
+		}));
+	}
+
+	@Test
+	void jobStopsOnceLeaseIsTakenOver() {
+		String job = UUID.randomUUID().toString();
+
+		firstInstance.runExclusively(job, lease -> {
+			schedulerLockRepository.release(job, firstInstance.getOwner());
+			assertTrue(secondInstance.runExclusively(job, secondLease -> sleep(LEASE)));
+			assertFalse(lease.isHeld());
+		});
+	}
+
+	@Test
+	void releasedLeaseIsNotExtended() {
+		String job = UUID.randomUUID().toString();
+		schedulerLockRepository.tryAcquire(job, firstInstance.getOwner(), LEASE);
+
+		schedulerLockRepository.release(job, firstInstance.getOwner());
+
+		assertEquals(0, schedulerLockRepository.extend(job, firstInstance.getOwner(), LEASE));
+		assertTrue(secondInstance.runExclusively(job, lease -> {
+		}));
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.mss.service.impl;
+
+import com.mss.model.Customer;
+import com.mss.repository.CustomerRepository;
+import com.mss.service.SearchSuggestService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Saves customers through the repository, bypassing the service that updates the index after commit,
+ * the way changes made on another instance of the application reach this one.
+ */
+@SpringBootTest
+class SearchSuggestServiceImplTests {
+
+	@Autowired
+	private SearchSuggestService searchSuggestService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Test
+	void refreshAppliesChangesMadeElsewhere() {
+		searchSuggestService.rebuild();
+		String lastname = "Z" + UUID.randomUUID().toString().replace("-", "");
+
+		Customer customer = new Customer();
+		customer.setFirstname("Other");
+		customer.setLastname(lastname);
+		customer.setAddress("Main street 1");
+		customer.setEmail(lastname + "@example.com");
+		customer.setPhoneNumber("+381 64-987-6543");
+		customer = customerRepository.save(customer);
+		assertEquals(0, searchSuggestService.suggest(lastname, 5).size());
+
+		searchSuggestService.refresh();
+		assertEquals(1, searchSuggestService.suggest(lastname, 5).size());
+		assertEquals(customer.getId(), searchSuggestService.suggest(lastname, 5).get(0).getId());
+
+		customer.setDeleted(true);
+		customer.setDeletedAt(Instant.now());
+		customer.setUpdatedAt(Instant.now());
+		customerRepository.save(customer);
+
+		searchSuggestService.refresh();
+		assertEquals(0, searchSuggestService.suggest(lastname, 5).size());
+	}
+
+	@Test
+	void phoneNumberMatchesDigitsOnly() {
+		String lastname = "Z" + UUID.randomUUID().toString().replace("-", "");
+		String phoneNumber = "+381 " + Math.abs(lastname.hashCode() % 1000) + "-55-" + System.nanoTime() % 100000;
+
+		Customer customer = new Customer();
+		customer.setFirstname("Phone");
+		customer.setLastname(lastname);
+		customer.setAddress("Main street 2");
+		customer.setEmail(lastname + "@example.com");
+		customer.setPhoneNumber(phoneNumber);
+		customerRepository.save(customer);
+
+		searchSuggestService.rebuild();
+		assertEquals(1, searchSuggestService.suggest(phoneNumber.replaceAll("[^0-9]", ""), 5).size());
+	}
+}
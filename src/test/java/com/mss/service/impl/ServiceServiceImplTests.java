@@ -0,0 +1,127 @@
+package com.mss.service.impl;
+
+import com.mss.dto.ServiceDto;
+import com.mss.dto.ServiceFiltersQueryDto;
+import com.mss.enumeration.Role;
+import com.mss.model.Customer;
+import com.mss.model.Service;
+import com.mss.model.ServiceType;
+import com.mss.model.User;
+import com.mss.model.Vehicle;
+import com.mss.repository.CustomerRepository;
+import com.mss.repository.ServiceRepository;
+import com.mss.repository.ServiceTypeRepository;
+import com.mss.repository.UserRepository;
+import com.mss.repository.VehicleRepository;
+import com.mss.service.ServiceService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"application.jobs.poll-interval=3600000",
+		"application.search.suggest-refresh-interval=3600000",
+		"application.security.token-cache.eviction-poll-interval=3600000"})
+@Transactional
+class ServiceServiceImplTests {
+
+	@Autowired
+	private ServiceService serviceService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private VehicleRepository vehicleRepository;
+
+	@Autowired
+	private ServiceRepository serviceRepository;
+
+	@Autowired
+	private ServiceTypeRepository serviceTypeRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void findFilteredServicesRunsSameNumberOfStatementsForAnyPageSize() {
+		String run = UUID.randomUUID().toString().substring(0, 8);
+
+		for (int i = 0; i < 50; i++) {
+			User user = User.builder()
+					.firstname("Mechanic" + i)
+					.lastname(run)
+					.email(run + "-" + i + "@mss.test")
+					.password("password")
+					.role(Role.USER)
+					.enabled(true)
+					.build();
+			userRepository.save(user);
+
+			Customer customer = new Customer();
+			customer.setFirstname("Customer" + i);
+			customer.setLastname(run);
+			customer.setPhoneNumber(run + i);
+			customerRepository.save(customer);
+
+			Vehicle vehicle = new Vehicle();
+			vehicle.setCustomer(customer);
+			vehicle.setManufacturer("Volkswagen");
+			vehicle.setModel("Golf");
+			vehicle.setVehiclePlate("BG-" + i);
+			vehicle.setVin(run + "-" + i);
+			vehicleRepository.save(vehicle);
+
+			Service service = new Service();
+			service.setInvoiceCode(run + "-" + i);
+			service.setStartDate(LocalDate.now());
+			service.setEndDate(LocalDate.now());
+			service.setVehicle(vehicle);
+			service.setUser(user);
+			serviceRepository.save(service);
+
+			for (int j = 0; j < 2; j++) {
+				ServiceType serviceType = new ServiceType();
+				serviceType.setService(service);
+				serviceType.setTypeOfService("Oil change");
+				serviceType.setPartCode("P" + j);
+				serviceType.setPrice(10.0);
+				serviceType.setQuantity(1);
+				serviceTypeRepository.save(serviceType);
+			}
+		}
+		entityManager.flush();
+
+		assertEquals(statementsForPage(run, 5), statementsForPage(run, 50));
+	}
+
+	private long statementsForPage(String run, int pageSize) {
+		entityManager.clear();
+		Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		ServiceFiltersQueryDto filters = new ServiceFiltersQueryDto();
+		filters.setInvoiceCode(run);
+		Page<ServiceDto> page = serviceService.findFilteredServices(false, filters, 0, pageSize);
+
+		assertEquals(pageSize, page.getContent().size());
+		assertEquals(2, page.getContent().get(0).getServiceTypeDtos().size());
+
+		return statistics.getPrepareStatementCount();
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.mss.service.impl;
+
+import com.mss.model.TokenEviction;
+import com.mss.repository.TokenEvictionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Records evictions through the repository, the way another instance of the application publishes them,
+ * and checks that polling removes the cached tokens of this instance.
+ */
+@SpringBootTest
+class TokenEvictionServiceTests {
+
+	@Autowired
+	private TokenEvictionService tokenEvictionService;
+
+	@Autowired
+	private TokenEvictionRepository tokenEvictionRepository;
+
+	@Autowired
+	private TokenCache tokenCache;
+
+	@Test
+	void evictionRecordedElsewhereIsApplied() {
+		long userId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+		String jwt = UUID.randomUUID().toString();
+		UserDetails userDetails = User.withUsername(jwt + "@example.com").password("password").build();
+		tokenCache.put(jwt, userDetails, userId, new Date(System.currentTimeMillis() + 60000));
+
+		tokenEvictionService.poll();
+		assertNotNull(tokenCache.get(jwt));
+
+		tokenEvictionRepository.save(new TokenEviction(null, userId, Instant.now()));
+		tokenEvictionService.poll();
+		assertNull(tokenCache.get(jwt));
+	}
+
+	@Test
+	void evictionIsPublished() {
+		long userId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+		Instant start = Instant.now();
+
+		tokenEvictionService.evictUser(userId);
+
+		assertTrue(tokenEvictionRepository.findUserIdsEvictedSince(start).contains(userId));
+	}
+}
@@ -0,0 +1,52 @@
+-- Manual benchmark for the pg_trgm indexes created by V3__Create_trigram_search_indexes.sql.
+-- Run it with psql against a migrated database: psql -f trigram_search_explain.sql
+-- It seeds 200 000 customers, vehicles and services, prints the plans of the search predicates
+-- exactly as the custom repositories send them (bound LIKE parameter, ESCAPE ''), and rolls everything back.
+-- Every plan should show a Bitmap Index Scan on the matching idx_*_trgm index instead of a Seq Scan.
+
+BEGIN;
+
+INSERT INTO customers (created_at, deleted, deleted_by_cascade, firstname, lastname, address, email, phone_number)
+SELECT now(), false, false,
+       'First' || i, 'Last' || md5(i::text),
+       'Street ' || md5((i * 7)::text),
+       'mail' || i || '@example.com',
+       'bench' || lpad(i::text, 9, '0')
+FROM generate_series(1, 200000) AS i;
+
+INSERT INTO vehicles (created_at, deleted, deleted_by_cascade, manufacturer, model, vehicle_plate, vin, year_of_manufacture, customer_id)
+SELECT now(), false, false,
+       'Make' || (i % 500), 'Model' || md5(i::text),
+       'LJ-' || upper(substr(md5(i::text), 1, 2)) || '-' || lpad(i::text, 6, '0'),
+       'BENCH' || lpad(i::text, 12, '0'),
+       2000 + i % 25, c.id
+FROM generate_series(1, 200000) AS i
+JOIN customers c ON c.phone_number = 'bench' || lpad(i::text, 9, '0');
+
+INSERT INTO services (created_at, deleted, deleted_by_cascade, invoice_code, current_mileage, next_service_mileage, vehicle_id)
+SELECT now(), false, false, 'BN' || upper(substr(md5(v.id::text), 1, 8)) || v.id, 0, 0, v.id
+FROM vehicles v
+WHERE v.vin LIKE 'BENCH%';
+
+ANALYZE customers;
+ANALYZE vehicles;
+ANALYZE services;
+
+PREPARE customer_full_name(text) AS
+    SELECT c.id FROM customers c WHERE lower((c.firstname || ' ') || c.lastname) LIKE $1 ESCAPE '';
+PREPARE customer_phone_number(text) AS
+    SELECT c.id FROM customers c WHERE lower(c.phone_number) LIKE $1 ESCAPE '';
+PREPARE vehicle_plate(text) AS
+    SELECT v.id FROM vehicles v WHERE lower(regexp_replace(v.vehicle_plate, '[^a-zA-Z0-9]', '', 'g')) LIKE $1 ESCAPE '';
+PREPARE vehicle_vin(text) AS
+    SELECT v.id FROM vehicles v WHERE lower(v.vin) LIKE $1 ESCAPE '';
+PREPARE service_invoice_code(text) AS
+    SELECT s.id FROM services s WHERE lower(s.invoice_code) LIKE $1 ESCAPE '';
+
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE customer_full_name('%first1234 last%');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE customer_phone_number('%00012345%');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE vehicle_plate('%012345%');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE vehicle_vin('%00000012345%');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE service_invoice_code('%bn1a2b%');
+
+ROLLBACK;